@@ -1,8 +1,13 @@
 plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.google.services)
+    alias(libs.plugins.baselineprofile)
 }
 
+// Host de Firebase Local Emulator Suite (p. ej. 10.0.2.2 desde el emulador de Android);
+// vacío para usar el proyecto real. Los benchmarks compilan la app con -PfirebaseEmulatorHost
+val firebaseEmulatorHost = providers.gradleProperty("firebaseEmulatorHost").getOrElse("")
+
 android {
     namespace = "com.kamehouselaguna"
     compileSdk {
@@ -17,6 +22,13 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        buildConfigField("String", "FIREBASE_EMULATOR_HOST", "\"$firebaseEmulatorHost\"")
+        // El tráfico sin HTTPS hacia los emuladores y el perfilado desde el shell solo se habilitan
+        // al compilar contra los emuladores; las compilaciones normales no los incluyen
+        val useEmulators = firebaseEmulatorHost.isNotEmpty()
+        manifestPlaceholders["networkSecurityConfig"] =
+            if (useEmulators) "@xml/network_security_config_emulator" else "@xml/network_security_config"
+        manifestPlaceholders["profileableShell"] = useEmulators.toString()
     }
 
     buildTypes {
@@ -28,15 +40,32 @@ android {
             )
         }
     }
+    sourceSets {
+        getByName("main") {
+            if (firebaseEmulatorHost.isNotEmpty()) {
+                res.srcDir("src/emulator/res")
+            }
+        }
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // Las llamadas a Log de las clases probadas en la JVM no hacen nada en lugar de fallar
+        unitTests.isReturnDefaultValues = true
+    }
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
+baselineProfile {
+    // Un solo perfil en src/main para todas las variantes de release
+    mergeIntoMain = true
+}
+
 dependencies {
     // Core Android
     implementation(libs.androidx.core.ktx)
@@ -45,6 +74,7 @@ dependencies {
     implementation(libs.androidx.constraintlayout)
     implementation(libs.androidx.recyclerview)
     implementation(libs.androidx.cardview)
+    implementation(libs.androidx.lifecycle.runtime)
     
     // Firebase
     implementation(platform(libs.firebase.bom))
@@ -53,11 +83,25 @@ dependencies {
     implementation(libs.firebase.storage)
     implementation(libs.firebase.messaging)
     
+    // Background Work
+    implementation(libs.androidx.work.runtime)
+    
     // Image Loading
     implementation(libs.glide)
+    annotationProcessor(libs.glide.compiler)
+    // Sin dependencias transitivas para usar la versión de RecyclerView declarada arriba
+    implementation(libs.glide.recyclerview) {
+        isTransitive = false
+    }
+    
+    // Performance: instala el Baseline Profile en dispositivos sin Play Store y marca secciones para los benchmarks
+    implementation(libs.androidx.profileinstaller)
+    implementation(libs.androidx.tracing)
+    baselineProfile(project(":macrobenchmark"))
     
     // Testing
     testImplementation(libs.junit)
+    testImplementation(libs.org.json)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
 }
\ No newline at end of file
@@ -22,9 +22,14 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
+import com.kamehouselaguna.helpers.CatalogRepository;
+import com.kamehouselaguna.helpers.FigureImageSync;
 import com.kamehouselaguna.helpers.FirestoreHelper;
 import com.kamehouselaguna.helpers.StorageHelper;
 import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.ImageRenditions;
+
+import java.util.Map;
 
 /**
  * Actividad para agregar o editar figuras
@@ -51,6 +56,7 @@ public class AddEditFigureActivity extends AppCompatActivity {
     
     // Helpers
     private FirestoreHelper firestoreHelper;
+    private CatalogRepository catalogRepository;
     private StorageHelper storageHelper;
     
     // Data
@@ -58,6 +64,8 @@ public class AddEditFigureActivity extends AppCompatActivity {
     private Figure figura;
     private Uri imageUri;
     private String imageUrl;
+    private Map<String, String> imagenes;
+    private StorageHelper.UploadHandle uploadHandle;
     private boolean isEditMode = false;
 
     @Override
@@ -103,7 +111,8 @@ public class AddEditFigureActivity extends AppCompatActivity {
      */
     private void initializeHelpers() {
         firestoreHelper = new FirestoreHelper();
-        storageHelper = new StorageHelper();
+        catalogRepository = CatalogRepository.getInstance(this);
+        storageHelper = new StorageHelper(this);
     }
     
     /**
@@ -155,12 +164,13 @@ public class AddEditFigureActivity extends AppCompatActivity {
     private void loadFigura() {
         showLoading(true);
         
-        firestoreHelper.getFigura(figuraId, new FirestoreHelper.OnFiguraLoadedListener() {
+        catalogRepository.getFigura(figuraId, new FirestoreHelper.OnFiguraLoadedListener() {
             @Override
             public void onFiguraLoaded(Figure figuraLoaded) {
                 showLoading(false);
                 figura = figuraLoaded;
                 imageUrl = figura.getImagenUrl();
+                imagenes = figura.getImagenes();
                 updateUI();
             }
             
@@ -194,8 +204,7 @@ public class AddEditFigureActivity extends AppCompatActivity {
                 // Cargar imagen existente
                 if (figura.getImagenUrl() != null && !figura.getImagenUrl().isEmpty()) {
                     Glide.with(this)
-                            .load(figura.getImagenUrl())
-                            .diskCacheStrategy(DiskCacheStrategy.ALL)
+                            .load(figura.getImagenUrl(imageViewFigure.getLayoutParams().width))
                             .placeholder(R.drawable.ic_launcher_foreground)
                             .error(R.drawable.ic_launcher_foreground)
                             .into(imageViewFigure);
@@ -227,70 +236,104 @@ public class AddEditFigureActivity extends AppCompatActivity {
         if (requestCode == PICK_IMAGE_REQUEST && resultCode == Activity.RESULT_OK && data != null && data.getData() != null) {
             imageUri = data.getData();
             
-            // Mostrar imagen seleccionada
+            // Mostrar imagen seleccionada; ya está en el dispositivo, no se copia a la caché
             Glide.with(this)
                     .load(imageUri)
-                    .diskCacheStrategy(DiskCacheStrategy.ALL)
+                    .diskCacheStrategy(DiskCacheStrategy.NONE)
                     .placeholder(R.drawable.ic_launcher_foreground)
                     .error(R.drawable.ic_launcher_foreground)
                     .into(imageViewFigure);
         }
     }
     
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // La subida continúa sin la pantalla
+        if (uploadHandle != null) {
+            uploadHandle.removeProgressListener();
+        }
+    }
+    
     /**
      * Guarda la figura en Firestore
+     * Con una imagen nueva, el documento se guarda de inmediato con la imagen pendiente y la imagen
+     * se sube al mismo tiempo; cada versión se registra en el documento al terminar de subirse
      */
     private void saveFigura() {
         if (!validateInputs()) {
             return;
         }
+        if (isEditMode && figura == null) {
+            // Los cambios se calculan contra la figura cargada
+            Toast.makeText(this, "La figura aún se está cargando", Toast.LENGTH_SHORT).show();
+            return;
+        }
         
         showLoading(true);
+        String id = isEditMode ? figuraId : firestoreHelper.newFiguraId();
         
         if (imageUri != null) {
-            // Subir imagen primero
-            uploadImageAndSaveFigura();
+            // Mientras se sube la nueva, la figura conserva la imagen anterior si la tenía
+            saveFiguraToFirestore(id, imageUrl, imagenes, ImageRenditions.COUNT);
+            uploadImage(id);
         } else if (isEditMode && imageUrl != null) {
             // Usar imagen existente
-            saveFiguraToFirestore(imageUrl);
+            saveFiguraToFirestore(id, imageUrl, imagenes, 0);
         } else {
             // Sin imagen
-            saveFiguraToFirestore(null);
+            saveFiguraToFirestore(id, null, null, 0);
         }
     }
     
     /**
-     * Sube la imagen y luego guarda la figura
+     * Sube la imagen de la figura en paralelo con el guardado del documento
      */
-    private void uploadImageAndSaveFigura() {
-        storageHelper.uploadFigureImage(imageUri, new StorageHelper.OnImageUploadListener() {
-            @Override
-            public void onSuccess(String downloadUrl) {
-                imageUrl = downloadUrl;
-                saveFiguraToFirestore(downloadUrl);
+    private void uploadImage(String id) {
+        StorageHelper.OnUploadProgressListener progressListener = (bytesTransferred, totalBytes) -> {
+            if (totalBytes > 0) {
+                buttonSave.setText("Subiendo imagen… " + (bytesTransferred * 100 / totalBytes) + "%");
             }
-            
-            @Override
-            public void onError(String error) {
-                showLoading(false);
-                Toast.makeText(AddEditFigureActivity.this, "Error al subir imagen: " + error, Toast.LENGTH_LONG).show();
-            }
-        });
+        };
+        uploadHandle = FigureImageSync.getInstance(this).upload(id, imageUri, progressListener);
+    }
+    
+    /**
+     * Cancela la subida de la imagen si no se pudo guardar la figura, borrando las versiones ya subidas
+     * Al volver a guardar, la imagen se sube de nuevo para el documento que sí se escriba
+     */
+    private void discardUpload() {
+        if (uploadHandle != null) {
+            uploadHandle.discard();
+            uploadHandle = null;
+        }
+        buttonSave.setText(isEditMode ? "Actualizar Figura" : "Guardar Figura");
     }
     
     /**
      * Guarda la figura en Firestore
+     * @param imagenesPendientes Versiones de imagen que se están subiendo
      */
-    private void saveFiguraToFirestore(String imageUrl) {
+    private void saveFiguraToFirestore(String id, String imageUrl, Map<String, String> imagenes, int imagenesPendientes) {
         String nombre = editTextNombre.getText().toString().trim();
         double precio = Double.parseDouble(editTextPrecio.getText().toString().trim());
         String descripcion = editTextDescripcion.getText().toString().trim();
         
-        Figure figuraToSave = new Figure(nombre, descripcion, imageUrl, precio);
-        
         if (isEditMode) {
-            // Actualizar figura existente
-            firestoreHelper.updateFigura(figuraId, figuraToSave, new FirestoreHelper.OnOperationCompleteListener() {
+            // Actualizar solo los campos que cambiaron respecto a la figura cargada
+            Figure figuraEditada = new Figure(figura);
+            figuraEditada.setNombre(nombre);
+            figuraEditada.setDescripcion(descripcion);
+            figuraEditada.setPrecio(precio);
+            figuraEditada.setImagenUrl(imageUrl);
+            figuraEditada.setImagenes(imagenes);
+            if (imagenesPendientes > 0) {
+                // Solo una imagen nueva reinicia el estado de la subida; si no, se conserva el del
+                // documento para no pisar las versiones que aún se están registrando
+                figuraEditada.setImagenesPendientes(imagenesPendientes);
+                figuraEditada.setImagenError(false);
+            }
+            firestoreHelper.updateFigura(id, figura, figuraEditada, new FirestoreHelper.OnOperationCompleteListener() {
                 @Override
                 public void onSuccess(String message) {
                     showLoading(false);
@@ -300,13 +343,17 @@ public class AddEditFigureActivity extends AppCompatActivity {
                 
                 @Override
                 public void onError(String error) {
+                    discardUpload();
                     showLoading(false);
                     Toast.makeText(AddEditFigureActivity.this, "Error al actualizar figura: " + error, Toast.LENGTH_LONG).show();
                 }
             });
         } else {
             // Crear nueva figura
-            firestoreHelper.addFigura(figuraToSave, new FirestoreHelper.OnOperationCompleteListener() {
+            Figure figuraToSave = new Figure(nombre, descripcion, imageUrl, precio);
+            figuraToSave.setImagenes(imagenes);
+            figuraToSave.setImagenesPendientes(imagenesPendientes);
+            firestoreHelper.addFigura(id, figuraToSave, new FirestoreHelper.OnOperationCompleteListener() {
                 @Override
                 public void onSuccess(String message) {
                     showLoading(false);
@@ -316,6 +363,7 @@ public class AddEditFigureActivity extends AppCompatActivity {
                 
                 @Override
                 public void onError(String error) {
+                    discardUpload();
                     showLoading(false);
                     Toast.makeText(AddEditFigureActivity.this, "Error al agregar figura: " + error, Toast.LENGTH_LONG).show();
                 }
@@ -337,9 +385,9 @@ public class AddEditFigureActivity extends AppCompatActivity {
                 .setPositiveButton("Eliminar", (dialog, which) -> {
                     showLoading(true);
                     
-                    // Eliminar imagen del Storage si existe
+                    // Eliminar todas las versiones de la imagen del Storage si existen
                     if (figura.getImagenUrl() != null && !figura.getImagenUrl().isEmpty()) {
-                        storageHelper.deleteFigureImage(figura.getImagenUrl(), new StorageHelper.OnImageDeleteListener() {
+                        storageHelper.deleteFigureImages(figura, new StorageHelper.OnImageDeleteListener() {
                             @Override
                             public void onSuccess(String message) {
                                 // Eliminar figura de Firestore
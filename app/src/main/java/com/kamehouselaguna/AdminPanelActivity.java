@@ -1,11 +1,18 @@
 package com.kamehouselaguna;
 
+import android.app.Activity;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
+import android.widget.RadioGroup;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
@@ -16,18 +23,33 @@ import androidx.viewpager2.widget.ViewPager2;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
+import com.google.android.material.textfield.TextInputEditText;
+import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.kamehouselaguna.fragments.FigurasAdminFragment;
 import com.kamehouselaguna.fragments.NotificacionesAdminFragment;
+import com.kamehouselaguna.helpers.AppExecutors;
+import com.kamehouselaguna.helpers.CatalogImporter;
+import com.kamehouselaguna.helpers.CatalogManifest;
+import com.kamehouselaguna.helpers.FigureBulkEditor;
+import com.kamehouselaguna.helpers.FigureImageSync;
+import com.kamehouselaguna.helpers.FirebaseImportBackend;
 import com.kamehouselaguna.helpers.FirestoreHelper;
 import com.kamehouselaguna.helpers.NotificationHelper;
+import com.kamehouselaguna.helpers.OrphanImageCollector;
+import com.kamehouselaguna.helpers.PriceAdjustment;
 import com.kamehouselaguna.models.Figure;
 import com.kamehouselaguna.models.Notification;
 import com.kamehouselaguna.models.User;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Actividad del panel de administrador
  * Permite gestionar figuras y notificaciones
@@ -37,6 +59,8 @@ public class AdminPanelActivity extends AppCompatActivity implements
         NotificacionesAdminFragment.OnNotificationActionListener {
     
     private static final String TAG = "AdminPanelActivity";
+    private static final int PICK_IMPORT_FOLDER_REQUEST = 1;
+    private static final int MAX_ERRORES_REPORTE = 20;
     
     // Views
     private MaterialToolbar toolbar;
@@ -51,11 +75,13 @@ public class AdminPanelActivity extends AppCompatActivity implements
     // Helpers
     private FirestoreHelper firestoreHelper;
     private NotificationHelper notificationHelper;
+    private FigureBulkEditor figureBulkEditor;
     
     // Data
     private FirebaseUser currentUser;
     private User userData;
     private int currentTab = 0; // 0 = Figuras, 1 = Notificaciones
+    private boolean importing = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -88,6 +114,11 @@ public class AdminPanelActivity extends AppCompatActivity implements
     private void initializeHelpers() {
         firestoreHelper = new FirestoreHelper();
         notificationHelper = new NotificationHelper(this);
+        figureBulkEditor = new FigureBulkEditor(this);
+        // Continúa las subidas de imágenes que quedaron pendientes en una sesión anterior
+        FigureImageSync.getInstance(this).resumePending();
+        // Limpieza semanal de imágenes que ya no usa ninguna figura
+        OrphanImageWorker.schedule(this);
     }
     
     /**
@@ -269,6 +300,282 @@ public class AdminPanelActivity extends AppCompatActivity implements
         });
     }
     
+    // ========== IMPORTACIÓN DE CATÁLOGO ==========
+    
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_admin_panel, menu);
+        return true;
+    }
+    
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == R.id.action_import_catalog) {
+            selectImportFolder();
+            return true;
+        } else if (item.getItemId() == R.id.action_clean_images) {
+            previewOrphanImages();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+    
+    /**
+     * Abre el selector de carpetas; la carpeta debe contener manifest.csv o manifest.json y las imágenes
+     */
+    private void selectImportFolder() {
+        if (importing) {
+            Toast.makeText(this, "Ya hay una importación en curso", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT_TREE);
+        startActivityForResult(intent, PICK_IMPORT_FOLDER_REQUEST);
+    }
+    
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        
+        if (requestCode == PICK_IMPORT_FOLDER_REQUEST && resultCode == Activity.RESULT_OK && data != null && data.getData() != null) {
+            importCatalog(data.getData());
+        }
+    }
+    
+    /**
+     * Lee el manifiesto de la carpeta y ejecuta la importación mostrando el progreso
+     */
+    private void importCatalog(Uri treeUri) {
+        importing = true;
+        AlertDialog progressDialog = showProgressDialog("Importando catálogo");
+        
+        AppExecutors.getInstance().diskIO().execute(() -> {
+            Map<String, Uri> archivos;
+            List<CatalogManifest.Row> rows;
+            try {
+                archivos = FirebaseImportBackend.listFolder(this, treeUri);
+                rows = FirebaseImportBackend.readManifest(this, archivos);
+            } catch (Exception e) {
+                AppExecutors.getInstance().mainThread().execute(() -> {
+                    importing = false;
+                    progressDialog.dismiss();
+                    Toast.makeText(this, "Error al leer el manifiesto: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                });
+                return;
+            }
+            
+            AppExecutors.getInstance().mainThread().execute(() -> {
+                CatalogImporter importer = new CatalogImporter(new FirebaseImportBackend(this, archivos));
+                importer.importRows(rows, new CatalogImporter.OnImportListener() {
+                    @Override
+                    public void onProgress(int completed, int total) {
+                        updateProgressDialog(progressDialog, completed, total,
+                                rows.size() + " filas · " + completed + " de " + total + " pasos");
+                    }
+                    
+                    @Override
+                    public void onComplete(List<CatalogImporter.RowResult> results) {
+                        importing = false;
+                        if (isFinishing() || isDestroyed()) {
+                            return;
+                        }
+                        progressDialog.dismiss();
+                        showImportReport(results);
+                    }
+                });
+            });
+        });
+    }
+    
+    /**
+     * Muestra el resumen de la importación con el error de cada fila que falló
+     */
+    private void showImportReport(List<CatalogImporter.RowResult> results) {
+        int exitosas = 0;
+        StringBuilder errores = new StringBuilder();
+        int erroresMostrados = 0;
+        for (CatalogImporter.RowResult result : results) {
+            if (result.isSuccess()) {
+                exitosas++;
+            } else if (erroresMostrados < MAX_ERRORES_REPORTE) {
+                erroresMostrados++;
+                errores.append("\nFila ").append(result.getLine());
+                if (result.getNombre() != null) {
+                    errores.append(" (").append(result.getNombre()).append(")");
+                }
+                errores.append(": ").append(result.getError());
+            }
+        }
+        
+        int fallidas = results.size() - exitosas;
+        StringBuilder mensaje = new StringBuilder()
+                .append(exitosas).append(" figuras importadas, ")
+                .append(fallidas).append(" filas con error");
+        if (fallidas > 0) {
+            mensaje.append('\n').append(errores);
+            if (fallidas > erroresMostrados) {
+                mensaje.append("\n… y ").append(fallidas - erroresMostrados).append(" más");
+            }
+        }
+        
+        new MaterialAlertDialogBuilder(this)
+                .setTitle("Importación terminada")
+                .setMessage(mensaje.toString())
+                .setPositiveButton("Aceptar", null)
+                .show();
+    }
+    
+    /**
+     * Muestra un diálogo de progreso que no se puede cancelar
+     */
+    private AlertDialog showProgressDialog(String titulo) {
+        return new MaterialAlertDialogBuilder(this)
+                .setTitle(titulo)
+                .setView(R.layout.dialog_progress)
+                .setCancelable(false)
+                .show();
+    }
+    
+    private void updateProgressDialog(AlertDialog dialog, int completed, int total, String estado) {
+        LinearProgressIndicator progress = dialog.findViewById(R.id.progressOperacion);
+        TextView textViewEstado = dialog.findViewById(R.id.textViewProgresoEstado);
+        if (progress == null || textViewEstado == null) {
+            return;
+        }
+        progress.setIndeterminate(false);
+        progress.setMax(Math.max(total, 1));
+        progress.setProgressCompat(completed, true);
+        textViewEstado.setText(estado);
+    }
+    
+    // ========== LIMPIEZA DE IMÁGENES ==========
+    
+    /**
+     * Simula la limpieza y pide confirmación antes de borrar las imágenes huérfanas
+     */
+    private void previewOrphanImages() {
+        AlertDialog progressDialog = showProgressDialog("Buscando imágenes huérfanas");
+        OrphanImageWorker.collect(true, new OrphanImageCollector.OnCollectListener() {
+            @Override
+            public void onComplete(OrphanImageCollector.Report report) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                progressDialog.dismiss();
+                
+                int huerfanas = report.getOrphans().size();
+                String mensaje = report.getScanned() + " imágenes revisadas, "
+                        + report.getReferenced() + " en uso, "
+                        + huerfanas + " huérfanas, "
+                        + report.getRecent().size() + " recientes que se conservan";
+                if (!report.getFailures().isEmpty()) {
+                    mensaje += ", " + report.getFailures().size() + " no se pudieron revisar";
+                }
+                
+                MaterialAlertDialogBuilder builder = new MaterialAlertDialogBuilder(AdminPanelActivity.this)
+                        .setTitle("Imágenes huérfanas")
+                        .setMessage(mensaje);
+                if (huerfanas > 0) {
+                    builder.setPositiveButton("Eliminar " + huerfanas, (dialog, which) -> {
+                        OrphanImageWorker.runNow(AdminPanelActivity.this);
+                        Toast.makeText(AdminPanelActivity.this, "La limpieza se ejecutará en segundo plano", Toast.LENGTH_SHORT).show();
+                    }).setNegativeButton("Cancelar", null);
+                } else {
+                    builder.setPositiveButton("Aceptar", null);
+                }
+                builder.show();
+            }
+            
+            @Override
+            public void onError(String error) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                progressDialog.dismiss();
+                Toast.makeText(AdminPanelActivity.this, error, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+    
+    // ========== OPERACIONES EN LOTE ==========
+    
+    /**
+     * Pide el ajuste de precio para las figuras seleccionadas
+     */
+    private void showAdjustPricesDialog(List<Figure> figuras) {
+        View dialogView = getLayoutInflater().inflate(R.layout.dialog_adjust_price, null);
+        RadioGroup radioGroupTipo = dialogView.findViewById(R.id.radioGroupTipoAjuste);
+        TextInputLayout textInputLayoutAjuste = dialogView.findViewById(R.id.textInputLayoutAjuste);
+        TextInputEditText editTextAjuste = dialogView.findViewById(R.id.editTextAjuste);
+        
+        AlertDialog dialog = new MaterialAlertDialogBuilder(this)
+                .setTitle("Ajustar precio de " + figuras.size() + " figuras")
+                .setView(dialogView)
+                .setPositiveButton("Aplicar", null)
+                .setNegativeButton("Cancelar", null)
+                .show();
+        
+        // Validar sin cerrar el diálogo si el valor no es válido
+        dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+            double valor;
+            try {
+                valor = Double.parseDouble(editTextAjuste.getText().toString().trim());
+            } catch (NumberFormatException e) {
+                textInputLayoutAjuste.setError("Ingresa un número válido");
+                return;
+            }
+            if (valor == 0) {
+                textInputLayoutAjuste.setError("El ajuste no puede ser 0");
+                return;
+            }
+            
+            PriceAdjustment ajuste = radioGroupTipo.getCheckedRadioButtonId() == R.id.radioMontoFijo
+                    ? PriceAdjustment.fixedAmount(valor)
+                    : PriceAdjustment.percentage(valor);
+            dialog.dismiss();
+            adjustPrices(figuras, ajuste);
+        });
+    }
+    
+    private void adjustPrices(List<Figure> figuras, PriceAdjustment ajuste) {
+        AlertDialog progressDialog = showProgressDialog("Ajustando precios");
+        figureBulkEditor.adjustPrices(figuras, ajuste, bulkListener(progressDialog, "actualizadas"));
+    }
+    
+    private void deleteFiguras(List<Figure> figuras) {
+        AlertDialog progressDialog = showProgressDialog("Eliminando figuras");
+        figureBulkEditor.deleteFiguras(figuras, bulkListener(progressDialog, "eliminadas"));
+    }
+    
+    /**
+     * Listener común de las operaciones en lote: avanza el diálogo y al final muestra el resumen
+     */
+    private FigureBulkEditor.OnBulkOperationListener bulkListener(AlertDialog progressDialog, String accion) {
+        return new FigureBulkEditor.OnBulkOperationListener() {
+            @Override
+            public void onProgress(int completed, int total) {
+                updateProgressDialog(progressDialog, completed, total, completed + " de " + total + " figuras");
+            }
+            
+            @Override
+            public void onComplete(int exitosas, int fallidas, String error) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                progressDialog.dismiss();
+                figurasFragment.finishSelection();
+                if (fallidas == 0) {
+                    Toast.makeText(AdminPanelActivity.this, exitosas + " figuras " + accion, Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                new MaterialAlertDialogBuilder(AdminPanelActivity.this)
+                        .setTitle("Operación incompleta")
+                        .setMessage(exitosas + " figuras " + accion + ", " + fallidas + " con error.\n" + error)
+                        .setPositiveButton("Aceptar", null)
+                        .show();
+            }
+        };
+    }
+    
     // ========== IMPLEMENTACIÓN DE INTERFACES ==========
     
     @Override
@@ -284,15 +591,19 @@ public class AdminPanelActivity extends AppCompatActivity implements
                 .setTitle("Eliminar Figura")
                 .setMessage("¿Estás seguro de que quieres eliminar la figura \"" + figura.getNombre() + "\"?")
                 .setPositiveButton("Eliminar", (dialog, which) -> {
-                    firestoreHelper.deleteFigura(figura.getId(), new FirestoreHelper.OnOperationCompleteListener() {
+                    // También borra las imágenes de la figura
+                    figureBulkEditor.deleteFiguras(Collections.singletonList(figura), new FigureBulkEditor.OnBulkOperationListener() {
                         @Override
-                        public void onSuccess(String message) {
-                            Toast.makeText(AdminPanelActivity.this, "Figura eliminada exitosamente", Toast.LENGTH_SHORT).show();
+                        public void onProgress(int completed, int total) {
                         }
                         
                         @Override
-                        public void onError(String error) {
-                            Toast.makeText(AdminPanelActivity.this, "Error al eliminar figura: " + error, Toast.LENGTH_LONG).show();
+                        public void onComplete(int exitosas, int fallidas, String error) {
+                            if (fallidas == 0) {
+                                Toast.makeText(AdminPanelActivity.this, "Figura eliminada exitosamente", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(AdminPanelActivity.this, "Error al eliminar figura: " + error, Toast.LENGTH_LONG).show();
+                            }
                         }
                     });
                 })
@@ -300,6 +611,21 @@ public class AdminPanelActivity extends AppCompatActivity implements
                 .show();
     }
     
+    @Override
+    public void onAdjustPrices(List<Figure> figuras) {
+        showAdjustPricesDialog(figuras);
+    }
+    
+    @Override
+    public void onDeleteFigures(List<Figure> figuras) {
+        new MaterialAlertDialogBuilder(this)
+                .setTitle("Eliminar Figuras")
+                .setMessage("¿Estás seguro de que quieres eliminar " + figuras.size() + " figuras y sus imágenes?")
+                .setPositiveButton("Eliminar", (dialog, which) -> deleteFiguras(figuras))
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+    
     @Override
     public void onDeleteNotification(Notification notificacion) {
         new MaterialAlertDialogBuilder(this)
@@ -1,6 +1,7 @@
 package com.kamehouselaguna;
 
 import android.content.Intent;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.View;
@@ -9,12 +10,21 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.tracing.Trace;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
+import com.kamehouselaguna.adapters.FigureAdapter;
+import com.kamehouselaguna.helpers.CatalogRepository;
 import com.kamehouselaguna.helpers.FirestoreHelper;
 import com.kamehouselaguna.models.Figure;
 
@@ -28,6 +38,10 @@ import java.util.Locale;
 public class FigureDetailActivity extends AppCompatActivity {
     
     private static final String TAG = "FigureDetailActivity";
+    // Tamaño de la miniatura que ya mostraba la lista, para reutilizar su bitmap
+    public static final String EXTRA_THUMBNAIL_PX = "thumbnail_px";
+    // Sección de trace desde que se abre el detalle hasta la imagen completa, medida por el benchmark
+    public static final String TRACE_DETAIL_DRAWN = "FigureDetailDrawn";
     
     // Views
     private MaterialToolbar toolbar;
@@ -39,15 +53,18 @@ public class FigureDetailActivity extends AppCompatActivity {
     private ProgressBar progressBar;
     
     // Helpers
-    private FirestoreHelper firestoreHelper;
+    private CatalogRepository catalogRepository;
     
     // Data
     private Figure figura;
     private String figuraId;
+    private int thumbnailPx;
     private NumberFormat currencyFormat;
+    private boolean fullyDrawnReported = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        Trace.beginAsyncSection(TRACE_DETAIL_DRAWN, System.identityHashCode(this));
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_figure_detail);
         
@@ -63,6 +80,7 @@ public class FigureDetailActivity extends AppCompatActivity {
             finish();
             return;
         }
+        thumbnailPx = getIntent().getIntExtra(EXTRA_THUMBNAIL_PX, 0);
         
         // Cargar figura
         loadFigura();
@@ -87,7 +105,7 @@ public class FigureDetailActivity extends AppCompatActivity {
      * Inicializa los helpers
      */
     private void initializeHelpers() {
-        firestoreHelper = new FirestoreHelper();
+        catalogRepository = CatalogRepository.getInstance(this);
     }
     
     /**
@@ -121,21 +139,34 @@ public class FigureDetailActivity extends AppCompatActivity {
     
     /**
      * Carga la figura desde Firestore
+     * Si el catálogo ya la tiene en memoria se muestra de inmediato y solo se vuelve a dibujar
+     * si la copia confirmada es distinta
      */
     private void loadFigura() {
-        showLoading(true);
+        figura = catalogRepository.getCachedFigura(figuraId);
+        if (figura != null) {
+            updateUI();
+        } else {
+            showLoading(true);
+        }
         
-        firestoreHelper.getFigura(figuraId, new FirestoreHelper.OnFiguraLoadedListener() {
+        catalogRepository.getFigura(figuraId, new FirestoreHelper.OnFiguraLoadedListener() {
             @Override
             public void onFiguraLoaded(Figure figuraLoaded) {
                 showLoading(false);
-                figura = figuraLoaded;
-                updateUI();
+                if (figuraLoaded != figura) {
+                    figura = figuraLoaded;
+                    updateUI();
+                }
             }
             
             @Override
             public void onError(String error) {
                 showLoading(false);
+                if (figura != null) {
+                    // Se conserva la copia en memoria que ya se muestra
+                    return;
+                }
                 Toast.makeText(FigureDetailActivity.this, "Error al cargar figura: " + error, Toast.LENGTH_LONG).show();
                 finish();
             }
@@ -155,14 +186,21 @@ public class FigureDetailActivity extends AppCompatActivity {
         
         // Cargar imagen
         if (figura.getImagenUrl() != null && !figura.getImagenUrl().isEmpty()) {
-            Glide.with(this)
-                    .load(figura.getImagenUrl())
-                    .diskCacheStrategy(DiskCacheStrategy.ALL)
+            RequestBuilder<Drawable> request = Glide.with(this)
+                    .load(figura.getImagenUrl(getResources().getDisplayMetrics().widthPixels))
                     .placeholder(R.drawable.ic_launcher_foreground)
                     .error(R.drawable.ic_launcher_foreground)
-                    .into(imageViewFigure);
+                    .listener(fullImageListener);
+            if (thumbnailPx > 0) {
+                // La miniatura de la lista sale de la caché de memoria mientras llega la versión grande;
+                // si ya no está en caché no se descarga
+                request = request.thumbnail(FigureAdapter.thumbnailRequest(Glide.with(this), figura, thumbnailPx)
+                        .onlyRetrieveFromCache(true));
+            }
+            request.into(imageViewFigure);
         } else {
             imageViewFigure.setImageResource(R.drawable.ic_launcher_foreground);
+            reportDetailDrawn();
         }
         
         // Configurar textos
@@ -171,6 +209,36 @@ public class FigureDetailActivity extends AppCompatActivity {
         textViewDescripcion.setText(figura.getDescripcion());
     }
     
+    /**
+     * Marca el detalle como completo cuando la imagen en alta resolución termina de cargar
+     */
+    private final RequestListener<Drawable> fullImageListener = new RequestListener<Drawable>() {
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                    @NonNull Target<Drawable> target, boolean isFirstResource) {
+            reportDetailDrawn();
+            return false;
+        }
+        
+        @Override
+        public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model, Target<Drawable> target,
+                                       @NonNull DataSource dataSource, boolean isFirstResource) {
+            reportDetailDrawn();
+            return false;
+        }
+    };
+    
+    /**
+     * Tiempo hasta el detalle completo, medido por el benchmark de la pantalla de detalle
+     */
+    private void reportDetailDrawn() {
+        if (!fullyDrawnReported) {
+            fullyDrawnReported = true;
+            reportFullyDrawn();
+            Trace.endAsyncSection(TRACE_DETAIL_DRAWN, System.identityHashCode(this));
+        }
+    }
+    
     /**
      * Comparte la información de la figura
      */
@@ -0,0 +1,17 @@
+package com.kamehouselaguna;
+
+import android.app.Application;
+
+import com.kamehouselaguna.helpers.FirebaseEmulators;
+
+/**
+ * Inicialización de la aplicación antes de la primera actividad
+ */
+public class KameHouseApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FirebaseEmulators.connectIfConfigured();
+    }
+}
@@ -0,0 +1,116 @@
+package com.kamehouselaguna;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.module.AppGlideModule;
+import com.kamehouselaguna.helpers.FirebaseStorageUrlLoader;
+import com.kamehouselaguna.helpers.ImageCacheStats;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * Configuración de Glide para toda la aplicación
+ * Ajusta las cachés a la memoria del dispositivo, limita la caché de disco, registra el cargador
+ * de URLs de Storage y cuenta los aciertos de caché en {@link ImageCacheStats}
+ */
+@GlideModule
+public class KameHouseGlideModule extends AppGlideModule {
+    private static final long DISK_CACHE_BYTES = 150L * 1024 * 1024;
+    // Fracción del heap de la app para bitmaps decodificados y para reutilizar bitmaps
+    private static final int MEMORY_CACHE_DIVISOR = 8;
+    private static final int BITMAP_POOL_DIVISOR = 16;
+    // En dispositivos de poca RAM se usa la mitad
+    private static final int LOW_RAM_FACTOR = 2;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        long heapBytes = activityManager.getMemoryClass() * 1024L * 1024;
+        int factor = activityManager.isLowRamDevice() ? LOW_RAM_FACTOR : 1;
+
+        builder.setMemoryCache(new CountingMemoryCache(heapBytes / (MEMORY_CACHE_DIVISOR * factor)));
+        builder.setBitmapPool(new LruBitmapPool(heapBytes / (BITMAP_POOL_DIVISOR * factor)));
+
+        DiskCache.Factory diskCacheFactory = new InternalCacheDiskCacheFactory(context, DISK_CACHE_BYTES);
+        builder.setDiskCache(() -> {
+            DiskCache diskCache = diskCacheFactory.build();
+            return diskCache != null ? new CountingDiskCache(diskCache) : null;
+        });
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(String.class, InputStream.class, new FirebaseStorageUrlLoader.Factory());
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    /**
+     * Caché de memoria que cuenta aciertos; Glide la consulta quitando la entrada mientras se usa
+     */
+    private static class CountingMemoryCache extends LruResourceCache {
+        CountingMemoryCache(long size) {
+            super(size);
+        }
+
+        @Nullable
+        @Override
+        public synchronized Resource<?> remove(@NonNull Key key) {
+            Resource<?> resource = super.remove(key);
+            ImageCacheStats.getInstance().recordMemory(resource != null);
+            return resource;
+        }
+    }
+
+    /**
+     * Caché de disco que cuenta aciertos al leer
+     */
+    private static class CountingDiskCache implements DiskCache {
+        private final DiskCache delegate;
+
+        CountingDiskCache(DiskCache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Nullable
+        @Override
+        public File get(Key key) {
+            File file = delegate.get(key);
+            ImageCacheStats.getInstance().recordDisk(file != null);
+            return file;
+        }
+
+        @Override
+        public void put(Key key, Writer writer) {
+            delegate.put(key, writer);
+        }
+
+        @Override
+        public void delete(Key key) {
+            delegate.delete(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+}
@@ -2,28 +2,47 @@ package com.kamehouselaguna;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.ProgressBar;
+import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.slider.RangeSlider;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.kamehouselaguna.adapters.FigureAdapter;
+import com.kamehouselaguna.adapters.PaginationScrollListener;
+import com.kamehouselaguna.helpers.AppExecutors;
+import com.kamehouselaguna.helpers.CatalogRepository;
+import com.kamehouselaguna.helpers.DisplayItems;
 import com.kamehouselaguna.helpers.FirestoreHelper;
+import com.kamehouselaguna.helpers.ImageCacheStats;
+import com.kamehouselaguna.helpers.ListChange;
 import com.kamehouselaguna.helpers.NotificationHelper;
+import com.kamehouselaguna.helpers.PriceIndex;
+import com.kamehouselaguna.helpers.SearchIndex;
 import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
 import com.kamehouselaguna.models.User;
 
+import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Actividad principal que muestra el catálogo de figuras
@@ -32,6 +51,10 @@ import java.util.List;
 public class MainActivity extends AppCompatActivity implements FigureAdapter.OnFigureClickListener {
     
     private static final String TAG = "MainActivity";
+    // Filas por delante del scroll cuyas imágenes se precargan
+    private static final int PRELOAD_AHEAD_ITEMS = 8;
+    // Filas fuera de pantalla que se conservan enlazadas al volver a hacer scroll
+    private static final int ROW_CACHE_SIZE = 6;
     
     // Views
     private MaterialToolbar toolbar;
@@ -43,12 +66,26 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
     // Adapters and helpers
     private FigureAdapter figureAdapter;
     private FirestoreHelper firestoreHelper;
+    private CatalogRepository catalogRepository;
+    private FirestoreHelper.OnFigurasChangedListener catalogListener;
     private NotificationHelper notificationHelper;
+    // Solo se usan desde el executor de fondo
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final PriceIndex priceIndex = new PriceIndex();
+    private final DisplayItems displayItems = new DisplayItems();
     
     // Data
     private List<Figure> figuras;
+    private String query = "";
+    // Rango de precio sin límites mientras el usuario no lo acote
+    private double precioMin = Double.NEGATIVE_INFINITY;
+    private double precioMax = Double.POSITIVE_INFINITY;
+    private PriceIndex.Sort sort = PriceIndex.Sort.NEWEST;
+    // Descarta resultados de búsquedas que ya se reemplazaron
+    private int resultsGeneration = 0;
     private FirebaseUser currentUser;
     private User userData;
+    private boolean fullyDrawnReported = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -74,6 +111,12 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
         checkUserAuth();
     }
     
+    @Override
+    protected void onStop() {
+        super.onStop();
+        Log.d(TAG, "Caché de imágenes: " + ImageCacheStats.getInstance());
+    }
+    
     /**
      * Inicializa las vistas
      */
@@ -92,6 +135,7 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
      */
     private void initializeHelpers() {
         firestoreHelper = new FirestoreHelper();
+        catalogRepository = CatalogRepository.getInstance(this);
         notificationHelper = new NotificationHelper(this);
     }
     
@@ -99,9 +143,33 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
      * Configura el RecyclerView
      */
     private void setupRecyclerView() {
-        figureAdapter = new FigureAdapter(figuras, this);
-        recyclerViewFiguras.setLayoutManager(new LinearLayoutManager(this));
+        figureAdapter = new FigureAdapter(this, Glide.with(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerViewFiguras.setLayoutManager(layoutManager);
         recyclerViewFiguras.setAdapter(figureAdapter);
+        recyclerViewFiguras.setHasFixedSize(true);
+        recyclerViewFiguras.setItemViewCacheSize(ROW_CACHE_SIZE);
+        
+        // Descargar y decodificar las imágenes antes de que sus filas lleguen a la pantalla
+        recyclerViewFiguras.addOnScrollListener(figureAdapter.createPreloader(PRELOAD_AHEAD_ITEMS));
+        
+        // Cargar la siguiente página al acercarse al final de la lista
+        recyclerViewFiguras.addOnScrollListener(new PaginationScrollListener(layoutManager) {
+            @Override
+            protected void loadMore() {
+                catalogRepository.loadNextPage();
+            }
+            
+            @Override
+            protected boolean isLoading() {
+                return catalogRepository.isLoading();
+            }
+            
+            @Override
+            protected boolean hasMore() {
+                return catalogRepository.hasMore();
+            }
+        });
     }
     
     /**
@@ -114,6 +182,40 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
         }
     }
     
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_main, menu);
+        
+        MenuItem searchItem = menu.findItem(R.id.action_search);
+        SearchView searchView = (SearchView) searchItem.getActionView();
+        searchView.setQueryHint("Buscar figuras");
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String text) {
+                searchView.clearFocus();
+                return true;
+            }
+            
+            @Override
+            public boolean onQueryTextChange(String text) {
+                // Filtrar mientras el usuario escribe, sin consultar la red
+                query = text.trim();
+                refreshResults();
+                return true;
+            }
+        });
+        return true;
+    }
+    
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == R.id.action_filter) {
+            showFilterDialog();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+    
     /**
      * Configura el FAB de login
      */
@@ -156,24 +258,18 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
     }
     
     /**
-     * Carga las figuras desde Firestore
+     * Carga las figuras del catálogo compartido
+     * Si hay un catálogo guardado en el dispositivo se muestra de inmediato
      */
     private void loadFiguras() {
         showLoading(true);
         
-        firestoreHelper.getFigurasRealtime(new FirestoreHelper.OnFigurasLoadedListener() {
+        catalogListener = new FirestoreHelper.OnFigurasChangedListener() {
             @Override
-            public void onFigurasLoaded(List<Figure> figurasList) {
+            public void onFigurasChanged(List<Figure> figurasList, List<ListChange> cambios) {
                 showLoading(false);
-                figuras.clear();
-                figuras.addAll(figurasList);
-                figureAdapter.updateFiguras(figuras);
-                
-                if (figuras.isEmpty()) {
-                    showEmptyState(true);
-                } else {
-                    showEmptyState(false);
-                }
+                figuras = figurasList;
+                refreshResults();
             }
             
             @Override
@@ -182,9 +278,168 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
                 showEmptyState(true);
                 Toast.makeText(MainActivity.this, "Error al cargar figuras: " + error, Toast.LENGTH_LONG).show();
             }
+        };
+        catalogRepository.subscribe(this, catalogListener);
+    }
+    
+    /**
+     * Muestra el catálogo o, si hay búsqueda o filtro, las figuras que coinciden
+     * Los índices y los textos de las filas se actualizan en el executor de fondo; solo se procesan
+     * las figuras que cambiaron
+     */
+    private void refreshResults() {
+        int generation = ++resultsGeneration;
+        boolean filtrando = hasPriceFilter() || sort != PriceIndex.Sort.NEWEST;
+        List<Figure> catalogo = figuras;
+        String consulta = query;
+        double min = precioMin;
+        double max = precioMax;
+        PriceIndex.Sort orden = sort;
+        AppExecutors.getInstance().background().execute(() -> {
+            List<FigureItem> items = displayItems.syncFiguras(catalogo);
+            if (consulta.isEmpty() && !filtrando) {
+                showResultsIfCurrent(generation, items);
+                return;
+            }
+            
+            List<Figure> resultados;
+            if (consulta.isEmpty()) {
+                priceIndex.sync(catalogo);
+                resultados = priceIndex.query(min, max, orden);
+            } else {
+                searchIndex.sync(catalogo);
+                resultados = searchIndex.search(consulta);
+                if (filtrando) {
+                    // Con búsqueda, "Más recientes" conserva el orden por relevancia
+                    priceIndex.sync(catalogo);
+                    resultados = priceIndex.filter(resultados, min, max, orden);
+                }
+            }
+            showResultsIfCurrent(generation, displayItems.figureItems(resultados));
+        });
+    }
+    
+    /**
+     * Publica resultados en el hilo principal si no llegaron otros más recientes
+     */
+    private void showResultsIfCurrent(int generation, List<FigureItem> resultados) {
+        AppExecutors.getInstance().mainThread().execute(() -> {
+            if (generation == resultsGeneration) {
+                showResults(resultados);
+            }
+        });
+    }
+    
+    private void showResults(List<FigureItem> resultados) {
+        figureAdapter.submitList(resultados, () -> {
+            // Tiempo hasta el primer contenido, medido por el benchmark de arranque
+            if (!fullyDrawnReported && !resultados.isEmpty()) {
+                fullyDrawnReported = true;
+                reportFullyDrawn();
+            }
+        });
+        
+        if (resultados.isEmpty()) {
+            textViewEmpty.setText(query.isEmpty() && !hasPriceFilter()
+                    ? "No hay figuras disponibles"
+                    : "No hay figuras que coincidan");
+            showEmptyState(true);
+        } else {
+            showEmptyState(false);
+        }
+    }
+    
+    private boolean hasPriceFilter() {
+        return precioMin != Double.NEGATIVE_INFINITY || precioMax != Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Muestra el diálogo de rango de precio y orden
+     * Los límites del control salen del índice de precios, que se consulta en el executor de fondo
+     */
+    private void showFilterDialog() {
+        List<Figure> catalogo = figuras;
+        AppExecutors.getInstance().background().execute(() -> {
+            priceIndex.sync(catalogo);
+            float minimo = (float) Math.floor(priceIndex.getMinPrice());
+            float maximo = (float) Math.ceil(priceIndex.getMaxPrice());
+            AppExecutors.getInstance().mainThread().execute(() -> {
+                if (!isFinishing()) {
+                    showFilterDialog(minimo, Math.max(maximo, minimo + 1));
+                }
+            });
         });
     }
     
+    private void showFilterDialog(float minimo, float maximo) {
+        View dialogView = getLayoutInflater().inflate(R.layout.dialog_filter, null);
+        TextView textViewRango = dialogView.findViewById(R.id.textViewRangoPrecio);
+        RangeSlider sliderPrecio = dialogView.findViewById(R.id.sliderPrecio);
+        RadioGroup radioGroupOrden = dialogView.findViewById(R.id.radioGroupOrden);
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "MX"));
+        
+        sliderPrecio.setValueFrom(minimo);
+        sliderPrecio.setValueTo(maximo);
+        sliderPrecio.setLabelFormatter(currencyFormat::format);
+        sliderPrecio.setValues(
+                (float) Math.max(minimo, Math.min(maximo, precioMin)),
+                (float) Math.max(minimo, Math.min(maximo, precioMax)));
+        RangeSlider.OnChangeListener rangoListener = (slider, value, fromUser) -> {
+            List<Float> valores = slider.getValues();
+            textViewRango.setText("Precio: " + currencyFormat.format(valores.get(0))
+                    + " - " + currencyFormat.format(valores.get(1)));
+        };
+        sliderPrecio.addOnChangeListener(rangoListener);
+        rangoListener.onValueChange(sliderPrecio, 0, false);
+        
+        radioGroupOrden.check(sortButtonId(sort));
+        
+        new MaterialAlertDialogBuilder(this)
+                .setTitle("Filtrar figuras")
+                .setView(dialogView)
+                .setPositiveButton("Aplicar", (d, which) -> {
+                    List<Float> valores = sliderPrecio.getValues();
+                    // En los extremos no se limita, para no excluir figuras nuevas fuera del rango actual
+                    precioMin = valores.get(0) <= minimo ? Double.NEGATIVE_INFINITY : valores.get(0);
+                    precioMax = valores.get(1) >= maximo ? Double.POSITIVE_INFINITY : valores.get(1);
+                    sort = sortFromButtonId(radioGroupOrden.getCheckedRadioButtonId());
+                    refreshResults();
+                })
+                .setNeutralButton("Limpiar", (d, which) -> {
+                    precioMin = Double.NEGATIVE_INFINITY;
+                    precioMax = Double.POSITIVE_INFINITY;
+                    sort = PriceIndex.Sort.NEWEST;
+                    refreshResults();
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+    
+    private static int sortButtonId(PriceIndex.Sort sort) {
+        switch (sort) {
+            case PRICE_ASC:
+                return R.id.radioPrecioAsc;
+            case PRICE_DESC:
+                return R.id.radioPrecioDesc;
+            case NAME:
+                return R.id.radioNombre;
+            case NEWEST:
+            default:
+                return R.id.radioRecientes;
+        }
+    }
+    
+    private static PriceIndex.Sort sortFromButtonId(int buttonId) {
+        if (buttonId == R.id.radioPrecioAsc) {
+            return PriceIndex.Sort.PRICE_ASC;
+        } else if (buttonId == R.id.radioPrecioDesc) {
+            return PriceIndex.Sort.PRICE_DESC;
+        } else if (buttonId == R.id.radioNombre) {
+            return PriceIndex.Sort.NAME;
+        }
+        return PriceIndex.Sort.NEWEST;
+    }
+    
     /**
      * Muestra/oculta el estado de carga
      */
@@ -198,15 +453,15 @@ public class MainActivity extends AppCompatActivity implements FigureAdapter.OnF
      */
     private void showEmptyState(boolean show) {
         textViewEmpty.setVisibility(show ? View.VISIBLE : View.GONE);
-        if (show) {
-            recyclerViewFiguras.setVisibility(View.GONE);
-        }
+        recyclerViewFiguras.setVisibility(show ? View.GONE : View.VISIBLE);
     }
     
     @Override
     public void onFigureClick(Figure figura) {
         Intent intent = new Intent(this, FigureDetailActivity.class);
         intent.putExtra("figura_id", figura.getId());
+        // Para que el detalle muestre de inmediato la miniatura ya decodificada de la fila
+        intent.putExtra(FigureDetailActivity.EXTRA_THUMBNAIL_PX, figureAdapter.getImageSizePx());
         startActivity(intent);
     }
 }
@@ -0,0 +1,132 @@
+package com.kamehouselaguna;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.kamehouselaguna.helpers.AppExecutors;
+import com.kamehouselaguna.helpers.FirebaseStorageListing;
+import com.kamehouselaguna.helpers.FirestoreHelper;
+import com.kamehouselaguna.helpers.OrphanImageCollector;
+import com.kamehouselaguna.helpers.StorageHelper;
+import com.kamehouselaguna.models.Figure;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Trabajo en segundo plano que borra las imágenes de figuras que ya no usa ninguna figura
+ * Se programa semanalmente desde el panel de administrador, porque solo un administrador
+ * tiene permiso para borrar en Storage
+ */
+public class OrphanImageWorker extends Worker {
+    private static final String TAG = "OrphanImageWorker";
+    private static final String WORK_PERIODIC = "limpieza_imagenes_periodica";
+    private static final String WORK_NOW = "limpieza_imagenes";
+    private static final long TIMEOUT_MINUTES = 9;
+
+    public OrphanImageWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Programa la limpieza semanal con red sin límite de datos y batería suficiente
+     */
+    public static void schedule(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(OrphanImageWorker.class, 7, TimeUnit.DAYS)
+                .setConstraints(constraints(NetworkType.UNMETERED))
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_PERIODIC, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Ejecuta una limpieza en cuanto haya conexión
+     */
+    public static void runNow(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OrphanImageWorker.class)
+                .setConstraints(constraints(NetworkType.CONNECTED))
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NOW, ExistingWorkPolicy.KEEP, request);
+    }
+
+    private static Constraints constraints(NetworkType networkType) {
+        return new Constraints.Builder()
+                .setRequiredNetworkType(networkType)
+                .setRequiresBatteryNotLow(true)
+                .build();
+    }
+
+    /**
+     * Lee el catálogo completo del servidor y ejecuta el recolector sobre la carpeta de figuras
+     * Debe llamarse en el hilo principal, donde llegan todos los callbacks de Firebase
+     * @param dryRun true para solo reportar las huérfanas sin borrarlas
+     */
+    public static void collect(boolean dryRun, OrphanImageCollector.OnCollectListener listener) {
+        OrphanImageCollector collector = new OrphanImageCollector(
+                new FirebaseStorageListing(StorageHelper.FOLDER_FIGURAS));
+        new FirestoreHelper().getAllFigurasFromServer(new FirestoreHelper.OnFigurasLoadedListener() {
+            @Override
+            public void onFigurasLoaded(List<Figure> figuras) {
+                collector.collect(figuras, dryRun, listener);
+            }
+
+            @Override
+            public void onError(String error) {
+                listener.onError("Error al leer el catálogo: " + error);
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (FirebaseAuth.getInstance().getCurrentUser() == null) {
+            // Sin sesión no hay permiso para borrar; se intentará en el siguiente periodo
+            return Result.success();
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean success = new AtomicBoolean(false);
+        AppExecutors.getInstance().mainThread().execute(() -> collect(false, new OrphanImageCollector.OnCollectListener() {
+            @Override
+            public void onComplete(OrphanImageCollector.Report report) {
+                Log.d(TAG, "Imágenes revisadas: " + report.getScanned()
+                        + ", huérfanas borradas: " + report.getOrphans().size()
+                        + ", recientes: " + report.getRecent().size()
+                        + ", fallidas: " + report.getFailures().size());
+                success.set(true);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, error);
+                done.countDown();
+            }
+        }));
+
+        try {
+            if (!done.await(TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        return success.get() ? Result.success() : Result.retry();
+    }
+}
@@ -0,0 +1,84 @@
+package com.kamehouselaguna;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.kamehouselaguna.helpers.AppExecutors;
+import com.kamehouselaguna.helpers.FigureImageSync;
+import com.kamehouselaguna.helpers.UploadManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Trabajo en segundo plano que reanuda las subidas de imágenes pendientes
+ * Se programa con cada subida nueva y cuando una agota sus reintentos sin red; se ejecuta cuando hay
+ * conexión, también si el sistema cerró la app mientras tanto, y se repite mientras queden subidas esperando
+ */
+public class UploadResumeWorker extends Worker {
+    private static final String TAG = "UploadResumeWorker";
+    private static final String WORK_NAME = "reanudar_subidas";
+    private static final long RETRY_MINUTES = 1;
+    private static final long TIMEOUT_MINUTES = 9;
+
+    public UploadResumeWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Programa la reanudación en cuanto haya conexión
+     * Si ya hay una programada o en curso se conserva; al terminar vuelve a intentarlo si quedan subidas
+     */
+    public static void schedule(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(UploadResumeWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setInitialDelay(RETRY_MINUTES, TimeUnit.MINUTES)
+                .setBackoffCriteria(BackoffPolicy.LINEAR, RETRY_MINUTES, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean waiting = new AtomicBoolean(false);
+        AppExecutors.getInstance().mainThread().execute(() -> {
+            // FigureImageSync registra en Firestore las subidas que terminen en este proceso
+            FigureImageSync.getInstance(context).resumePending();
+            UploadManager uploadManager = UploadManager.getInstance(context);
+            uploadManager.whenIdle(() -> {
+                waiting.set(uploadManager.hasWaitingJobs());
+                done.countDown();
+            });
+        });
+
+        try {
+            if (!done.await(TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        if (waiting.get()) {
+            Log.d(TAG, "Quedan subidas esperando conexión");
+            return Result.retry();
+        }
+        return Result.success();
+    }
+}
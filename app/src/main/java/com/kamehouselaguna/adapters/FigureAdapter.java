@@ -1,5 +1,6 @@
 package com.kamehouselaguna.adapters;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,30 +8,46 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.load.DecodeFormat;
 import com.kamehouselaguna.R;
 import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
 
-import java.text.NumberFormat;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * Adaptador para el RecyclerView de figuras
- * Maneja la visualización de la lista de figuras en el catálogo
+ * Maneja la visualización de la lista de figuras en el catálogo y precarga las imágenes
+ * de las filas que están por aparecer. Los textos llegan ya formateados en {@link FigureItem}
  */
-public class FigureAdapter extends RecyclerView.Adapter<FigureAdapter.FigureViewHolder> {
-    private List<Figure> figuras;
+public class FigureAdapter extends ListAdapter<FigureItem, FigureAdapter.FigureViewHolder>
+        implements ListPreloader.PreloadModelProvider<Figure>, ListPreloader.PreloadSizeProvider<Figure> {
     private OnFigureClickListener listener;
-    private NumberFormat currencyFormat;
+    private final RequestManager glide;
+    // Tamaño fijo de la imagen en el layout; se conoce al crear la primera fila
+    private int imageSizePx = 0;
 
-    public FigureAdapter(List<Figure> figuras, OnFigureClickListener listener) {
-        this.figuras = figuras;
+    public FigureAdapter(OnFigureClickListener listener, RequestManager glide) {
+        super(new FigureDiffCallback());
         this.listener = listener;
-        this.currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "MX"));
+        this.glide = glide;
+    }
+
+    /**
+     * Crea el listener de scroll que precarga las imágenes de las siguientes filas
+     * @param maxPreload Número de filas por delante del scroll cuyas imágenes se cargan
+     */
+    public RecyclerViewPreloader<Figure> createPreloader(int maxPreload) {
+        return new RecyclerViewPreloader<>(glide, this, this, maxPreload);
     }
 
     @NonNull
@@ -38,27 +55,58 @@ public class FigureAdapter extends RecyclerView.Adapter<FigureAdapter.FigureView
     public FigureViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_figure, parent, false);
-        return new FigureViewHolder(view);
+        FigureViewHolder holder = new FigureViewHolder(view);
+        imageSizePx = holder.imageView.getLayoutParams().width;
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull FigureViewHolder holder, int position) {
-        Figure figura = figuras.get(position);
-        holder.bind(figura);
+        holder.bind(getItem(position));
+    }
+
+    // ========== PRECARGA ==========
+
+    @NonNull
+    @Override
+    public List<Figure> getPreloadItems(int position) {
+        Figure figura = getItem(position).getFigura();
+        if (figura.getImagenUrl() == null || figura.getImagenUrl().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(figura);
     }
 
+    @Nullable
     @Override
-    public int getItemCount() {
-        return figuras.size();
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Figure figura) {
+        return thumbnailRequest(glide, figura, imageSizePx);
+    }
+
+    @Nullable
+    @Override
+    public int[] getPreloadSize(@NonNull Figure figura, int adapterPosition, int perItemPosition) {
+        return imageSizePx > 0 ? new int[]{imageSizePx, imageSizePx} : null;
+    }
+
+    /**
+     * Tamaño en píxeles de la imagen de una fila, o 0 si aún no se crea ninguna
+     */
+    public int getImageSizePx() {
+        return imageSizePx;
     }
 
     /**
-     * Actualiza la lista de figuras
-     * @param newFiguras Nueva lista de figuras
+     * Petición de la imagen de una fila, compartida por la fila, la precarga y el detalle
+     * Deben coincidir en URL, tamaño y transformación para encontrar el bitmap ya decodificado
+     * en la caché de memoria; el bitmap se decodifica al tamaño exacto de la celda,
+     * en RGB_565 porque una miniatura no necesita transparencia y ocupa la mitad de memoria
      */
-    public void updateFiguras(List<Figure> newFiguras) {
-        this.figuras = newFiguras;
-        notifyDataSetChanged();
+    public static RequestBuilder<Drawable> thumbnailRequest(RequestManager glide, Figure figura, int sizePx) {
+        return glide.load(figura.getImagenUrl(sizePx))
+                .format(DecodeFormat.PREFER_RGB_565)
+                .override(sizePx)
+                .centerCrop();
     }
 
     /**
@@ -83,18 +131,18 @@ public class FigureAdapter extends RecyclerView.Adapter<FigureAdapter.FigureView
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onFigureClick(figuras.get(position));
+                        listener.onFigureClick(getItem(position).getFigura());
                     }
                 }
             });
         }
 
-        public void bind(Figure figura) {
+        public void bind(FigureItem item) {
+            Figure figura = item.getFigura();
+            
             // Cargar imagen con Glide
             if (figura.getImagenUrl() != null && !figura.getImagenUrl().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(figura.getImagenUrl())
-                        .diskCacheStrategy(DiskCacheStrategy.ALL)
+                thumbnailRequest(glide, figura, imageSizePx)
                         .placeholder(R.drawable.ic_launcher_foreground)
                         .error(R.drawable.ic_launcher_foreground)
                         .into(imageView);
@@ -104,14 +152,8 @@ public class FigureAdapter extends RecyclerView.Adapter<FigureAdapter.FigureView
 
             // Configurar textos
             textViewNombre.setText(figura.getNombre());
-            textViewPrecio.setText(currencyFormat.format(figura.getPrecio()));
-            
-            // Truncar descripción si es muy larga
-            String descripcion = figura.getDescripcion();
-            if (descripcion != null && descripcion.length() > 100) {
-                descripcion = descripcion.substring(0, 100) + "...";
-            }
-            textViewDescripcion.setText(descripcion);
+            textViewPrecio.setText(item.getPrecio());
+            textViewDescripcion.setText(item.getDescripcionCorta());
         }
     }
 
@@ -7,31 +7,39 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.DecodeFormat;
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.checkbox.MaterialCheckBox;
 import com.kamehouselaguna.R;
 import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
 
-import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Set;
 
 /**
  * Adaptador para el RecyclerView de figuras en el panel de administrador
- * Incluye botones para editar y eliminar figuras
+ * Incluye botones para editar y eliminar figuras; una pulsación larga activa la selección múltiple.
+ * Los textos llegan ya formateados en {@link FigureItem}
  */
-public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.FigureAdminViewHolder> {
-    private List<Figure> figuras;
+public class FigureAdminAdapter extends ListAdapter<FigureItem, FigureAdminAdapter.FigureAdminViewHolder> {
+    private static final Object PAYLOAD_SELECTION = new Object();
+
     private OnFigureAdminClickListener listener;
-    private NumberFormat currencyFormat;
+    // La selección se guarda por ID para sobrevivir a los cambios de la lista
+    private final Set<String> selectedIds = new HashSet<>();
+    private boolean selectionMode = false;
 
-    public FigureAdminAdapter(List<Figure> figuras, OnFigureAdminClickListener listener) {
-        this.figuras = figuras;
+    public FigureAdminAdapter(OnFigureAdminClickListener listener) {
+        super(new FigureDiffCallback());
         this.listener = listener;
-        this.currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "MX"));
     }
 
     @NonNull
@@ -44,22 +52,89 @@ public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull FigureAdminViewHolder holder, int position) {
-        Figure figura = figuras.get(position);
-        holder.bind(figura);
+        holder.bind(getItem(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull FigureAdminViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && payloads.contains(PAYLOAD_SELECTION)) {
+            holder.bindSelection(getItem(position));
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
     }
 
     @Override
-    public int getItemCount() {
-        return figuras.size();
+    public void onCurrentListChanged(@NonNull List<FigureItem> previousList, @NonNull List<FigureItem> currentList) {
+        super.onCurrentListChanged(previousList, currentList);
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+        // Descartar las figuras seleccionadas que ya no existen
+        Set<String> presentes = new HashSet<>();
+        for (FigureItem item : currentList) {
+            presentes.add(item.getId());
+        }
+        if (selectedIds.retainAll(presentes) && listener != null) {
+            listener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    // ========== SELECCIÓN MÚLTIPLE ==========
+
+    public boolean isSelectionMode() {
+        return selectionMode;
+    }
+
+    /**
+     * Sale del modo de selección y limpia la selección
+     */
+    public void clearSelection() {
+        if (!selectionMode) {
+            return;
+        }
+        selectionMode = false;
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+    }
+
+    public void selectAll() {
+        for (FigureItem item : getCurrentList()) {
+            selectedIds.add(item.getId());
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        if (listener != null) {
+            listener.onSelectionChanged(selectedIds.size());
+        }
     }
 
     /**
-     * Actualiza la lista de figuras
-     * @param newFiguras Nueva lista de figuras
+     * Figuras seleccionadas en el orden de la lista
      */
-    public void updateFiguras(List<Figure> newFiguras) {
-        this.figuras = newFiguras;
-        notifyDataSetChanged();
+    public List<Figure> getSelectedFiguras() {
+        List<Figure> seleccionadas = new ArrayList<>(selectedIds.size());
+        for (FigureItem item : getCurrentList()) {
+            if (selectedIds.contains(item.getId())) {
+                seleccionadas.add(item.getFigura());
+            }
+        }
+        return seleccionadas;
+    }
+
+    private void toggleSelection(int position) {
+        String id = getItem(position).getId();
+        if (!selectedIds.remove(id)) {
+            selectedIds.add(id);
+        }
+        if (!selectionMode) {
+            selectionMode = true;
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        } else {
+            notifyItemChanged(position, PAYLOAD_SELECTION);
+        }
+        if (listener != null) {
+            listener.onSelectionChanged(selectedIds.size());
+        }
     }
 
     /**
@@ -67,20 +142,50 @@ public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.
      */
     public class FigureAdminViewHolder extends RecyclerView.ViewHolder {
         private ImageView imageView;
+        // Tamaño fijo de la imagen en el layout, para pedir la versión más pequeña que lo cubre
+        private final int imageSizePx;
         private TextView textViewNombre;
         private TextView textViewPrecio;
         private TextView textViewDescripcion;
+        private TextView textViewEstadoImagen;
         private MaterialButton buttonEdit;
         private MaterialButton buttonDelete;
+        private MaterialCheckBox checkBoxSeleccion;
 
         public FigureAdminViewHolder(@NonNull View itemView) {
             super(itemView);
             imageView = itemView.findViewById(R.id.imageViewFigure);
+            imageSizePx = imageView.getLayoutParams().width;
             textViewNombre = itemView.findViewById(R.id.textViewNombre);
             textViewPrecio = itemView.findViewById(R.id.textViewPrecio);
             textViewDescripcion = itemView.findViewById(R.id.textViewDescripcion);
+            textViewEstadoImagen = itemView.findViewById(R.id.textViewEstadoImagen);
             buttonEdit = itemView.findViewById(R.id.buttonEdit);
             buttonDelete = itemView.findViewById(R.id.buttonDelete);
+            checkBoxSeleccion = itemView.findViewById(R.id.checkBoxSeleccion);
+
+            // Pulsación larga para empezar a seleccionar; en modo selección un toque alterna la figura
+            itemView.setOnLongClickListener(new View.OnLongClickListener() {
+                @Override
+                public boolean onLongClick(View v) {
+                    int position = getAdapterPosition();
+                    if (position == RecyclerView.NO_POSITION) {
+                        return false;
+                    }
+                    toggleSelection(position);
+                    return true;
+                }
+            });
+
+            itemView.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    int position = getAdapterPosition();
+                    if (position != RecyclerView.NO_POSITION && selectionMode) {
+                        toggleSelection(position);
+                    }
+                }
+            });
 
             // Configurar click listeners
             buttonEdit.setOnClickListener(new View.OnClickListener() {
@@ -88,7 +193,7 @@ public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onEditClick(figuras.get(position));
+                        listener.onEditClick(getItem(position).getFigura());
                     }
                 }
             });
@@ -98,18 +203,20 @@ public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onDeleteClick(figuras.get(position));
+                        listener.onDeleteClick(getItem(position).getFigura());
                     }
                 }
             });
         }
 
-        public void bind(Figure figura) {
+        public void bind(FigureItem item) {
+            Figure figura = item.getFigura();
+            
             // Cargar imagen con Glide
             if (figura.getImagenUrl() != null && !figura.getImagenUrl().isEmpty()) {
                 Glide.with(itemView.getContext())
-                        .load(figura.getImagenUrl())
-                        .diskCacheStrategy(DiskCacheStrategy.ALL)
+                        .load(figura.getImagenUrl(imageSizePx))
+                        .format(DecodeFormat.PREFER_RGB_565)
                         .placeholder(R.drawable.ic_launcher_foreground)
                         .error(R.drawable.ic_launcher_foreground)
                         .into(imageView);
@@ -119,14 +226,33 @@ public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.
 
             // Configurar textos
             textViewNombre.setText(figura.getNombre());
-            textViewPrecio.setText(currencyFormat.format(figura.getPrecio()));
-            
-            // Truncar descripción si es muy larga
-            String descripcion = figura.getDescripcion();
-            if (descripcion != null && descripcion.length() > 100) {
-                descripcion = descripcion.substring(0, 100) + "...";
+            textViewPrecio.setText(item.getPrecio());
+            textViewDescripcion.setText(item.getDescripcionCorta());
+
+            // Estado de la imagen guardada en segundo plano
+            if (figura.isImagenError()) {
+                textViewEstadoImagen.setText("Error al subir la imagen; edita la figura para reintentar");
+                textViewEstadoImagen.setTextColor(ContextCompat.getColor(itemView.getContext(), android.R.color.holo_red_dark));
+                textViewEstadoImagen.setVisibility(View.VISIBLE);
+            } else if (figura.isImagenPendiente()) {
+                textViewEstadoImagen.setText("Subiendo imagen…");
+                textViewEstadoImagen.setTextColor(ContextCompat.getColor(itemView.getContext(), android.R.color.darker_gray));
+                textViewEstadoImagen.setVisibility(View.VISIBLE);
+            } else {
+                textViewEstadoImagen.setVisibility(View.GONE);
             }
-            textViewDescripcion.setText(descripcion);
+
+            bindSelection(item);
+        }
+
+        /**
+         * Muestra la casilla de selección en lugar de los botones mientras hay selección múltiple
+         */
+        void bindSelection(FigureItem item) {
+            checkBoxSeleccion.setVisibility(selectionMode ? View.VISIBLE : View.GONE);
+            checkBoxSeleccion.setChecked(selectedIds.contains(item.getId()));
+            buttonEdit.setVisibility(selectionMode ? View.INVISIBLE : View.VISIBLE);
+            buttonDelete.setVisibility(selectionMode ? View.INVISIBLE : View.VISIBLE);
         }
     }
 
@@ -136,5 +262,11 @@ public class FigureAdminAdapter extends RecyclerView.Adapter<FigureAdminAdapter.
     public interface OnFigureAdminClickListener {
         void onEditClick(Figure figura);
         void onDeleteClick(Figure figura);
+
+        /**
+         * Se llama al seleccionar o deseleccionar figuras
+         * @param seleccionadas Número de figuras seleccionadas; el modo sigue activo aunque sea 0
+         */
+        void onSelectionChanged(int seleccionadas);
     }
 }
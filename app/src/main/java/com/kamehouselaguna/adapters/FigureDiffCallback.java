@@ -0,0 +1,39 @@
+package com.kamehouselaguna.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
+
+import java.util.Objects;
+
+/**
+ * Callback de DiffUtil para las listas de figuras
+ * Identifica las figuras por ID y compara solo los campos que se muestran
+ */
+public class FigureDiffCallback extends DiffUtil.ItemCallback<FigureItem> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull FigureItem oldItem, @NonNull FigureItem newItem) {
+        return Objects.equals(oldItem.getId(), newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull FigureItem oldItem, @NonNull FigureItem newItem) {
+        // El modelo reutiliza el mismo objeto mientras el documento no cambia
+        return oldItem.getFigura() == newItem.getFigura()
+                || areContentsTheSame(oldItem.getFigura(), newItem.getFigura());
+    }
+
+    private static boolean areContentsTheSame(Figure oldItem, Figure newItem) {
+        return Objects.equals(oldItem.getNombre(), newItem.getNombre())
+                && oldItem.getPrecio() == newItem.getPrecio()
+                && Objects.equals(oldItem.getDescripcion(), newItem.getDescripcion())
+                && Objects.equals(oldItem.getImagenUrl(), newItem.getImagenUrl())
+                && Objects.equals(oldItem.getImagenes(), newItem.getImagenes())
+                && oldItem.getImagenesPendientes() == newItem.getImagenesPendientes()
+                && oldItem.isImagenError() == newItem.isImagenError()
+                && Objects.equals(oldItem.getFechaActualizacion(), newItem.getFechaActualizacion());
+    }
+}
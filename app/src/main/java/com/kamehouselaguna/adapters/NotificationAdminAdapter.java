@@ -6,30 +6,24 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 import com.kamehouselaguna.R;
 import com.kamehouselaguna.models.Notification;
-
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.List;
-import java.util.Locale;
+import com.kamehouselaguna.models.NotificationItem;
 
 /**
  * Adaptador para el RecyclerView de notificaciones en el panel de administrador
- * Incluye botón para eliminar notificaciones
+ * Incluye botón para eliminar notificaciones. La fecha llega ya formateada en {@link NotificationItem}
  */
-public class NotificationAdminAdapter extends RecyclerView.Adapter<NotificationAdminAdapter.NotificationAdminViewHolder> {
-    private List<Notification> notificaciones;
+public class NotificationAdminAdapter extends ListAdapter<NotificationItem, NotificationAdminAdapter.NotificationAdminViewHolder> {
     private OnNotificationAdminClickListener listener;
-    private SimpleDateFormat dateFormat;
 
-    public NotificationAdminAdapter(List<Notification> notificaciones, OnNotificationAdminClickListener listener) {
-        this.notificaciones = notificaciones;
+    public NotificationAdminAdapter(OnNotificationAdminClickListener listener) {
+        super(new NotificationDiffCallback());
         this.listener = listener;
-        this.dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", new Locale("es", "ES"));
     }
 
     @NonNull
@@ -42,22 +36,7 @@ public class NotificationAdminAdapter extends RecyclerView.Adapter<NotificationA
 
     @Override
     public void onBindViewHolder(@NonNull NotificationAdminViewHolder holder, int position) {
-        Notification notificacion = notificaciones.get(position);
-        holder.bind(notificacion);
-    }
-
-    @Override
-    public int getItemCount() {
-        return notificaciones.size();
-    }
-
-    /**
-     * Actualiza la lista de notificaciones
-     * @param newNotificaciones Nueva lista de notificaciones
-     */
-    public void updateNotificaciones(List<Notification> newNotificaciones) {
-        this.notificaciones = newNotificaciones;
-        notifyDataSetChanged();
+        holder.bind(getItem(position));
     }
 
     /**
@@ -82,23 +61,18 @@ public class NotificationAdminAdapter extends RecyclerView.Adapter<NotificationA
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onDeleteClick(notificaciones.get(position));
+                        listener.onDeleteClick(getItem(position).getNotificacion());
                     }
                 }
             });
         }
 
-        public void bind(Notification notificacion) {
+        public void bind(NotificationItem item) {
             // Configurar textos
+            Notification notificacion = item.getNotificacion();
             textViewTitulo.setText(notificacion.getTitulo());
             textViewMensaje.setText(notificacion.getMensaje());
-            
-            // Formatear fecha
-            if (notificacion.getFecha() != null) {
-                textViewFecha.setText(dateFormat.format(notificacion.getFecha()));
-            } else {
-                textViewFecha.setText("Fecha no disponible");
-            }
+            textViewFecha.setText(item.getFecha());
         }
     }
 
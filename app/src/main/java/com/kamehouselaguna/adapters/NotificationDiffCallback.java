@@ -0,0 +1,33 @@
+package com.kamehouselaguna.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.kamehouselaguna.models.Notification;
+import com.kamehouselaguna.models.NotificationItem;
+
+import java.util.Objects;
+
+/**
+ * Callback de DiffUtil para la lista de notificaciones
+ * Identifica las notificaciones por ID y compara solo los campos que se muestran
+ */
+public class NotificationDiffCallback extends DiffUtil.ItemCallback<NotificationItem> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull NotificationItem oldItem, @NonNull NotificationItem newItem) {
+        return Objects.equals(oldItem.getId(), newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull NotificationItem oldItem, @NonNull NotificationItem newItem) {
+        return oldItem.getNotificacion() == newItem.getNotificacion()
+                || areContentsTheSame(oldItem.getNotificacion(), newItem.getNotificacion());
+    }
+
+    private static boolean areContentsTheSame(Notification oldItem, Notification newItem) {
+        return Objects.equals(oldItem.getTitulo(), newItem.getTitulo())
+                && Objects.equals(oldItem.getMensaje(), newItem.getMensaje())
+                && Objects.equals(oldItem.getFecha(), newItem.getFecha());
+    }
+}
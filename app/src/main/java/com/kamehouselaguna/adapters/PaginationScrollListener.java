@@ -0,0 +1,41 @@
+package com.kamehouselaguna.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Listener de scroll que pide la siguiente página cuando el usuario se acerca al final de la lista
+ */
+public abstract class PaginationScrollListener extends RecyclerView.OnScrollListener {
+    private static final int VISIBLE_THRESHOLD = 5;
+
+    private final LinearLayoutManager layoutManager;
+
+    public PaginationScrollListener(LinearLayoutManager layoutManager) {
+        this.layoutManager = layoutManager;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        super.onScrolled(recyclerView, dx, dy);
+        if (dy <= 0 || isLoading() || !hasMore()) {
+            return;
+        }
+
+        int totalItemCount = layoutManager.getItemCount();
+        int lastVisibleItem = layoutManager.findLastVisibleItemPosition();
+        if (lastVisibleItem >= totalItemCount - VISIBLE_THRESHOLD) {
+            loadMore();
+        }
+    }
+
+    /**
+     * Carga la siguiente página
+     */
+    protected abstract void loadMore();
+
+    protected abstract boolean isLoading();
+
+    protected abstract boolean hasMore();
+}
@@ -2,21 +2,32 @@ package com.kamehouselaguna.fragments;
 
 import android.os.Bundle;
 import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ProgressBar;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.kamehouselaguna.R;
 import com.kamehouselaguna.adapters.FigureAdminAdapter;
+import com.kamehouselaguna.adapters.PaginationScrollListener;
+import com.kamehouselaguna.helpers.AppExecutors;
+import com.kamehouselaguna.helpers.CatalogRepository;
+import com.kamehouselaguna.helpers.DisplayItems;
 import com.kamehouselaguna.helpers.FirestoreHelper;
+import com.kamehouselaguna.helpers.ListChange;
 import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,15 +46,21 @@ public class FigurasAdminFragment extends Fragment implements FigureAdminAdapter
     
     // Adapter and helper
     private FigureAdminAdapter figureAdminAdapter;
-    private FirestoreHelper firestoreHelper;
+    private CatalogRepository catalogRepository;
+    private FirestoreHelper.OnFigurasChangedListener catalogListener;
+    // Solo se usa desde el executor de fondo
+    private final DisplayItems displayItems = new DisplayItems();
     
     // Data
     private List<Figure> figuras;
     private OnFigureActionListener listener;
+    private ActionMode actionMode;
 
     public interface OnFigureActionListener {
         void onEditFigure(Figure figura);
         void onDeleteFigure(Figure figura);
+        void onAdjustPrices(List<Figure> figuras);
+        void onDeleteFigures(List<Figure> figuras);
     }
 
     public void setOnFigureActionListener(OnFigureActionListener listener) {
@@ -58,11 +75,17 @@ public class FigurasAdminFragment extends Fragment implements FigureAdminAdapter
         initializeViews(view);
         initializeHelpers();
         setupRecyclerView();
-        loadFiguras();
         
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // La suscripción se cancela sola cuando se destruye la vista
+        loadFiguras();
+    }
+    
     /**
      * Inicializa las vistas
      */
@@ -78,37 +101,52 @@ public class FigurasAdminFragment extends Fragment implements FigureAdminAdapter
      * Inicializa los helpers
      */
     private void initializeHelpers() {
-        firestoreHelper = new FirestoreHelper();
+        catalogRepository = CatalogRepository.getInstance(requireContext());
     }
     
     /**
      * Configura el RecyclerView
      */
     private void setupRecyclerView() {
-        figureAdminAdapter = new FigureAdminAdapter(figuras, this);
-        recyclerViewFiguras.setLayoutManager(new LinearLayoutManager(getContext()));
+        figureAdminAdapter = new FigureAdminAdapter(this);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        recyclerViewFiguras.setLayoutManager(layoutManager);
         recyclerViewFiguras.setAdapter(figureAdminAdapter);
+        
+        // Cargar la siguiente página al acercarse al final de la lista
+        recyclerViewFiguras.addOnScrollListener(new PaginationScrollListener(layoutManager) {
+            @Override
+            protected void loadMore() {
+                catalogRepository.loadNextPage();
+            }
+            
+            @Override
+            protected boolean isLoading() {
+                return catalogRepository.isLoading();
+            }
+            
+            @Override
+            protected boolean hasMore() {
+                return catalogRepository.hasMore();
+            }
+        });
     }
     
     /**
-     * Carga las figuras desde Firestore
+     * Carga las figuras del catálogo compartido, una página a la vez
+     * Los textos de las filas se preparan en el executor de fondo antes de publicar la lista
      */
     private void loadFiguras() {
         showLoading(true);
         
-        firestoreHelper.getFigurasRealtime(new FirestoreHelper.OnFigurasLoadedListener() {
+        catalogListener = new FirestoreHelper.OnFigurasChangedListener() {
             @Override
-            public void onFigurasLoaded(List<Figure> figurasList) {
-                showLoading(false);
-                figuras.clear();
-                figuras.addAll(figurasList);
-                figureAdminAdapter.updateFiguras(figuras);
-                
-                if (figuras.isEmpty()) {
-                    showEmptyState(true);
-                } else {
-                    showEmptyState(false);
-                }
+            public void onFigurasChanged(List<Figure> figurasList, List<ListChange> cambios) {
+                figuras = figurasList;
+                AppExecutors.getInstance().background().execute(() -> {
+                    List<FigureItem> items = displayItems.syncFiguras(figurasList);
+                    AppExecutors.getInstance().mainThread().execute(() -> showFiguras(items));
+                });
             }
             
             @Override
@@ -116,7 +154,22 @@ public class FigurasAdminFragment extends Fragment implements FigureAdminAdapter
                 showLoading(false);
                 showEmptyState(true);
             }
-        });
+        };
+        catalogRepository.subscribe(getViewLifecycleOwner(), catalogListener);
+    }
+    
+    private void showFiguras(List<FigureItem> items) {
+        if (getView() == null) {
+            return;
+        }
+        showLoading(false);
+        figureAdminAdapter.submitList(items);
+        
+        if (items.isEmpty()) {
+            showEmptyState(true);
+        } else {
+            showEmptyState(false);
+        }
     }
     
     /**
@@ -137,6 +190,21 @@ public class FigurasAdminFragment extends Fragment implements FigureAdminAdapter
         }
     }
     
+    @Override
+    public void onDestroyView() {
+        finishSelection();
+        super.onDestroyView();
+    }
+    
+    /**
+     * Termina la selección múltiple, por ejemplo al completar una operación en lote
+     */
+    public void finishSelection() {
+        if (actionMode != null) {
+            actionMode.finish();
+        }
+    }
+    
     @Override
     public void onEditClick(Figure figura) {
         if (listener != null) {
@@ -150,4 +218,62 @@ public class FigurasAdminFragment extends Fragment implements FigureAdminAdapter
             listener.onDeleteFigure(figura);
         }
     }
+    
+    @Override
+    public void onSelectionChanged(int seleccionadas) {
+        if (actionMode == null) {
+            actionMode = ((AppCompatActivity) requireActivity()).startSupportActionMode(selectionCallback);
+        }
+        if (actionMode != null) {
+            actionMode.setTitle(seleccionadas + " seleccionadas");
+        }
+    }
+    
+    // ========== SELECCIÓN MÚLTIPLE ==========
+    
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_figuras_seleccion, menu);
+            return true;
+        }
+        
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+        
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            int id = item.getItemId();
+            if (id == R.id.action_select_all) {
+                figureAdminAdapter.selectAll();
+                return true;
+            }
+            
+            List<Figure> seleccionadas = figureAdminAdapter.getSelectedFiguras();
+            if (seleccionadas.isEmpty()) {
+                Toast.makeText(getContext(), "Selecciona al menos una figura", Toast.LENGTH_SHORT).show();
+                return true;
+            }
+            if (id == R.id.action_adjust_prices) {
+                if (listener != null) {
+                    listener.onAdjustPrices(seleccionadas);
+                }
+                return true;
+            } else if (id == R.id.action_delete_selected) {
+                if (listener != null) {
+                    listener.onDeleteFigures(seleccionadas);
+                }
+                return true;
+            }
+            return false;
+        }
+        
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            actionMode = null;
+            figureAdminAdapter.clearSelection();
+        }
+    };
 }
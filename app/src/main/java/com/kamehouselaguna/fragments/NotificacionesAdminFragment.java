@@ -15,8 +15,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.kamehouselaguna.R;
 import com.kamehouselaguna.adapters.NotificationAdminAdapter;
+import com.kamehouselaguna.helpers.AppExecutors;
+import com.kamehouselaguna.helpers.DisplayItems;
 import com.kamehouselaguna.helpers.FirestoreHelper;
+import com.kamehouselaguna.helpers.ListChange;
 import com.kamehouselaguna.models.Notification;
+import com.kamehouselaguna.models.NotificationItem;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +40,8 @@ public class NotificacionesAdminFragment extends Fragment implements Notificatio
     // Adapter and helper
     private NotificationAdminAdapter notificationAdminAdapter;
     private FirestoreHelper firestoreHelper;
+    // Solo se usa desde el executor de fondo
+    private final DisplayItems displayItems = new DisplayItems();
     
     // Data
     private List<Notification> notificaciones;
@@ -57,11 +63,17 @@ public class NotificacionesAdminFragment extends Fragment implements Notificatio
         initializeViews(view);
         initializeHelpers();
         setupRecyclerView();
-        loadNotificaciones();
         
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // El listener se elimina solo cuando se destruye la vista
+        loadNotificaciones();
+    }
+    
     /**
      * Inicializa las vistas
      */
@@ -84,30 +96,26 @@ public class NotificacionesAdminFragment extends Fragment implements Notificatio
      * Configura el RecyclerView
      */
     private void setupRecyclerView() {
-        notificationAdminAdapter = new NotificationAdminAdapter(notificaciones, this);
+        notificationAdminAdapter = new NotificationAdminAdapter(this);
         recyclerViewNotificaciones.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerViewNotificaciones.setAdapter(notificationAdminAdapter);
     }
     
     /**
      * Carga las notificaciones desde Firestore
+     * Las fechas se formatean en el executor de fondo antes de publicar la lista
      */
     private void loadNotificaciones() {
         showLoading(true);
         
-        firestoreHelper.getNotificacionesRealtime(new FirestoreHelper.OnNotificacionesLoadedListener() {
+        firestoreHelper.getNotificacionesRealtime(getViewLifecycleOwner(), new FirestoreHelper.OnNotificacionesChangedListener() {
             @Override
-            public void onNotificacionesLoaded(List<Notification> notificacionesList) {
-                showLoading(false);
-                notificaciones.clear();
-                notificaciones.addAll(notificacionesList);
-                notificationAdminAdapter.updateNotificaciones(notificaciones);
-                
-                if (notificaciones.isEmpty()) {
-                    showEmptyState(true);
-                } else {
-                    showEmptyState(false);
-                }
+            public void onNotificacionesChanged(List<Notification> notificacionesList, List<ListChange> cambios) {
+                notificaciones = notificacionesList;
+                AppExecutors.getInstance().background().execute(() -> {
+                    List<NotificationItem> items = displayItems.syncNotificaciones(notificacionesList);
+                    AppExecutors.getInstance().mainThread().execute(() -> showNotificaciones(items));
+                });
             }
             
             @Override
@@ -118,6 +126,20 @@ public class NotificacionesAdminFragment extends Fragment implements Notificatio
         });
     }
     
+    private void showNotificaciones(List<NotificationItem> items) {
+        if (getView() == null) {
+            return;
+        }
+        showLoading(false);
+        notificationAdminAdapter.submitList(items);
+        
+        if (items.isEmpty()) {
+            showEmptyState(true);
+        } else {
+            showEmptyState(false);
+        }
+    }
+    
     /**
      * Muestra/oculta el estado de carga
      */
@@ -0,0 +1,29 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.kamehouselaguna.UploadResumeWorker;
+
+/**
+ * Reintentos de UploadManager en el hilo principal y reanudación con WorkManager cuando hay red
+ */
+public class AndroidUploadScheduler implements UploadScheduler {
+    private final Context context;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    public AndroidUploadScheduler(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Override
+    public void postDelayed(Runnable task, long delayMs) {
+        handler.postDelayed(task, delayMs);
+    }
+
+    @Override
+    public void resumeWhenConnected() {
+        UploadResumeWorker.schedule(context);
+    }
+}
@@ -0,0 +1,59 @@
+package com.kamehouselaguna.helpers;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors compartidos por la aplicación
+ * El executor de fondo es de un solo hilo para que los snapshots se procesen en orden;
+ * el de disco es aparte para que leer o escribir archivos no retrase los snapshots
+ */
+public class AppExecutors {
+    private static AppExecutors instance;
+
+    private final Executor background;
+    private final Executor diskIO;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kamehouse-snapshots");
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        diskIO = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "kamehouse-disk"));
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThread = mainHandler::post;
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    /**
+     * Executor para deserializar, ordenar y calcular diferencias fuera del hilo principal
+     */
+    public Executor background() {
+        return background;
+    }
+
+    /**
+     * Executor para leer y escribir archivos locales
+     */
+    public Executor diskIO() {
+        return diskIO;
+    }
+
+    /**
+     * Executor que publica resultados en el hilo principal
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+}
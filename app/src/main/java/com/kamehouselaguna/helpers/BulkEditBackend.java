@@ -0,0 +1,34 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.List;
+
+/**
+ * Operaciones remotas que necesita FigureBulkEditor
+ * Permite probar los lotes en la JVM con un backend falso local
+ */
+public interface BulkEditBackend {
+
+    /**
+     * Aplica un ajuste de precio sobre el precio guardado, de forma atómica
+     * @param ids Figuras a ajustar; nunca más de {@link FigureBulkEditor#PRICE_CHUNK_SIZE}
+     */
+    void adjustPrecios(List<String> ids, PriceAdjustment ajuste, Callback callback);
+
+    /**
+     * Elimina un grupo de figuras de forma atómica
+     * @param ids Figuras a eliminar; nunca más de {@link FigureBulkEditor#DELETE_CHUNK_SIZE}
+     */
+    void deleteFiguras(List<String> ids, Callback callback);
+
+    /**
+     * Elimina todas las versiones de la imagen de una figura ya eliminada
+     */
+    void deleteImages(Figure figura, Callback callback);
+
+    interface Callback {
+        void onSuccess();
+        void onError(String error);
+    }
+}
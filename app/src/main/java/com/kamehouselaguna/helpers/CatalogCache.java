@@ -0,0 +1,85 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Clase helper para guardar el catálogo en el almacenamiento interno
+ * Permite mostrar las figuras al abrir la app sin esperar a Firestore
+ */
+public class CatalogCache {
+    private static final String TAG = "CatalogCache";
+    private static final String FILE_NAME = "catalogo.bin";
+
+    private final AtomicFile file;
+    private final Executor diskExecutor;
+    private final Executor mainExecutor;
+
+    public CatalogCache(Context context) {
+        file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+        diskExecutor = AppExecutors.getInstance().diskIO();
+        mainExecutor = AppExecutors.getInstance().mainThread();
+    }
+
+    /**
+     * Lee y ordena el catálogo guardado fuera del hilo principal
+     * Entrega null si no hay catálogo guardado o si el archivo no se puede leer
+     */
+    public void load(OnCatalogLoadedListener listener) {
+        diskExecutor.execute(() -> {
+            LocalCatalog catalog = null;
+            try (BufferedInputStream in = new BufferedInputStream(file.openRead())) {
+                CatalogCodec.CachedCatalog cached = CatalogCodec.read(in);
+                catalog = new LocalCatalog(cached.getFiguras(), cached.getWatermark(),
+                        cached.getTombstoneWatermark());
+            } catch (FileNotFoundException e) {
+                Log.d(TAG, "No hay catálogo guardado");
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Catálogo guardado inválido, se descarta", e);
+                file.delete();
+            }
+
+            LocalCatalog result = catalog;
+            mainExecutor.execute(() -> listener.onCatalogLoaded(result));
+        });
+    }
+
+    /**
+     * Guarda el catálogo fuera del hilo principal
+     * @param figuras Copia de las figuras; no debe modificarse después de llamar este método
+     */
+    public void save(List<Figure> figuras, long watermark, long tombstoneWatermark) {
+        diskExecutor.execute(() -> {
+            FileOutputStream out = null;
+            try {
+                out = file.startWrite();
+                BufferedOutputStream buffered = new BufferedOutputStream(out);
+                CatalogCodec.write(buffered, figuras, watermark, tombstoneWatermark);
+                buffered.flush();
+                file.finishWrite(out);
+            } catch (IOException e) {
+                Log.e(TAG, "Error al guardar catálogo", e);
+                if (out != null) {
+                    file.failWrite(out);
+                }
+            }
+        });
+    }
+
+    public interface OnCatalogLoadedListener {
+        void onCatalogLoaded(LocalCatalog catalog);
+    }
+}
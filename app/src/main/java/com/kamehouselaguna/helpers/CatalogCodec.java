@@ -0,0 +1,155 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario compacto del catálogo guardado en el dispositivo
+ * Cabecera con versión y marcas de agua, seguida de una fila por figura
+ */
+public final class CatalogCodec {
+    private static final int MAGIC = 0x4B484C43;
+    private static final int VERSION = 4;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private CatalogCodec() {
+    }
+
+    /**
+     * Escribe el catálogo completo
+     * @param watermark Mayor fechaActualizacion del catálogo, en milisegundos
+     * @param tombstoneWatermark Fecha de la última eliminación aplicada, en milisegundos
+     */
+    public static void write(OutputStream output, List<Figure> figuras, long watermark,
+                             long tombstoneWatermark) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(watermark);
+        out.writeLong(tombstoneWatermark);
+        out.writeInt(figuras.size());
+        for (Figure figura : figuras) {
+            out.writeUTF(figura.getId());
+            writeString(out, figura.getNombre());
+            writeString(out, figura.getDescripcion());
+            writeString(out, figura.getImagenUrl());
+            writeStringMap(out, figura.getImagenes());
+            out.writeInt(figura.getImagenesPendientes());
+            out.writeBoolean(figura.isImagenError());
+            out.writeDouble(figura.getPrecio());
+            writeDate(out, figura.getFechaCreacion());
+            writeDate(out, figura.getFechaActualizacion());
+        }
+        out.flush();
+    }
+
+    /**
+     * Lee un catálogo escrito con {@link #write}
+     * @throws IOException si el archivo está dañado o es de otra versión
+     */
+    public static CachedCatalog read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Formato de catálogo no soportado");
+        }
+
+        long watermark = in.readLong();
+        long tombstoneWatermark = in.readLong();
+        int count = in.readInt();
+        List<Figure> figuras = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Figure figura = new Figure();
+            figura.setId(in.readUTF());
+            figura.setNombre(readString(in));
+            figura.setDescripcion(readString(in));
+            figura.setImagenUrl(readString(in));
+            figura.setImagenes(readStringMap(in));
+            figura.setImagenesPendientes(in.readInt());
+            figura.setImagenError(in.readBoolean());
+            figura.setPrecio(in.readDouble());
+            figura.setFechaCreacion(readDate(in));
+            figura.setFechaActualizacion(readDate(in));
+            figuras.add(figura);
+        }
+        return new CachedCatalog(figuras, watermark, tombstoneWatermark);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> value) throws IOException {
+        out.writeInt(value != null ? value.size() : -1);
+        if (value != null) {
+            for (Map.Entry<String, String> entry : value.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        }
+    }
+
+    private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> value = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            value.put(in.readUTF(), in.readUTF());
+        }
+        return value;
+    }
+
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        out.writeLong(value != null ? value.getTime() : NO_DATE);
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        long value = in.readLong();
+        return value != NO_DATE ? new Date(value) : null;
+    }
+
+    /**
+     * Catálogo leído del dispositivo
+     */
+    public static class CachedCatalog {
+        private final List<Figure> figuras;
+        private final long watermark;
+        private final long tombstoneWatermark;
+
+        public CachedCatalog(List<Figure> figuras, long watermark, long tombstoneWatermark) {
+            this.figuras = figuras;
+            this.watermark = watermark;
+            this.tombstoneWatermark = tombstoneWatermark;
+        }
+
+        public List<Figure> getFiguras() {
+            return figuras;
+        }
+
+        public long getWatermark() {
+            return watermark;
+        }
+
+        public long getTombstoneWatermark() {
+            return tombstoneWatermark;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.ImageRenditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importa un lote de figuras a partir de las filas de un manifiesto
+ * Primero sube las imágenes con un número acotado de subidas simultáneas y después guarda las
+ * figuras en lotes de hasta {@link #MAX_BATCH_SIZE}; cada fila termina con su propio resultado.
+ * No depende de Android: los callbacks del backend deben llegar siempre en el mismo hilo
+ */
+public class CatalogImporter {
+    /** Límite de operaciones de Firestore por lote, igual que {@link FirestoreHelper#MAX_BATCH_SIZE} */
+    public static final int MAX_BATCH_SIZE = 500;
+    public static final int DEFAULT_PARALLEL_UPLOADS = 4;
+
+    private final ImportBackend backend;
+    private final int parallelUploads;
+    private final int batchSize;
+
+    public CatalogImporter(ImportBackend backend) {
+        this(backend, DEFAULT_PARALLEL_UPLOADS, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param parallelUploads Máximo de imágenes subiéndose al mismo tiempo
+     * @param batchSize Figuras por lote; se limita a {@link #MAX_BATCH_SIZE}
+     */
+    public CatalogImporter(ImportBackend backend, int parallelUploads, int batchSize) {
+        this.backend = backend;
+        this.parallelUploads = Math.max(1, parallelUploads);
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Inicia la importación
+     * @param rows Filas del manifiesto, incluidas las inválidas para que aparezcan en el reporte
+     */
+    public void importRows(List<CatalogManifest.Row> rows, OnImportListener listener) {
+        new Run(rows, listener).start();
+    }
+
+    /**
+     * Estado de una importación
+     */
+    private class Run {
+        private final OnImportListener listener;
+        private final List<RowResult> results = new ArrayList<>();
+        private final List<Pending> pending = new ArrayList<>();
+        private final List<Pending> uploadQueue = new ArrayList<>();
+        private final int totalSteps;
+        private int completedSteps = 0;
+        private int nextUpload = 0;
+        private int uploadsInFlight = 0;
+        private int uploadsFinished = 0;
+        private boolean pumping = false;
+        private boolean committing = false;
+
+        Run(List<CatalogManifest.Row> rows, OnImportListener listener) {
+            this.listener = listener;
+            for (CatalogManifest.Row row : rows) {
+                RowResult result = new RowResult(row.getLine(), row.getNombre());
+                results.add(result);
+                if (!row.isValid()) {
+                    result.error = row.getError();
+                    continue;
+                }
+                Pending item = new Pending(row, result);
+                pending.add(item);
+                if (row.getImagen() != null) {
+                    uploadQueue.add(item);
+                }
+            }
+            // Cada imagen y cada figura a guardar cuentan como un paso del progreso
+            totalSteps = uploadQueue.size() + pending.size();
+        }
+
+        void start() {
+            listener.onProgress(0, totalSteps);
+            pumpUploads();
+        }
+
+        // ========== SUBIDAS ==========
+
+        /**
+         * Lanza subidas hasta llenar los espacios libres
+         * Si el backend responde en el mismo hilo, la llamada anidada solo marca trabajo pendiente
+         */
+        private void pumpUploads() {
+            if (pumping) {
+                return;
+            }
+            pumping = true;
+            try {
+                while (uploadsInFlight < parallelUploads && nextUpload < uploadQueue.size()) {
+                    Pending item = uploadQueue.get(nextUpload++);
+                    uploadsInFlight++;
+                    backend.uploadImage(item.row.getImagen(), new ImportBackend.Callback<Map<String, String>>() {
+                        @Override
+                        public void onSuccess(Map<String, String> imagenes) {
+                            item.imagenes = imagenes;
+                            onUploadFinished();
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            item.result.error = "Error al subir " + item.row.getImagen() + ": " + error;
+                            onUploadFinished();
+                        }
+                    });
+                }
+            } finally {
+                pumping = false;
+            }
+
+            if (uploadsFinished == uploadQueue.size() && !committing) {
+                committing = true;
+                commitNextBatch(0);
+            }
+        }
+
+        private void onUploadFinished() {
+            uploadsInFlight--;
+            uploadsFinished++;
+            step(1);
+            pumpUploads();
+        }
+
+        // ========== LOTES ==========
+
+        /**
+         * Guarda las figuras listas a partir de una posición; los lotes se envían uno a la vez
+         */
+        private void commitNextBatch(int from) {
+            Map<String, Figure> batch = new LinkedHashMap<>();
+            List<Pending> batchItems = new ArrayList<>();
+            int index = from;
+            for (; index < pending.size() && batch.size() < batchSize; index++) {
+                Pending item = pending.get(index);
+                if (item.result.error != null) {
+                    // Su imagen falló; la figura no se guarda pero su paso cuenta como terminado
+                    step(1);
+                    continue;
+                }
+                String id = backend.newFiguraId();
+                batch.put(id, toFigure(item));
+                item.result.figuraId = id;
+                batchItems.add(item);
+            }
+
+            if (batch.isEmpty()) {
+                listener.onComplete(Collections.unmodifiableList(results));
+                return;
+            }
+
+            int next = index;
+            backend.commit(batch, new ImportBackend.Callback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    step(batchItems.size());
+                    commitNextBatch(next);
+                }
+
+                @Override
+                public void onError(String error) {
+                    // El lote es atómico: ninguna de sus figuras quedó guardada
+                    for (Pending item : batchItems) {
+                        item.result.figuraId = null;
+                        item.result.error = "Error al guardar: " + error;
+                    }
+                    step(batchItems.size());
+                    commitNextBatch(next);
+                }
+            });
+        }
+
+        private void step(int count) {
+            completedSteps += count;
+            listener.onProgress(completedSteps, totalSteps);
+        }
+    }
+
+    private static Figure toFigure(Pending item) {
+        CatalogManifest.Row row = item.row;
+        String imagenUrl = item.imagenes != null ? item.imagenes.get(ImageRenditions.ORIGINAL) : null;
+        Figure figura = new Figure(row.getNombre(),
+                row.getDescripcion() != null ? row.getDescripcion() : "",
+                imagenUrl != null ? imagenUrl : "",
+                row.getPrecio());
+        if (item.imagenes != null) {
+            figura.setImagenes(item.imagenes);
+        }
+        return figura;
+    }
+
+    private static class Pending {
+        private final CatalogManifest.Row row;
+        private final RowResult result;
+        private Map<String, String> imagenes;
+
+        Pending(CatalogManifest.Row row, RowResult result) {
+            this.row = row;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Resultado de una fila del manifiesto
+     */
+    public static class RowResult {
+        private final int line;
+        private final String nombre;
+        private String figuraId;
+        private String error;
+
+        RowResult(int line, String nombre) {
+            this.line = line;
+            this.nombre = nombre;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * ID de la figura creada, o null si la fila falló
+         */
+        public String getFiguraId() {
+            return figuraId;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    public interface OnImportListener {
+        /**
+         * @param completed Pasos terminados (imágenes subidas más figuras procesadas)
+         * @param total Total de pasos
+         */
+        void onProgress(int completed, int total);
+
+        void onComplete(List<RowResult> results);
+    }
+}
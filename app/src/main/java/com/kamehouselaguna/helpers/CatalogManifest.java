@@ -0,0 +1,209 @@
+package com.kamehouselaguna.helpers;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lectura del manifiesto de una importación de catálogo
+ * Acepta CSV con encabezado o JSON (arreglo de objetos, o un objeto con la llave "figuras");
+ * las columnas son nombre, descripcion, precio e imagen (nombre del archivo en la carpeta)
+ */
+public final class CatalogManifest {
+    public static final String COLUMN_NOMBRE = "nombre";
+    public static final String COLUMN_DESCRIPCION = "descripcion";
+    public static final String COLUMN_PRECIO = "precio";
+    public static final String COLUMN_IMAGEN = "imagen";
+
+    private CatalogManifest() {
+    }
+
+    /**
+     * Lee un manifiesto CSV; la primera línea es el encabezado
+     */
+    public static List<Row> parseCsv(Reader input) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(input);
+        String line = reader.readLine();
+        if (line == null) {
+            return rows;
+        }
+        if (line.startsWith("﻿")) {
+            line = line.substring(1);
+        }
+
+        List<String> header = splitCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> values = splitCsvLine(line);
+            rows.add(createRow(lineNumber,
+                    column(values, columns, COLUMN_NOMBRE),
+                    column(values, columns, COLUMN_DESCRIPCION),
+                    column(values, columns, COLUMN_PRECIO),
+                    column(values, columns, COLUMN_IMAGEN)));
+        }
+        return rows;
+    }
+
+    /**
+     * Lee un manifiesto JSON; el número de fila es la posición en el arreglo, empezando en 1
+     */
+    public static List<Row> parseJson(String json) throws JSONException {
+        String trimmed = json.trim();
+        JSONArray array = trimmed.startsWith("[")
+                ? new JSONArray(trimmed)
+                : new JSONObject(trimmed).getJSONArray("figuras");
+
+        List<Row> rows = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject item = array.optJSONObject(i);
+            if (item == null) {
+                rows.add(new Row(i + 1, null, null, 0, null, "La fila no es un objeto"));
+                continue;
+            }
+            rows.add(createRow(i + 1,
+                    item.optString(COLUMN_NOMBRE, null),
+                    item.optString(COLUMN_DESCRIPCION, null),
+                    item.has(COLUMN_PRECIO) ? item.optString(COLUMN_PRECIO) : null,
+                    item.optString(COLUMN_IMAGEN, null)));
+        }
+        return rows;
+    }
+
+    /**
+     * Valida una fila; las filas inválidas se conservan con su error para reportarlas
+     */
+    private static Row createRow(int line, String nombre, String descripcion, String precio, String imagen) {
+        nombre = emptyToNull(nombre);
+        descripcion = emptyToNull(descripcion);
+        imagen = emptyToNull(imagen);
+        if (nombre == null) {
+            return new Row(line, null, descripcion, 0, imagen, "El nombre es requerido");
+        }
+
+        double valor;
+        try {
+            valor = Double.parseDouble(precio != null ? precio.trim() : "");
+        } catch (NumberFormatException e) {
+            return new Row(line, nombre, descripcion, 0, imagen, "Precio no válido: " + precio);
+        }
+        if (valor <= 0) {
+            return new Row(line, nombre, descripcion, valor, imagen, "El precio debe ser mayor a 0");
+        }
+        return new Row(line, nombre, descripcion, valor, imagen, null);
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    private static String emptyToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas y comillas dobles escapadas
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * Fila del manifiesto
+     */
+    public static class Row {
+        private final int line;
+        private final String nombre;
+        private final String descripcion;
+        private final double precio;
+        private final String imagen;
+        private final String error;
+
+        public Row(int line, String nombre, String descripcion, double precio, String imagen, String error) {
+            this.line = line;
+            this.nombre = nombre;
+            this.descripcion = descripcion;
+            this.precio = precio;
+            this.imagen = imagen;
+            this.error = error;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+
+        public double getPrecio() {
+            return precio;
+        }
+
+        public String getImagen() {
+            return imagen;
+        }
+
+        /**
+         * Error de validación, o null si la fila es válida
+         */
+        public String getError() {
+            return error;
+        }
+
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repositorio del catálogo compartido por toda la aplicación
+ * Mantiene un único conjunto de listeners de Firestore mientras haya pantallas suscritas
+ * y una caché en memoria de figuras indexada por ID
+ *
+ * Si hay un catálogo guardado en el dispositivo se muestra de inmediato y se sincroniza por deltas:
+ * solo se escuchan las figuras con fechaActualizacion posterior a su marca de agua y las marcas de
+ * eliminación posteriores a la última aplicada, así que el tráfico depende del número de cambios
+ * y no del tamaño del catálogo. Sin catálogo guardado se usa el paginador para mostrar las primeras
+ * figuras mientras se descarga el catálogo completo una vez
+ */
+public class CatalogRepository {
+    private static final String TAG = "CatalogRepository";
+    private static final long CACHE_TTL_MS = 5 * 60 * 1000;
+    // Los cambios que llegan seguidos se guardan en el dispositivo en una sola escritura
+    private static final long SAVE_DELAY_MS = 2000;
+
+    private static CatalogRepository instance;
+
+    private final FirestoreHelper firestoreHelper;
+    private final FigurasPaginator paginator;
+    private final CatalogCache catalogCache;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<FirestoreHelper.OnFigurasChangedListener> subscribers = new ArrayList<>();
+    private final Map<String, Figure> figurasById = new HashMap<>();
+    private final Map<String, Long> loadedAt = new HashMap<>();
+    private List<Figure> figuras = new ArrayList<>();
+    private boolean loaded = false;
+
+    // Catálogo completo; null hasta leerlo del dispositivo o descargarlo
+    private LocalCatalog localCatalog;
+    private boolean cacheRequested = false;
+    private boolean cacheLoaded = false;
+    private boolean usingPaginator = false;
+    private TrackedListenerRegistration updatesRegistration;
+    private TrackedListenerRegistration tombstonesRegistration;
+    private boolean seeding = false;
+    private boolean savePending = false;
+
+    private CatalogRepository(Context context) {
+        firestoreHelper = new FirestoreHelper();
+        catalogCache = new CatalogCache(context);
+        paginator = new FigurasPaginator(firestoreHelper, new FirestoreHelper.OnFigurasChangedListener() {
+            @Override
+            public void onFigurasChanged(List<Figure> figurasList, List<ListChange> cambios) {
+                onCatalogChanged(figurasList, cambios);
+            }
+
+            @Override
+            public void onError(String error) {
+                notifyError(error);
+            }
+        });
+    }
+
+    public static synchronized CatalogRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new CatalogRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // ========== SUSCRIPCIONES ==========
+
+    /**
+     * Suscribe una pantalla al catálogo
+     * El primer suscriptor abre los listeners; los siguientes reciben el catálogo ya cargado
+     */
+    public void subscribe(FirestoreHelper.OnFigurasChangedListener subscriber) {
+        if (subscribers.contains(subscriber)) {
+            return;
+        }
+        subscribers.add(subscriber);
+
+        if (subscribers.size() == 1) {
+            start();
+        } else if (loaded) {
+            subscriber.onFigurasChanged(figuras, insertsFor(figuras));
+        }
+    }
+
+    /**
+     * Suscribe una pantalla al catálogo hasta que su dueño llegue a ON_DESTROY
+     * Para fragments debe usarse getViewLifecycleOwner()
+     */
+    public void subscribe(LifecycleOwner owner, FirestoreHelper.OnFigurasChangedListener subscriber) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        owner.getLifecycle().addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.getLifecycle().removeObserver(this);
+                    unsubscribe(subscriber);
+                }
+            }
+        });
+        subscribe(subscriber);
+    }
+
+    /**
+     * Cancela la suscripción de una pantalla
+     * Al salir el último suscriptor se cierran los listeners, pero la caché se conserva
+     */
+    public void unsubscribe(FirestoreHelper.OnFigurasChangedListener subscriber) {
+        if (!subscribers.remove(subscriber) || !subscribers.isEmpty()) {
+            return;
+        }
+
+        if (usingPaginator) {
+            paginator.release();
+            usingPaginator = false;
+        }
+        stopDeltaSync();
+        long now = System.currentTimeMillis();
+        for (String id : figurasById.keySet()) {
+            loadedAt.put(id, now);
+        }
+        figuras = new ArrayList<>();
+        loaded = false;
+    }
+
+    /**
+     * Número de pantallas suscritas, para depuración y pruebas
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // ========== PAGINACIÓN ==========
+
+    /**
+     * Con el catálogo completo en memoria no hay más páginas que cargar
+     */
+    public void loadNextPage() {
+        if (usingPaginator) {
+            paginator.loadNextPage();
+        }
+    }
+
+    public boolean isLoading() {
+        return usingPaginator && paginator.isLoading();
+    }
+
+    public boolean hasMore() {
+        return usingPaginator && paginator.hasMore();
+    }
+
+    // ========== CATÁLOGO LOCAL ==========
+
+    /**
+     * Empieza a entregar el catálogo al primer suscriptor
+     */
+    private void start() {
+        if (!cacheLoaded) {
+            if (!cacheRequested) {
+                cacheRequested = true;
+                catalogCache.load(this::onCacheLoaded);
+            }
+            return;
+        }
+
+        if (localCatalog != null) {
+            publishLocalCatalog();
+            startDeltaSync();
+        } else {
+            usingPaginator = true;
+            paginator.loadNextPage();
+            seedLocalCatalog();
+        }
+    }
+
+    private void onCacheLoaded(LocalCatalog catalog) {
+        cacheLoaded = true;
+        if (localCatalog == null) {
+            localCatalog = catalog;
+        }
+        if (!subscribers.isEmpty()) {
+            start();
+        }
+    }
+
+    /**
+     * Escucha solo los cambios posteriores a las marcas de agua del catálogo local
+     */
+    private void startDeltaSync() {
+        if (updatesRegistration != null) {
+            return;
+        }
+
+        updatesRegistration = firestoreHelper.getFigurasUpdatedRealtime(sinceDate(localCatalog.getWatermark()),
+                new FirestoreHelper.OnFigurasLoadedListener() {
+                    @Override
+                    public void onFigurasLoaded(List<Figure> figurasList) {
+                        long watermark = localCatalog.getWatermark();
+                        for (Figure figura : figurasList) {
+                            localCatalog.upsert(figura);
+                        }
+                        onLocalCatalogChanged(watermark, localCatalog.getTombstoneWatermark());
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        notifyError(error);
+                    }
+                });
+        tombstonesRegistration = firestoreHelper.getFigurasEliminadasRealtime(sinceDate(localCatalog.getTombstoneWatermark()),
+                new FirestoreHelper.OnFigurasEliminadasListener() {
+                    @Override
+                    public void onFigurasEliminadas(List<String> ids, Date ultimaEliminacion) {
+                        long tombstoneWatermark = localCatalog.getTombstoneWatermark();
+                        localCatalog.removeAll(ids, ultimaEliminacion);
+                        onLocalCatalogChanged(localCatalog.getWatermark(), tombstoneWatermark);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        notifyError(error);
+                    }
+                });
+    }
+
+    private void stopDeltaSync() {
+        if (updatesRegistration != null) {
+            updatesRegistration.remove();
+            updatesRegistration = null;
+        }
+        if (tombstonesRegistration != null) {
+            tombstonesRegistration.remove();
+            tombstonesRegistration = null;
+        }
+    }
+
+    private static Date sinceDate(long watermark) {
+        return new Date(Math.max(watermark, 0));
+    }
+
+    /**
+     * Publica y guarda los cambios de un snapshot de deltas
+     * Los snapshots sin cambios (el primero vacío, los de solo metadatos) no escriben en disco
+     * @param watermark Marca de agua de actualizaciones antes de aplicar el snapshot
+     * @param tombstoneWatermark Marca de agua de eliminaciones antes de aplicar el snapshot
+     */
+    private void onLocalCatalogChanged(long watermark, long tombstoneWatermark) {
+        List<ListChange> cambios = localCatalog.drainChanges();
+        if (cambios.isEmpty() && watermark == localCatalog.getWatermark()
+                && tombstoneWatermark == localCatalog.getTombstoneWatermark()) {
+            return;
+        }
+        scheduleSave();
+        if (!cambios.isEmpty() && !subscribers.isEmpty()) {
+            onCatalogChanged(localCatalog.getItems(), cambios);
+        }
+    }
+
+    /**
+     * Descarga el catálogo completo una sola vez para guardarlo en el dispositivo
+     * Al terminar se sustituyen las páginas por el catálogo completo
+     */
+    private void seedLocalCatalog() {
+        if (seeding) {
+            return;
+        }
+        seeding = true;
+
+        firestoreHelper.getFigurasUpdatedAfter(null, new FirestoreHelper.OnFigurasLoadedListener() {
+            @Override
+            public void onFigurasLoaded(List<Figure> figurasList) {
+                seeding = false;
+                localCatalog = new LocalCatalog(figurasList, LocalCatalog.NO_WATERMARK, LocalCatalog.NO_WATERMARK);
+                saveLocalCatalog();
+                if (usingPaginator) {
+                    paginator.release();
+                    usingPaginator = false;
+                    publishLocalCatalog();
+                    startDeltaSync();
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                // Las páginas siguen funcionando; se reintenta en la próxima suscripción
+                seeding = false;
+                Log.w(TAG, "No se pudo descargar el catálogo completo: " + error);
+            }
+        });
+    }
+
+    private void publishLocalCatalog() {
+        List<Figure> items = localCatalog.getItems();
+        onCatalogChanged(items, insertsFor(items));
+    }
+
+    /**
+     * Programa el guardado del catálogo; los cambios que lleguen mientras tanto entran en la misma escritura
+     * Si el proceso termina antes, las marcas de agua guardadas siguen siendo coherentes con las
+     * figuras guardadas y esos cambios se vuelven a recibir en la siguiente sincronización
+     */
+    private void scheduleSave() {
+        if (savePending) {
+            return;
+        }
+        savePending = true;
+        mainHandler.postDelayed(() -> {
+            savePending = false;
+            saveLocalCatalog();
+        }, SAVE_DELAY_MS);
+    }
+
+    private void saveLocalCatalog() {
+        catalogCache.save(localCatalog.getItems(), localCatalog.getWatermark(),
+                localCatalog.getTombstoneWatermark());
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Figura en memoria aunque su copia ya no esté vigente, o null si no se ha cargado
+     * Sirve para mostrarla de inmediato mientras getFigura la confirma
+     */
+    public Figure getCachedFigura(String id) {
+        return figurasById.get(id);
+    }
+
+    /**
+     * Obtiene una figura por ID, desde memoria si la copia está vigente
+     */
+    public void getFigura(String id, FirestoreHelper.OnFiguraLoadedListener listener) {
+        Figure cached = figurasById.get(id);
+        if (cached != null && isFresh(id)) {
+            listener.onFiguraLoaded(cached);
+            return;
+        }
+
+        firestoreHelper.getFigura(id, new FirestoreHelper.OnFiguraLoadedListener() {
+            @Override
+            public void onFiguraLoaded(Figure figura) {
+                figurasById.put(id, figura);
+                loadedAt.put(id, System.currentTimeMillis());
+                listener.onFiguraLoaded(figura);
+            }
+
+            @Override
+            public void onError(String error) {
+                listener.onError(error);
+            }
+        });
+    }
+
+    /**
+     * Una figura está vigente si la actualiza un listener activo o se leyó hace poco
+     */
+    private boolean isFresh(String id) {
+        if (!subscribers.isEmpty() && !loadedAt.containsKey(id)) {
+            return true;
+        }
+        Long timestamp = loadedAt.get(id);
+        return timestamp != null && System.currentTimeMillis() - timestamp < CACHE_TTL_MS;
+    }
+
+    // ========== PROCESAMIENTO DE CAMBIOS ==========
+
+    private static List<ListChange> insertsFor(List<Figure> figurasList) {
+        List<ListChange> cambios = new ArrayList<>(figurasList.size());
+        for (int i = 0; i < figurasList.size(); i++) {
+            cambios.add(ListChange.insert(figurasList.get(i).getId(), i));
+        }
+        return cambios;
+    }
+
+    private void notifyError(String error) {
+        for (FirestoreHelper.OnFigurasChangedListener subscriber : new ArrayList<>(subscribers)) {
+            subscriber.onError(error);
+        }
+    }
+
+    private void onCatalogChanged(List<Figure> figurasList, List<ListChange> cambios) {
+        figuras = figurasList;
+        loaded = true;
+        updateIndex(figurasList, cambios);
+
+        for (FirestoreHelper.OnFigurasChangedListener subscriber : new ArrayList<>(subscribers)) {
+            subscriber.onFigurasChanged(figurasList, cambios);
+        }
+    }
+
+    /**
+     * Actualiza la caché por ID con las figuras que cambiaron
+     * Las posiciones de los cambios son intermedias, así que las figuras se buscan en la lista final;
+     * una figura puede salir de una página y entrar en otra, por eso una eliminación solo cuenta
+     * si el ID ya no aparece en la lista
+     */
+    private void updateIndex(List<Figure> figurasList, List<ListChange> cambios) {
+        Set<String> changedIds = new HashSet<>();
+        Set<String> removedIds = new HashSet<>();
+        for (ListChange cambio : cambios) {
+            if (cambio.getType() == ListChange.Type.REMOVE) {
+                removedIds.add(cambio.getId());
+            } else if (cambio.getType() != ListChange.Type.MOVE) {
+                changedIds.add(cambio.getId());
+            }
+        }
+        if (changedIds.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
+
+        for (Figure figura : figurasList) {
+            String id = figura.getId();
+            removedIds.remove(id);
+            if (changedIds.contains(id)) {
+                figurasById.put(id, figura);
+                // Las figuras que llegan por un listener activo no caducan
+                loadedAt.remove(id);
+            }
+        }
+        for (String id : removedIds) {
+            figurasById.remove(id);
+            loadedAt.remove(id);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
+import com.kamehouselaguna.models.Notification;
+import com.kamehouselaguna.models.NotificationItem;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prepara los textos de las filas de figuras y notificaciones una vez por versión de los datos
+ * Los elementos se guardan por ID y se reutilizan mientras el modelo conserve el mismo objeto,
+ * así que cada snapshot solo formatea lo que cambió. Los formateadores no son seguros entre
+ * hilos: cada instancia debe usarse siempre desde el mismo executor
+ */
+public class DisplayItems {
+    public static final int DESCRIPCION_MAX_LENGTH = 100;
+    public static final String FECHA_NO_DISPONIBLE = "Fecha no disponible";
+
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "MX"));
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", new Locale("es", "ES"));
+
+    private Map<String, FigureItem> figureItems = new HashMap<>();
+    private Map<String, NotificationItem> notificationItems = new HashMap<>();
+    // Último catálogo sincronizado, para no recorrerlo de nuevo si no cambió
+    private List<Figure> lastCatalogo;
+    private List<FigureItem> lastItems;
+
+    /**
+     * Actualiza los elementos con el catálogo completo y descarta los de figuras que ya no están
+     * @return Elementos del catálogo en el mismo orden
+     */
+    public List<FigureItem> syncFiguras(List<Figure> catalogo) {
+        if (catalogo == lastCatalogo) {
+            return lastItems;
+        }
+        Map<String, FigureItem> vigentes = new HashMap<>(catalogo.size() * 2);
+        List<FigureItem> items = new ArrayList<>(catalogo.size());
+        for (Figure figura : catalogo) {
+            FigureItem item = figureItem(figura);
+            vigentes.put(figura.getId(), item);
+            items.add(item);
+        }
+        figureItems = vigentes;
+        lastCatalogo = catalogo;
+        lastItems = items;
+        return items;
+    }
+
+    /**
+     * Elementos de una parte del catálogo, como los resultados de una búsqueda
+     * Reutiliza los elementos ya preparados por syncFiguras
+     */
+    public List<FigureItem> figureItems(List<Figure> figuras) {
+        List<FigureItem> items = new ArrayList<>(figuras.size());
+        for (Figure figura : figuras) {
+            FigureItem item = figureItem(figura);
+            figureItems.put(figura.getId(), item);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Actualiza los elementos con la lista completa de notificaciones
+     * @return Elementos en el mismo orden
+     */
+    public List<NotificationItem> syncNotificaciones(List<Notification> notificaciones) {
+        Map<String, NotificationItem> vigentes = new HashMap<>(notificaciones.size() * 2);
+        List<NotificationItem> items = new ArrayList<>(notificaciones.size());
+        for (Notification notificacion : notificaciones) {
+            NotificationItem item = notificationItems.get(notificacion.getId());
+            if (item == null || item.getNotificacion() != notificacion) {
+                item = new NotificationItem(notificacion, formatFecha(notificacion));
+            }
+            vigentes.put(notificacion.getId(), item);
+            items.add(item);
+        }
+        notificationItems = vigentes;
+        return items;
+    }
+
+    private FigureItem figureItem(Figure figura) {
+        FigureItem item = figureItems.get(figura.getId());
+        if (item != null && item.getFigura() == figura) {
+            return item;
+        }
+        return new FigureItem(figura, currencyFormat.format(figura.getPrecio()),
+                truncate(figura.getDescripcion(), DESCRIPCION_MAX_LENGTH));
+    }
+
+    private String formatFecha(Notification notificacion) {
+        return notificacion.getFecha() != null ? dateFormat.format(notificacion.getFecha()) : FECHA_NO_DISPONIBLE;
+    }
+
+    /**
+     * Recorta un texto a un máximo de caracteres, agregando "..." si se recortó
+     */
+    public static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength) + "...";
+    }
+}
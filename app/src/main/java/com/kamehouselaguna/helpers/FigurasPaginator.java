@@ -0,0 +1,155 @@
+package com.kamehouselaguna.helpers;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.kamehouselaguna.models.Figure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase helper para cargar el catálogo de figuras por páginas
+ * Cada página mantiene su propio listener en tiempo real y su propio modelo; al abrir una página
+ * nueva la anterior se cierra con endAt para que las figuras no se pierdan entre páginas
+ */
+public class FigurasPaginator {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final FirestoreHelper firestoreHelper;
+    private final int pageSize;
+    private final FirestoreHelper.OnFigurasChangedListener listener;
+    private final List<Page> pages = new ArrayList<>();
+    private boolean loading = false;
+
+    public FigurasPaginator(FirestoreHelper firestoreHelper, FirestoreHelper.OnFigurasChangedListener listener) {
+        this(firestoreHelper, DEFAULT_PAGE_SIZE, listener);
+    }
+
+    public FigurasPaginator(FirestoreHelper firestoreHelper, int pageSize, FirestoreHelper.OnFigurasChangedListener listener) {
+        this.firestoreHelper = firestoreHelper;
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Carga la siguiente página si no hay otra carga en curso
+     */
+    public void loadNextPage() {
+        if (loading || !hasMore()) {
+            return;
+        }
+
+        DocumentSnapshot cursor = null;
+        if (!pages.isEmpty()) {
+            Page lastPage = pages.get(pages.size() - 1);
+            cursor = lastPage.lastVisible;
+            closePage(lastPage);
+        }
+
+        loading = true;
+        Page page = new Page(cursor);
+        pages.add(page);
+        attach(page, null);
+    }
+
+    /**
+     * Elimina todos los listeners de las páginas cargadas
+     */
+    public void release() {
+        for (Page page : pages) {
+            if (page.registration != null) {
+                page.registration.remove();
+            }
+        }
+        pages.clear();
+        loading = false;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Indica si quedan figuras por cargar después de la última página
+     */
+    public boolean hasMore() {
+        if (pages.isEmpty()) {
+            return true;
+        }
+        Page lastPage = pages.get(pages.size() - 1);
+        return lastPage.lastVisible != null && lastPage.figuras.size() >= pageSize;
+    }
+
+    /**
+     * Fija el final de una página con su último documento visible
+     */
+    private void closePage(Page page) {
+        if (page.registration != null) {
+            page.registration.remove();
+        }
+        attach(page, page.lastVisible);
+    }
+
+    private void attach(Page page, DocumentSnapshot endAt) {
+        page.registration = firestoreHelper.getFigurasPageRealtime(page.startAfter, endAt, pageSize, page.model,
+                new FirestoreHelper.OnFigurasPageLoadedListener() {
+                    @Override
+                    public void onPageLoaded(List<Figure> figuras, List<ListChange> cambios, DocumentSnapshot lastVisible) {
+                        int index = pages.indexOf(page);
+                        if (index < 0) {
+                            return;
+                        }
+                        page.figuras = figuras;
+                        if (endAt == null) {
+                            // Solo la página abierta mueve su cursor
+                            page.lastVisible = lastVisible;
+                        }
+                        if (index == pages.size() - 1) {
+                            loading = false;
+                        }
+                        dispatch(index, cambios);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        loading = false;
+                        listener.onError(error);
+                    }
+                });
+    }
+
+    /**
+     * Envía al listener la concatenación de todas las páginas y los cambios de una de ellas
+     * @param pageIndex Página que cambió
+     * @param cambios Cambios relativos a esa página
+     */
+    private void dispatch(int pageIndex, List<ListChange> cambios) {
+        int offset = 0;
+        List<Figure> figuras = new ArrayList<>();
+        for (int i = 0; i < pages.size(); i++) {
+            if (i < pageIndex) {
+                offset += pages.get(i).figuras.size();
+            }
+            figuras.addAll(pages.get(i).figuras);
+        }
+
+        List<ListChange> cambiosGlobales = new ArrayList<>(cambios.size());
+        for (ListChange cambio : cambios) {
+            cambiosGlobales.add(cambio.offset(offset));
+        }
+        listener.onFigurasChanged(figuras, cambiosGlobales);
+    }
+
+    private static class Page {
+        private final DocumentSnapshot startAfter;
+        private DocumentSnapshot lastVisible;
+        // El modelo vive en el executor de procesamiento; la lista es su copia en el hilo principal
+        private final SnapshotModel<Figure> model = new SnapshotModel<>();
+        private List<Figure> figuras = new ArrayList<>();
+        private ListenerRegistration registration;
+
+        Page(DocumentSnapshot startAfter) {
+            this.startAfter = startAfter;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Operaciones de administrador sobre varias figuras a la vez
+ * Las escrituras se envían en lotes o transacciones de Firestore, uno a la vez, informando un solo progreso
+ * por figura; si un lote falla, solo sus figuras cuentan como fallidas y se sigue con el siguiente
+ */
+public class FigureBulkEditor {
+    private static final String TAG = "FigureBulkEditor";
+    public static final int PRICE_CHUNK_SIZE = FirestoreHelper.MAX_TRANSACTION_READS;
+    // Cada eliminación escribe también su marca en figuras_eliminadas
+    public static final int DELETE_CHUNK_SIZE = FirestoreHelper.MAX_BATCH_SIZE / 2;
+
+    private final BulkEditBackend backend;
+
+    public FigureBulkEditor(Context context) {
+        this(new FirebaseBulkEditBackend(context));
+    }
+
+    public FigureBulkEditor(BulkEditBackend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Aplica un ajuste de precio a varias figuras
+     * Las figuras cuyo precio nuevo no sería válido no se modifican y cuentan como fallidas;
+     * el ajuste se aplica sobre el precio guardado en el servidor, ver {@link FirestoreHelper#adjustPrecios}
+     */
+    public void adjustPrices(List<Figure> figuras, PriceAdjustment ajuste, OnBulkOperationListener listener) {
+        List<Figure> validas = new ArrayList<>();
+        int invalidas = 0;
+        for (Figure figura : figuras) {
+            if (PriceAdjustment.isValidPrice(ajuste.apply(figura.getPrecio()))) {
+                validas.add(figura);
+            } else {
+                invalidas++;
+            }
+        }
+
+        String errorInicial = invalidas > 0
+                ? invalidas + " figuras quedarían con precio menor o igual a 0"
+                : null;
+        new ChunkRun(validas, PRICE_CHUNK_SIZE, figuras.size(), invalidas, errorInicial, listener) {
+            @Override
+            void commit(List<Figure> chunk, BulkEditBackend.Callback done) {
+                backend.adjustPrecios(ids(chunk), ajuste, done);
+            }
+        }.next();
+    }
+
+    /**
+     * Elimina varias figuras junto con todas las versiones de sus imágenes
+     * Las imágenes se borran después de confirmar el lote; si alguna falla queda huérfana
+     * y la limpia el recolector de imágenes, sin marcar la figura como fallida
+     */
+    public void deleteFiguras(List<Figure> figuras, OnBulkOperationListener listener) {
+        new ChunkRun(figuras, DELETE_CHUNK_SIZE, figuras.size(), 0, null, listener) {
+            @Override
+            void commit(List<Figure> chunk, BulkEditBackend.Callback done) {
+                backend.deleteFiguras(ids(chunk), new BulkEditBackend.Callback() {
+                    @Override
+                    public void onSuccess() {
+                        for (Figure figura : chunk) {
+                            deleteImages(figura);
+                        }
+                        done.onSuccess();
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        done.onError(error);
+                    }
+                });
+            }
+        }.next();
+    }
+
+    private void deleteImages(Figure figura) {
+        backend.deleteImages(figura, new BulkEditBackend.Callback() {
+            @Override
+            public void onSuccess() {
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "No se eliminaron las imágenes de la figura " + figura.getId() + ": " + error);
+            }
+        });
+    }
+
+    private static List<String> ids(List<Figure> figuras) {
+        List<String> ids = new ArrayList<>(figuras.size());
+        for (Figure figura : figuras) {
+            ids.add(figura.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Envía una lista en lotes consecutivos
+     */
+    private abstract static class ChunkRun {
+        private final List<Figure> figuras;
+        private final int chunkSize;
+        private final int total;
+        private final OnBulkOperationListener listener;
+        private int next = 0;
+        private int exitosas = 0;
+        private int fallidas;
+        private String error;
+
+        ChunkRun(List<Figure> figuras, int chunkSize, int total, int fallidas, String error,
+                 OnBulkOperationListener listener) {
+            this.figuras = figuras;
+            this.chunkSize = chunkSize;
+            this.total = total;
+            this.fallidas = fallidas;
+            this.error = error;
+            this.listener = listener;
+        }
+
+        abstract void commit(List<Figure> chunk, BulkEditBackend.Callback done);
+
+        void next() {
+            listener.onProgress(exitosas + fallidas, total);
+            if (next >= figuras.size()) {
+                listener.onComplete(exitosas, fallidas, error);
+                return;
+            }
+
+            int end = Math.min(next + chunkSize, figuras.size());
+            List<Figure> chunk = new ArrayList<>(figuras.subList(next, end));
+            next = end;
+            commit(chunk, new BulkEditBackend.Callback() {
+                @Override
+                public void onSuccess() {
+                    exitosas += chunk.size();
+                    next();
+                }
+
+                @Override
+                public void onError(String chunkError) {
+                    fallidas += chunk.size();
+                    if (error == null) {
+                        error = chunkError;
+                    }
+                    next();
+                }
+            });
+        }
+    }
+
+    public interface OnBulkOperationListener {
+        void onProgress(int completed, int total);
+
+        /**
+         * @param error Primer error encontrado, o null si todas las figuras se procesaron
+         */
+        void onComplete(int exitosas, int fallidas, String error);
+    }
+}
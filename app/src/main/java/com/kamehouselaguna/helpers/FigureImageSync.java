@@ -0,0 +1,79 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import java.util.Map;
+
+/**
+ * Sube la imagen de una figura que ya se guardó con imágenes pendientes
+ * Cada versión subida se registra en el documento con una actualización por campo, también
+ * cuando la subida se reanuda en otro proceso; si falla por un error permanente la figura queda marcada
+ * para que el administrador lo vea en su lista
+ */
+public class FigureImageSync implements UploadManager.OnJobFinishedListener {
+    private static final String TAG = "FigureImageSync";
+
+    private static FigureImageSync instance;
+
+    private final StorageHelper storageHelper;
+    private final FirestoreHelper firestoreHelper;
+    private final UploadManager uploadManager;
+
+    private FigureImageSync(Context context) {
+        storageHelper = new StorageHelper(context);
+        firestoreHelper = new FirestoreHelper();
+        uploadManager = UploadManager.getInstance(context);
+        uploadManager.setOnJobFinishedListener(this);
+    }
+
+    public static synchronized FigureImageSync getInstance(Context context) {
+        if (instance == null) {
+            instance = new FigureImageSync(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Sube la imagen de una figura guardada con {@code imagenesPendientes}
+     * @param progressListener Callback de progreso, o null
+     * @return Handle para dejar de recibir el progreso al cerrar la pantalla
+     */
+    public StorageHelper.UploadHandle upload(String figuraId, Uri imageUri,
+                                             StorageHelper.OnUploadProgressListener progressListener) {
+        return storageHelper.uploadFigureImage(figuraId, imageUri, progressListener, new StorageHelper.OnImageUploadListener() {
+            @Override
+            public void onSuccess(Map<String, String> imagenes) {
+                // Cada versión ya se registró al terminar su subida
+                Log.d(TAG, "Imagen de figura " + figuraId + " subida");
+            }
+
+            @Override
+            public void onError(String error) {
+                // Cubre también los errores al procesar la imagen, que no llegan a ser subidas
+                firestoreHelper.markFiguraImagenError(figuraId);
+            }
+        });
+    }
+
+    /**
+     * Reanuda las subidas pendientes de un proceso anterior
+     */
+    public void resumePending() {
+        uploadManager.resumePending();
+    }
+
+    @Override
+    public void onJobFinished(String tag, String downloadUrl, String error) {
+        String[] parts = StorageHelper.parseTag(tag);
+        if (parts == null) {
+            return;
+        }
+        if (downloadUrl != null) {
+            firestoreHelper.setFiguraImagen(parts[0], parts[1], downloadUrl);
+        } else {
+            firestoreHelper.markFiguraImagenError(parts[0]);
+        }
+    }
+}
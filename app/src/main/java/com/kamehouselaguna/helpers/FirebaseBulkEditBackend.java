@@ -0,0 +1,59 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.List;
+
+/**
+ * Backend de operaciones masivas sobre Firebase, con FirestoreHelper y StorageHelper
+ */
+public class FirebaseBulkEditBackend implements BulkEditBackend {
+    private final FirestoreHelper firestoreHelper;
+    private final StorageHelper storageHelper;
+
+    public FirebaseBulkEditBackend(Context context) {
+        this.firestoreHelper = new FirestoreHelper();
+        this.storageHelper = new StorageHelper(context);
+    }
+
+    @Override
+    public void adjustPrecios(List<String> ids, PriceAdjustment ajuste, Callback callback) {
+        firestoreHelper.adjustPrecios(ids, ajuste, operationListener(callback));
+    }
+
+    @Override
+    public void deleteFiguras(List<String> ids, Callback callback) {
+        firestoreHelper.deleteFiguras(ids, operationListener(callback));
+    }
+
+    @Override
+    public void deleteImages(Figure figura, Callback callback) {
+        storageHelper.deleteFigureImages(figura, new StorageHelper.OnImageDeleteListener() {
+            @Override
+            public void onSuccess(String message) {
+                callback.onSuccess();
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    private static FirestoreHelper.OnOperationCompleteListener operationListener(Callback callback) {
+        return new FirestoreHelper.OnOperationCompleteListener() {
+            @Override
+            public void onSuccess(String message) {
+                callback.onSuccess();
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.kamehouselaguna.helpers;
+
+import android.util.Log;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.storage.FirebaseStorage;
+import com.kamehouselaguna.BuildConfig;
+
+/**
+ * Conecta Firebase a Local Emulator Suite cuando la app se compila con -PfirebaseEmulatorHost
+ * Los benchmarks lo usan para medir siempre contra el mismo catálogo sembrado.
+ * Debe llamarse antes de cualquier otro uso de Firestore, Auth o Storage
+ */
+public class FirebaseEmulators {
+    private static final String TAG = "FirebaseEmulators";
+
+    // Puertos por defecto de firebase.json
+    public static final int FIRESTORE_PORT = 8080;
+    public static final int AUTH_PORT = 9099;
+    public static final int STORAGE_PORT = 9199;
+
+    private FirebaseEmulators() {
+    }
+
+    public static boolean isConfigured() {
+        return !BuildConfig.FIREBASE_EMULATOR_HOST.isEmpty();
+    }
+
+    /**
+     * Apunta Firestore, Auth y Storage a los emuladores si la compilación lo indica
+     */
+    public static void connectIfConfigured() {
+        if (!isConfigured()) {
+            return;
+        }
+        String host = BuildConfig.FIREBASE_EMULATOR_HOST;
+        FirebaseFirestore.getInstance().useEmulator(host, FIRESTORE_PORT);
+        FirebaseAuth.getInstance().useEmulator(host, AUTH_PORT);
+        FirebaseStorage.getInstance().useEmulator(host, STORAGE_PORT);
+        Log.i(TAG, "Usando los emuladores de Firebase en " + host);
+    }
+}
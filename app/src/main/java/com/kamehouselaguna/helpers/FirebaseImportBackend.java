@@ -0,0 +1,153 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+
+import com.kamehouselaguna.models.Figure;
+
+import org.json.JSONException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Backend de importación sobre Firebase
+ * Las imágenes se leen de una carpeta elegida con el selector de documentos y se suben con
+ * StorageHelper; las figuras se guardan con {@link FirestoreHelper#addFiguras}
+ */
+public class FirebaseImportBackend implements ImportBackend {
+    public static final String MANIFEST_CSV = "manifest.csv";
+    public static final String MANIFEST_JSON = "manifest.json";
+
+    private final StorageHelper storageHelper;
+    private final FirestoreHelper firestoreHelper;
+    private final Map<String, Uri> archivos;
+
+    /**
+     * @param archivos Archivos de la carpeta por nombre en minúsculas (ver {@link #listFolder})
+     */
+    public FirebaseImportBackend(Context context, Map<String, Uri> archivos) {
+        this.storageHelper = new StorageHelper(context);
+        this.firestoreHelper = new FirestoreHelper();
+        this.archivos = archivos;
+    }
+
+    @Override
+    public void uploadImage(String imagen, Callback<Map<String, String>> callback) {
+        Uri uri = archivos.get(imagen.toLowerCase(Locale.ROOT));
+        if (uri == null) {
+            callback.onError("No se encontró el archivo en la carpeta");
+            return;
+        }
+
+        storageHelper.uploadFigureImage(uri, new StorageHelper.OnImageUploadListener() {
+            @Override
+            public void onSuccess(Map<String, String> imagenes) {
+                callback.onSuccess(imagenes);
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    @Override
+    public String newFiguraId() {
+        return firestoreHelper.newFiguraId();
+    }
+
+    @Override
+    public void commit(Map<String, Figure> figuras, Callback<Void> callback) {
+        firestoreHelper.addFiguras(figuras, new FirestoreHelper.OnOperationCompleteListener() {
+            @Override
+            public void onSuccess(String message) {
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    // ========== CARPETA DE IMPORTACIÓN ==========
+
+    /**
+     * Lista los archivos de primer nivel de una carpeta elegida con ACTION_OPEN_DOCUMENT_TREE
+     * Hace E/S; no debe llamarse en el hilo principal
+     * @return Uri de cada archivo por nombre en minúsculas
+     */
+    public static Map<String, Uri> listFolder(Context context, Uri treeUri) {
+        Map<String, Uri> archivos = new HashMap<>();
+        Uri childrenUri = DocumentsContract.buildChildDocumentsUriUsingTree(treeUri,
+                DocumentsContract.getTreeDocumentId(treeUri));
+        String[] projection = {
+                DocumentsContract.Document.COLUMN_DOCUMENT_ID,
+                DocumentsContract.Document.COLUMN_DISPLAY_NAME
+        };
+
+        try (Cursor cursor = context.getContentResolver().query(childrenUri, projection, null, null, null)) {
+            if (cursor == null) {
+                return archivos;
+            }
+            while (cursor.moveToNext()) {
+                String documentId = cursor.getString(0);
+                String nombre = cursor.getString(1);
+                if (nombre != null) {
+                    archivos.put(nombre.toLowerCase(Locale.ROOT),
+                            DocumentsContract.buildDocumentUriUsingTree(treeUri, documentId));
+                }
+            }
+        }
+        return archivos;
+    }
+
+    /**
+     * Lee el manifiesto de la carpeta; se prefiere manifest.csv sobre manifest.json
+     * Hace E/S; no debe llamarse en el hilo principal
+     * @throws IOException Si la carpeta no tiene manifiesto o no se puede leer
+     */
+    public static List<CatalogManifest.Row> readManifest(Context context, Map<String, Uri> archivos)
+            throws IOException, JSONException {
+        ContentResolver resolver = context.getContentResolver();
+        Uri csv = archivos.get(MANIFEST_CSV);
+        if (csv != null) {
+            try (InputStream input = resolver.openInputStream(csv)) {
+                if (input == null) {
+                    throw new IOException("No se pudo abrir " + MANIFEST_CSV);
+                }
+                return CatalogManifest.parseCsv(new InputStreamReader(input, StandardCharsets.UTF_8));
+            }
+        }
+
+        Uri json = archivos.get(MANIFEST_JSON);
+        if (json == null) {
+            throw new IOException("La carpeta no contiene " + MANIFEST_CSV + " ni " + MANIFEST_JSON);
+        }
+        try (InputStream input = resolver.openInputStream(json)) {
+            if (input == null) {
+                throw new IOException("No se pudo abrir " + MANIFEST_JSON);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            StringBuilder contenido = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                contenido.append(line).append('\n');
+            }
+            return CatalogManifest.parseJson(contenido.toString());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.kamehouselaguna.helpers;
+
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageReference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listado de una carpeta de Firebase Storage para OrphanImageCollector
+ */
+public class FirebaseStorageListing implements StorageListing {
+    // Máximo que admite list() de Firebase Storage
+    private static final int PAGE_SIZE = 1000;
+
+    private final FirebaseStorage storage;
+    private final StorageReference folderRef;
+
+    public FirebaseStorageListing(String folder) {
+        storage = FirebaseStorage.getInstance();
+        folderRef = storage.getReference().child(folder);
+    }
+
+    @Override
+    public void list(String pageToken, Callback<Page> callback) {
+        (pageToken != null ? folderRef.list(PAGE_SIZE, pageToken) : folderRef.list(PAGE_SIZE))
+                .addOnSuccessListener(result -> {
+                    List<String> paths = new ArrayList<>(result.getItems().size());
+                    for (StorageReference item : result.getItems()) {
+                        paths.add(toPath(item));
+                    }
+                    callback.onSuccess(new Page(paths, result.getPageToken()));
+                })
+                .addOnFailureListener(e -> callback.onError(e.getMessage()));
+    }
+
+    @Override
+    public void getUpdatedTimeMillis(String path, Callback<Long> callback) {
+        storage.getReference().child(path).getMetadata()
+                .addOnSuccessListener(metadata -> callback.onSuccess(metadata.getUpdatedTimeMillis()))
+                .addOnFailureListener(e -> callback.onError(e.getMessage()));
+    }
+
+    @Override
+    public void delete(String path, Callback<Void> callback) {
+        storage.getReference().child(path).delete()
+                .addOnSuccessListener(aVoid -> callback.onSuccess(null))
+                .addOnFailureListener(e -> {
+                    // Si ya no existe el resultado es el mismo
+                    if (e instanceof StorageException
+                            && ((StorageException) e).getErrorCode() == StorageException.ERROR_OBJECT_NOT_FOUND) {
+                        callback.onSuccess(null);
+                    } else {
+                        callback.onError(e.getMessage());
+                    }
+                });
+    }
+
+    private static String toPath(StorageReference reference) {
+        String path = reference.getPath();
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kamehouselaguna.helpers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+
+import java.io.InputStream;
+
+/**
+ * Carga las URLs de descarga de Firebase Storage con una clave de caché sin el token
+ * La misma imagen puede llegar con tokens distintos (al regenerarlos o desde otra sesión);
+ * la clave usa solo el bucket y la ruta para no descargarla ni guardarla dos veces.
+ * Las rutas de las imágenes son únicas por subida, así que la ruta identifica su contenido
+ */
+public class FirebaseStorageUrlLoader implements ModelLoader<String, InputStream> {
+    private static final String PATH_MARKER = "/v0/b/";
+    private static final String OBJECT_MARKER = "/o/";
+
+    private final ModelLoader<GlideUrl, InputStream> urlLoader;
+
+    public FirebaseStorageUrlLoader(ModelLoader<GlideUrl, InputStream> urlLoader) {
+        this.urlLoader = urlLoader;
+    }
+
+    @Override
+    public boolean handles(@NonNull String model) {
+        return isDownloadUrl(model);
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull String model, int width, int height, @NonNull Options options) {
+        return urlLoader.buildLoadData(new StorageUrl(model), width, height, options);
+    }
+
+    /**
+     * Indica si una URL es de descarga de Storage, del servicio o del emulador
+     */
+    public static boolean isDownloadUrl(String url) {
+        return url != null
+                && (url.startsWith("https://") || url.startsWith("http://"))
+                && url.contains(PATH_MARKER)
+                && url.indexOf(OBJECT_MARKER, url.indexOf(PATH_MARKER)) >= 0;
+    }
+
+    /**
+     * Clave de caché de una URL de descarga: todo antes de los parámetros, que incluyen el token
+     */
+    public static String cacheKey(String url) {
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
+    }
+
+    /**
+     * URL que se descarga completa pero se identifica en la caché sin token
+     */
+    private static class StorageUrl extends GlideUrl {
+        private final String cacheKey;
+
+        StorageUrl(String url) {
+            super(url);
+            this.cacheKey = FirebaseStorageUrlLoader.cacheKey(url);
+        }
+
+        @Override
+        public String getCacheKey() {
+            return cacheKey;
+        }
+    }
+
+    public static class Factory implements ModelLoaderFactory<String, InputStream> {
+        @NonNull
+        @Override
+        public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new FirebaseStorageUrlLoader(multiFactory.build(GlideUrl.class, InputStream.class));
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
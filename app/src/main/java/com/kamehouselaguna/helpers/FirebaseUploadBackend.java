@@ -0,0 +1,86 @@
+package com.kamehouselaguna.helpers;
+
+import android.net.Uri;
+import android.util.Log;
+
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+
+/**
+ * Implementación de UploadBackend sobre Firebase Storage
+ * Usa las subidas reanudables del SDK: la sesión de cada subida permite continuar otra vez
+ * desde el último fragmento confirmado
+ */
+public class FirebaseUploadBackend implements UploadBackend {
+    private static final String TAG = "FirebaseUploadBackend";
+    // El SDK reintenta por su cuenta hasta este tiempo; después UploadManager aplica su propio backoff
+    private static final long SDK_RETRY_TIME_MS = 30 * 1000;
+
+    private final StorageReference rootRef;
+
+    public FirebaseUploadBackend() {
+        FirebaseStorage storage = FirebaseStorage.getInstance();
+        storage.setMaxUploadRetryTimeMillis(SDK_RETRY_TIME_MS);
+        rootRef = storage.getReference();
+    }
+
+    @Override
+    public void upload(String path, File file, String contentType, String sessionUri, Callback callback) {
+        StorageReference ref = rootRef.child(path);
+        StorageMetadata metadata = new StorageMetadata.Builder()
+                .setContentType(contentType)
+                .build();
+
+        UploadTask uploadTask = sessionUri != null
+                ? ref.putFile(Uri.fromFile(file), metadata, Uri.parse(sessionUri))
+                : ref.putFile(Uri.fromFile(file), metadata);
+
+        uploadTask.addOnProgressListener(snapshot -> {
+            Uri session = snapshot.getUploadSessionUri();
+            if (session != null) {
+                callback.onSession(session.toString());
+            }
+            callback.onProgress(snapshot.getBytesTransferred(), snapshot.getTotalByteCount());
+        });
+
+        uploadTask.continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return ref.getDownloadUrl();
+        }).addOnSuccessListener(downloadUri -> callback.onSuccess(downloadUri.toString()))
+                .addOnFailureListener(e -> {
+                    Log.w(TAG, "Falló la subida de " + path, e);
+                    callback.onFailure(e.getMessage(), isRetryable(e), isSessionExpired(e));
+                });
+    }
+
+    @Override
+    public void delete(String path) {
+        rootRef.child(path).delete()
+                .addOnFailureListener(e -> Log.w(TAG, "No se pudo borrar " + path, e));
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (!(e instanceof StorageException)) {
+            return true;
+        }
+        int code = ((StorageException) e).getErrorCode();
+        return code == StorageException.ERROR_RETRY_LIMIT_EXCEEDED
+                || code == StorageException.ERROR_UNKNOWN
+                || isSessionExpired(e);
+    }
+
+    private static boolean isSessionExpired(Exception e) {
+        if (!(e instanceof StorageException)) {
+            return false;
+        }
+        int httpCode = ((StorageException) e).getHttpResultCode();
+        return httpCode == 404 || httpCode == 410;
+    }
+}
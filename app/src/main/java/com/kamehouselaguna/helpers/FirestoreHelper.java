@@ -3,27 +3,42 @@ package com.kamehouselaguna.helpers;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
 import com.google.firebase.firestore.WriteBatch;
 import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureMapper;
+import com.kamehouselaguna.models.ImageRenditions;
 import com.kamehouselaguna.models.Notification;
+import com.kamehouselaguna.models.NotificationMapper;
 import com.kamehouselaguna.models.User;
+import com.kamehouselaguna.models.UserMapper;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Clase helper para operaciones con Firestore
@@ -32,17 +47,41 @@ import java.util.Map;
 public class FirestoreHelper {
     private static final String TAG = "FirestoreHelper";
     private static final String COLLECTION_FIGURAS = "figuras";
+    private static final String COLLECTION_FIGURAS_ELIMINADAS = "figuras_eliminadas";
+    private static final String FIELD_FECHA_ELIMINACION = "fechaEliminacion";
     private static final String COLLECTION_NOTIFICACIONES = "notificaciones";
     private static final String COLLECTION_USUARIOS = "usuarios";
 
+    /** Límite de operaciones de Firestore por WriteBatch */
+    public static final int MAX_BATCH_SIZE = 500;
+    /**
+     * Figuras por transacción de precios; cada una se lee antes de escribir, una lectura tras otra,
+     * así que las transacciones cortas terminan rápido y chocan menos con otras escrituras
+     */
+    public static final int MAX_TRANSACTION_READS = 50;
+
     private FirebaseFirestore db;
     private CollectionReference figurasRef;
+    private CollectionReference figurasEliminadasRef;
     private CollectionReference notificacionesRef;
     private CollectionReference usuariosRef;
+    private Executor parseExecutor;
+    private Executor mainExecutor;
 
     public FirestoreHelper() {
+        this(AppExecutors.getInstance().background());
+    }
+
+    /**
+     * @param parseExecutor Executor donde se deserializan y comparan los snapshots;
+     *                      los resultados siempre se entregan en el hilo principal
+     */
+    public FirestoreHelper(Executor parseExecutor) {
+        this.parseExecutor = parseExecutor;
+        this.mainExecutor = AppExecutors.getInstance().mainThread();
         db = FirebaseFirestore.getInstance();
         figurasRef = db.collection(COLLECTION_FIGURAS);
+        figurasEliminadasRef = db.collection(COLLECTION_FIGURAS_ELIMINADAS);
         notificacionesRef = db.collection(COLLECTION_NOTIFICACIONES);
         usuariosRef = db.collection(COLLECTION_USUARIOS);
     }
@@ -51,28 +90,149 @@ public class FirestoreHelper {
 
     /**
      * Obtiene todas las figuras en tiempo real
+     * Solo se deserializan los documentos que cambian en cada snapshot
+     * @return Registro del listener; debe eliminarse cuando la pantalla ya no lo necesite
      */
-    public void getFigurasRealtime(OnFigurasLoadedListener listener) {
-        figurasRef.orderBy("fechaCreacion", Query.Direction.DESCENDING)
-                .addSnapshotListener((querySnapshot, error) -> {
+    public TrackedListenerRegistration getFigurasRealtime(OnFigurasChangedListener listener) {
+        SnapshotModel<Figure> model = new SnapshotModel<>();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(figurasRef.orderBy("fechaCreacion", Query.Direction.DESCENDING)
+                .addSnapshotListener(parseExecutor, (querySnapshot, error) -> {
                     if (error != null) {
                         Log.e(TAG, "Error al obtener figuras", error);
-                        listener.onError(error.getMessage());
+                        deliver(registration, () -> listener.onError(error.getMessage()));
+                        return;
+                    }
+
+                    if (querySnapshot != null) {
+                        List<ListChange> cambios = applyDocumentChanges(querySnapshot, model, FirestoreHelper::parseFigura);
+                        List<Figure> figuras = model.getItems();
+                        deliver(registration, () -> listener.onFigurasChanged(figuras, cambios));
+                    }
+                }));
+        return registration;
+    }
+
+    /**
+     * Obtiene todas las figuras en tiempo real mientras el dueño no llegue a ON_DESTROY
+     */
+    public TrackedListenerRegistration getFigurasRealtime(LifecycleOwner owner, OnFigurasChangedListener listener) {
+        return getFigurasRealtime(listener).bindTo(owner);
+    }
+
+    /**
+     * Obtiene una página de figuras en tiempo real, ordenadas por fecha de creación e ID
+     * @param startAfter Último documento de la página anterior, o null para la primera página
+     * @param endAt Último documento de esta página si ya está cerrada, o null para usar el límite
+     * @param pageSize Número máximo de figuras de una página abierta
+     * @param model Modelo de la página, que se conserva al volver a adjuntar el listener;
+     *              solo se modifica desde el executor de procesamiento
+     * @param listener Callback para manejar el resultado
+     * @return Registro del listener para poder eliminarlo
+     */
+    public TrackedListenerRegistration getFigurasPageRealtime(DocumentSnapshot startAfter, DocumentSnapshot endAt, int pageSize,
+                                                              SnapshotModel<Figure> model, OnFigurasPageLoadedListener listener) {
+        // El ID desempata figuras con la misma fecha para que el cursor sea estable
+        Query query = figurasRef.orderBy("fechaCreacion", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        if (endAt != null) {
+            query = query.endAt(endAt);
+        } else {
+            query = query.limit(pageSize);
+        }
+
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(query.addSnapshotListener(parseExecutor, (querySnapshot, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Error al obtener página de figuras", error);
+                deliver(registration, () -> listener.onError(error.getMessage()));
+                return;
+            }
+
+            if (querySnapshot != null) {
+                List<ListChange> cambios = applyDocumentChanges(querySnapshot, model, FirestoreHelper::parseFigura);
+                List<Figure> figuras = model.getItems();
+                List<DocumentSnapshot> docs = querySnapshot.getDocuments();
+                DocumentSnapshot lastVisible = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+                deliver(registration, () -> listener.onPageLoaded(figuras, cambios, lastVisible));
+            }
+        }));
+        return registration;
+    }
+
+    /**
+     * Escucha las figuras creadas o modificadas después de una fecha
+     * Cada snapshot entrega solo los documentos que cambiaron; las eliminaciones llegan por
+     * {@link #getFigurasEliminadasRealtime}, porque un documento borrado no aparece en esta consulta
+     * @param since Marca de agua del catálogo local
+     */
+    public TrackedListenerRegistration getFigurasUpdatedRealtime(Date since, OnFigurasLoadedListener listener) {
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(figurasRef.whereGreaterThan(FigureMapper.FIELD_FECHA_ACTUALIZACION, since)
+                .addSnapshotListener(parseExecutor, (querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Error al sincronizar figuras", error);
+                        deliver(registration, () -> listener.onError(error.getMessage()));
                         return;
                     }
 
                     if (querySnapshot != null) {
                         List<Figure> figuras = new ArrayList<>();
-                        for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                            Figure figura = doc.toObject(Figure.class);
+                        for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                            if (change.getType() == DocumentChange.Type.REMOVED) {
+                                continue;
+                            }
+                            Figure figura = parseFigura(change.getDocument());
                             if (figura != null) {
-                                figura.setId(doc.getId());
                                 figuras.add(figura);
                             }
                         }
-                        listener.onFigurasLoaded(figuras);
+                        if (!figuras.isEmpty()) {
+                            deliver(registration, () -> listener.onFigurasLoaded(figuras));
+                        }
                     }
-                });
+                }));
+        return registration;
+    }
+
+    /**
+     * Escucha las marcas de eliminación de figuras registradas después de una fecha
+     * @param since Marca de agua de eliminaciones del catálogo local
+     */
+    public TrackedListenerRegistration getFigurasEliminadasRealtime(Date since, OnFigurasEliminadasListener listener) {
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(figurasEliminadasRef.whereGreaterThan(FIELD_FECHA_ELIMINACION, since)
+                .addSnapshotListener(parseExecutor, (querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Error al sincronizar eliminaciones", error);
+                        deliver(registration, () -> listener.onError(error.getMessage()));
+                        return;
+                    }
+
+                    if (querySnapshot != null) {
+                        List<String> ids = new ArrayList<>();
+                        Date ultimaEliminacion = null;
+                        for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                            if (change.getType() == DocumentChange.Type.REMOVED) {
+                                continue;
+                            }
+                            DocumentSnapshot document = change.getDocument();
+                            Timestamp fecha = document.getTimestamp(FIELD_FECHA_ELIMINACION);
+                            ids.add(document.getId());
+                            if (fecha != null && (ultimaEliminacion == null || fecha.toDate().after(ultimaEliminacion))) {
+                                ultimaEliminacion = fecha.toDate();
+                            }
+                        }
+                        if (!ids.isEmpty()) {
+                            Date fechaFinal = ultimaEliminacion;
+                            deliver(registration, () -> listener.onFigurasEliminadas(ids, fechaFinal));
+                        }
+                    }
+                }));
+        return registration;
     }
 
     /**
@@ -80,17 +240,16 @@ public class FirestoreHelper {
      */
     public void getFigura(String id, OnFiguraLoadedListener listener) {
         figurasRef.document(id).get()
-                .addOnSuccessListener(documentSnapshot -> {
+                .addOnSuccessListener(parseExecutor, documentSnapshot -> {
                     if (documentSnapshot.exists()) {
-                        Figure figura = documentSnapshot.toObject(Figure.class);
+                        Figure figura = parseFigura(documentSnapshot);
                         if (figura != null) {
-                            figura.setId(documentSnapshot.getId());
-                            listener.onFiguraLoaded(figura);
+                            mainExecutor.execute(() -> listener.onFiguraLoaded(figura));
                         } else {
-                            listener.onError("Error al convertir documento a figura");
+                            mainExecutor.execute(() -> listener.onError("Error al convertir documento a figura"));
                         }
                     } else {
-                        listener.onError("Figura no encontrada");
+                        mainExecutor.execute(() -> listener.onError("Figura no encontrada"));
                     }
                 })
                 .addOnFailureListener(e -> {
@@ -99,16 +258,82 @@ public class FirestoreHelper {
                 });
     }
 
+    /**
+     * Obtiene una sola vez las figuras actualizadas después de una fecha
+     * @param since Marca de agua del catálogo local; null para descargar el catálogo completo
+     */
+    public void getFigurasUpdatedAfter(Date since, OnFigurasLoadedListener listener) {
+        Query query = since != null
+                ? figurasRef.whereGreaterThan(FigureMapper.FIELD_FECHA_ACTUALIZACION, since)
+                : figurasRef;
+
+        query.get()
+                .addOnSuccessListener(parseExecutor, queryDocumentSnapshots -> {
+                    List<Figure> figuras = new ArrayList<>(queryDocumentSnapshots.size());
+                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
+                        Figure figura = parseFigura(document);
+                        if (figura != null) {
+                            figuras.add(figura);
+                        }
+                    }
+                    mainExecutor.execute(() -> listener.onFigurasLoaded(figuras));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al sincronizar figuras", e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    /**
+     * Lee todo el catálogo directamente del servidor, nunca de la caché local
+     * Para procesos que deben ver cada figura existente, como el recolector de imágenes huérfanas;
+     * por eso un documento que no se puede leer es un error en lugar de omitirse
+     */
+    public void getAllFigurasFromServer(OnFigurasLoadedListener listener) {
+        figurasRef.get(Source.SERVER)
+                .addOnSuccessListener(parseExecutor, queryDocumentSnapshots -> {
+                    List<Figure> figuras = new ArrayList<>(queryDocumentSnapshots.size());
+                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
+                        Figure figura = parseFigura(document);
+                        if (figura == null) {
+                            mainExecutor.execute(() -> listener.onError("No se pudo leer la figura " + document.getId()));
+                            return;
+                        }
+                        figuras.add(figura);
+                    }
+                    mainExecutor.execute(() -> listener.onFigurasLoaded(figuras));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al leer el catálogo del servidor", e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    /**
+     * Genera el ID de una figura nueva sin escribir nada
+     * Permite subir su imagen y guardar el documento al mismo tiempo
+     */
+    public String newFiguraId() {
+        return figurasRef.document().getId();
+    }
+
     /**
      * Agrega una nueva figura
      */
     public void addFigura(Figure figura, OnOperationCompleteListener listener) {
+        addFigura(newFiguraId(), figura, listener);
+    }
+
+    /**
+     * Agrega una nueva figura con un ID ya generado
+     * fechaActualizacion la pone el servidor para que la marca de agua no dependa del reloj del cliente
+     */
+    public void addFigura(String id, Figure figura, OnOperationCompleteListener listener) {
         figura.setFechaCreacion(new Date());
-        figura.setFechaActualizacion(new Date());
 
-        figurasRef.add(figura)
-                .addOnSuccessListener(documentReference -> {
-                    Log.d(TAG, "Figura agregada con ID: " + documentReference.getId());
+        figurasRef.document(id).set(toServerStampedMap(figura))
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Figura agregada con ID: " + id);
                     listener.onSuccess("Figura agregada exitosamente");
                 })
                 .addOnFailureListener(e -> {
@@ -118,12 +343,48 @@ public class FirestoreHelper {
     }
 
     /**
-     * Actualiza una figura existente
+     * Agrega varias figuras en un solo lote atómico; o se guardan todas o ninguna
+     * @param figuras Figuras por ID ya generado; Firestore admite como máximo 500 operaciones por lote
      */
-    public void updateFigura(String id, Figure figura, OnOperationCompleteListener listener) {
-        figura.setFechaActualizacion(new Date());
+    public void addFiguras(Map<String, Figure> figuras, OnOperationCompleteListener listener) {
+        if (figuras.size() > MAX_BATCH_SIZE) {
+            listener.onError("Un lote admite como máximo " + MAX_BATCH_SIZE + " figuras");
+            return;
+        }
+
+        Date fechaCreacion = new Date();
+        WriteBatch batch = db.batch();
+        for (Map.Entry<String, Figure> entry : figuras.entrySet()) {
+            Figure figura = entry.getValue();
+            figura.setFechaCreacion(fechaCreacion);
+            batch.set(figurasRef.document(entry.getKey()), toServerStampedMap(figura));
+        }
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, figuras.size() + " figuras agregadas en lote");
+                    listener.onSuccess(figuras.size() + " figuras agregadas exitosamente");
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al agregar lote de figuras", e);
+                    listener.onError(e.getMessage());
+                });
+    }
 
-        figurasRef.document(id).set(figura)
+    /**
+     * Actualiza una figura existente enviando solo los campos que cambiaron
+     * No reescribe fechaCreacion ni pisa los campos que otro administrador editó al mismo tiempo
+     * @param original Figura tal como se cargó
+     * @param edited Copia editada de la figura
+     */
+    public void updateFigura(String id, Figure original, Figure edited, OnOperationCompleteListener listener) {
+        Map<String, Object> changes = FigureMapper.diff(original, edited);
+        if (changes.isEmpty()) {
+            listener.onSuccess("Sin cambios");
+            return;
+        }
+        changes.put(FigureMapper.FIELD_FECHA_ACTUALIZACION, FieldValue.serverTimestamp());
+
+        figurasRef.document(id).update(changes)
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Figura actualizada exitosamente");
                     listener.onSuccess("Figura actualizada exitosamente");
@@ -134,11 +395,44 @@ public class FirestoreHelper {
                 });
     }
 
+    /**
+     * Registra una versión de imagen recién subida con una actualización por campo
+     * Cuando el contador de pendientes llega a cero la figura deja de marcarse como pendiente
+     */
+    public void setFiguraImagen(String id, String size, String url) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(FigureMapper.FIELD_IMAGENES + "." + size, url);
+        if (ImageRenditions.ORIGINAL.equals(size)) {
+            updates.put(FigureMapper.FIELD_IMAGEN_URL, url);
+        }
+        updates.put(FigureMapper.FIELD_IMAGENES_PENDIENTES, FieldValue.increment(-1));
+        updates.put(FigureMapper.FIELD_FECHA_ACTUALIZACION, FieldValue.serverTimestamp());
+
+        figurasRef.document(id).update(updates)
+                .addOnFailureListener(e -> Log.e(TAG, "Error al registrar imagen de figura " + id, e));
+    }
+
+    /**
+     * Marca que la imagen de una figura no se pudo subir, para mostrarlo en el panel de administrador
+     */
+    public void markFiguraImagenError(String id) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(FigureMapper.FIELD_IMAGEN_ERROR, true);
+        updates.put(FigureMapper.FIELD_IMAGENES_PENDIENTES, 0);
+        updates.put(FigureMapper.FIELD_FECHA_ACTUALIZACION, FieldValue.serverTimestamp());
+
+        figurasRef.document(id).update(updates)
+                .addOnFailureListener(e -> Log.e(TAG, "Error al marcar imagen fallida de figura " + id, e));
+    }
+
     /**
      * Elimina una figura
+     * En el mismo lote se registra una marca de eliminación para que los catálogos locales la borren
      */
     public void deleteFigura(String id, OnOperationCompleteListener listener) {
-        figurasRef.document(id).delete()
+        WriteBatch batch = db.batch();
+        addDelete(batch, id);
+        batch.commit()
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Figura eliminada exitosamente");
                     listener.onSuccess("Figura eliminada exitosamente");
@@ -149,32 +443,134 @@ public class FirestoreHelper {
                 });
     }
 
+    /**
+     * Elimina varias figuras en un solo lote atómico, cada una con su marca de eliminación
+     * Cada figura ocupa dos operaciones, así que un lote admite como máximo {@link #MAX_BATCH_SIZE} / 2
+     */
+    public void deleteFiguras(List<String> ids, OnOperationCompleteListener listener) {
+        if (ids.size() * 2 > MAX_BATCH_SIZE) {
+            listener.onError("Un lote admite como máximo " + (MAX_BATCH_SIZE / 2) + " eliminaciones");
+            return;
+        }
+
+        WriteBatch batch = db.batch();
+        for (String id : ids) {
+            addDelete(batch, id);
+        }
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, ids.size() + " figuras eliminadas en lote");
+                    listener.onSuccess(ids.size() + " figuras eliminadas exitosamente");
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al eliminar lote de figuras", e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    /**
+     * Aplica un ajuste de precio a varias figuras en una sola transacción
+     * El ajuste se calcula sobre el precio guardado, así no se pierde un cambio hecho mientras tanto;
+     * las figuras eliminadas se omiten y si alguna quedaría con un precio inválido no se modifica ninguna
+     * @param ids Figuras a ajustar, como máximo {@link #MAX_TRANSACTION_READS}
+     */
+    public void adjustPrecios(List<String> ids, PriceAdjustment ajuste, OnOperationCompleteListener listener) {
+        if (ids.size() > MAX_TRANSACTION_READS) {
+            listener.onError("Una transacción admite como máximo " + MAX_TRANSACTION_READS + " figuras");
+            return;
+        }
+
+        db.runTransaction(transaction -> {
+                    applyAdjustment(transaction, ids, ajuste);
+                    return null;
+                })
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, ids.size() + " precios actualizados en transacción");
+                    listener.onSuccess(ids.size() + " precios actualizados exitosamente");
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al actualizar lote de precios", e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    /**
+     * Lee el precio actual de cada figura y escribe el ajustado, redondeado a centavos
+     * Solo se escriben precio y fechaActualizacion, sin pisar otros campos
+     */
+    private void applyAdjustment(Transaction transaction, List<String> ids, PriceAdjustment ajuste)
+            throws FirebaseFirestoreException {
+        Map<DocumentReference, Double> precios = new LinkedHashMap<>();
+        for (String id : ids) {
+            DocumentReference ref = figurasRef.document(id);
+            Double precio = transaction.get(ref).getDouble(FigureMapper.FIELD_PRECIO);
+            if (precio == null) {
+                // Eliminada mientras tanto
+                continue;
+            }
+            double nuevo = ajuste.apply(precio);
+            if (!PriceAdjustment.isValidPrice(nuevo)) {
+                // FAILED_PRECONDITION no se reintenta; el lote completo cuenta como fallido
+                throw new FirebaseFirestoreException("La figura " + id + " quedaría con precio menor o igual a 0",
+                        FirebaseFirestoreException.Code.FAILED_PRECONDITION);
+            }
+            precios.put(ref, nuevo);
+        }
+        for (Map.Entry<DocumentReference, Double> entry : precios.entrySet()) {
+            transaction.update(entry.getKey(),
+                    FigureMapper.FIELD_PRECIO, entry.getValue(),
+                    FigureMapper.FIELD_FECHA_ACTUALIZACION, FieldValue.serverTimestamp());
+        }
+    }
+
+    /**
+     * Agrega al lote el borrado de una figura y su marca de eliminación
+     */
+    private void addDelete(WriteBatch batch, String id) {
+        Map<String, Object> marca = new HashMap<>();
+        marca.put(FIELD_FECHA_ELIMINACION, FieldValue.serverTimestamp());
+        batch.delete(figurasRef.document(id));
+        batch.set(figurasEliminadasRef.document(id), marca);
+    }
+
+    private static Map<String, Object> toServerStampedMap(Figure figura) {
+        Map<String, Object> data = FigureMapper.toMap(figura);
+        data.put(FigureMapper.FIELD_FECHA_ACTUALIZACION, FieldValue.serverTimestamp());
+        return data;
+    }
+
     // ========== OPERACIONES CON NOTIFICACIONES ==========
 
     /**
      * Obtiene todas las notificaciones en tiempo real
+     * Solo se deserializan los documentos que cambian en cada snapshot
+     * @return Registro del listener; debe eliminarse cuando la pantalla ya no lo necesite
      */
-    public void getNotificacionesRealtime(OnNotificacionesLoadedListener listener) {
-        notificacionesRef.orderBy("fecha", Query.Direction.DESCENDING)
-                .addSnapshotListener((querySnapshot, error) -> {
+    public TrackedListenerRegistration getNotificacionesRealtime(OnNotificacionesChangedListener listener) {
+        SnapshotModel<Notification> model = new SnapshotModel<>();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(notificacionesRef.orderBy("fecha", Query.Direction.DESCENDING)
+                .addSnapshotListener(parseExecutor, (querySnapshot, error) -> {
                     if (error != null) {
                         Log.e(TAG, "Error al obtener notificaciones", error);
-                        listener.onError(error.getMessage());
+                        deliver(registration, () -> listener.onError(error.getMessage()));
                         return;
                     }
 
                     if (querySnapshot != null) {
-                        List<Notification> notificaciones = new ArrayList<>();
-                        for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                            Notification notificacion = doc.toObject(Notification.class);
-                            if (notificacion != null) {
-                                notificacion.setId(doc.getId());
-                                notificaciones.add(notificacion);
-                            }
-                        }
-                        listener.onNotificacionesLoaded(notificaciones);
+                        List<ListChange> cambios = applyDocumentChanges(querySnapshot, model, FirestoreHelper::parseNotificacion);
+                        List<Notification> notificaciones = model.getItems();
+                        deliver(registration, () -> listener.onNotificacionesChanged(notificaciones, cambios));
                     }
-                });
+                }));
+        return registration;
+    }
+
+    /**
+     * Obtiene todas las notificaciones en tiempo real mientras el dueño no llegue a ON_DESTROY
+     */
+    public TrackedListenerRegistration getNotificacionesRealtime(LifecycleOwner owner, OnNotificacionesChangedListener listener) {
+        return getNotificacionesRealtime(listener).bindTo(owner);
     }
 
     /**
@@ -183,7 +579,7 @@ public class FirestoreHelper {
     public void addNotificacion(Notification notificacion, OnOperationCompleteListener listener) {
         notificacion.setFecha(new Date());
 
-        notificacionesRef.add(notificacion)
+        notificacionesRef.add(NotificationMapper.toMap(notificacion))
                 .addOnSuccessListener(documentReference -> {
                     Log.d(TAG, "Notificación agregada con ID: " + documentReference.getId());
                     listener.onSuccess("Notificación agregada exitosamente");
@@ -216,17 +612,16 @@ public class FirestoreHelper {
      */
     public void getUser(String uid, OnUserLoadedListener listener) {
         usuariosRef.document(uid).get()
-                .addOnSuccessListener(documentSnapshot -> {
+                .addOnSuccessListener(parseExecutor, documentSnapshot -> {
                     if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
+                        User user = UserMapper.fromMap(documentSnapshot.getId(), readData(documentSnapshot));
                         if (user != null) {
-                            user.setUid(documentSnapshot.getId());
-                            listener.onUserLoaded(user);
+                            mainExecutor.execute(() -> listener.onUserLoaded(user));
                         } else {
-                            listener.onError("Error al convertir documento a usuario");
+                            mainExecutor.execute(() -> listener.onError("Error al convertir documento a usuario"));
                         }
                     } else {
-                        listener.onError("Usuario no encontrado");
+                        mainExecutor.execute(() -> listener.onError("Usuario no encontrado"));
                     }
                 })
                 .addOnFailureListener(e -> {
@@ -241,7 +636,7 @@ public class FirestoreHelper {
     public void saveUser(User user, OnOperationCompleteListener listener) {
         user.setUltimoAcceso(new Date());
 
-        usuariosRef.document(user.getUid()).set(user)
+        usuariosRef.document(user.getUid()).set(UserMapper.toMap(user))
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Usuario guardado exitosamente");
                     listener.onSuccess("Usuario guardado exitosamente");
@@ -252,20 +647,99 @@ public class FirestoreHelper {
                 });
     }
 
+    // ========== PROCESAMIENTO DE SNAPSHOTS ==========
+
+    /**
+     * Entrega un resultado en el hilo principal si el listener sigue registrado
+     */
+    private void deliver(TrackedListenerRegistration registration, Runnable result) {
+        mainExecutor.execute(() -> {
+            if (registration.isActive()) {
+                result.run();
+            }
+        });
+    }
+
+    /**
+     * Aplica al modelo los cambios de documento de un snapshot, en el orden en que llegan
+     * @return Cambios de lista resultantes
+     */
+    private static <T> List<ListChange> applyDocumentChanges(QuerySnapshot querySnapshot, SnapshotModel<T> model,
+                                                             DocumentParser<T> parser) {
+        for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+            QueryDocumentSnapshot doc = change.getDocument();
+            switch (change.getType()) {
+                case ADDED:
+                    model.added(doc.getId(), change.getNewIndex(), parser.parse(doc));
+                    break;
+                case MODIFIED:
+                    model.modified(doc.getId(), change.getOldIndex(), change.getNewIndex(), parser.parse(doc));
+                    break;
+                case REMOVED:
+                    model.removed(doc.getId(), change.getOldIndex());
+                    break;
+            }
+        }
+        return model.drainChanges();
+    }
+
+    private static Figure parseFigura(DocumentSnapshot doc) {
+        return FigureMapper.fromMap(doc.getId(), readData(doc));
+    }
+
+    private static Notification parseNotificacion(DocumentSnapshot doc) {
+        return NotificationMapper.fromMap(doc.getId(), readData(doc));
+    }
+
+    /**
+     * Lee los campos de un documento convirtiendo los Timestamp a Date
+     * Así los mappers de modelos trabajan con tipos de Java y no dependen de Firestore
+     */
+    private static Map<String, Object> readData(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        if (data != null) {
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                if (entry.getValue() instanceof Timestamp) {
+                    entry.setValue(((Timestamp) entry.getValue()).toDate());
+                }
+            }
+        }
+        return data;
+    }
+
+    private interface DocumentParser<T> {
+        T parse(DocumentSnapshot doc);
+    }
+
     // ========== INTERFACES DE CALLBACK ==========
 
+    public interface OnFigurasChangedListener {
+        void onFigurasChanged(List<Figure> figuras, List<ListChange> cambios);
+        void onError(String error);
+    }
+
+    public interface OnFigurasPageLoadedListener {
+        void onPageLoaded(List<Figure> figuras, List<ListChange> cambios, DocumentSnapshot lastVisible);
+        void onError(String error);
+    }
+
     public interface OnFigurasLoadedListener {
         void onFigurasLoaded(List<Figure> figuras);
         void onError(String error);
     }
 
+    public interface OnFigurasEliminadasListener {
+        void onFigurasEliminadas(List<String> ids, Date ultimaEliminacion);
+        void onError(String error);
+    }
+
     public interface OnFiguraLoadedListener {
         void onFiguraLoaded(Figure figura);
         void onError(String error);
     }
 
-    public interface OnNotificacionesLoadedListener {
-        void onNotificacionesLoaded(List<Notification> notificaciones);
+    public interface OnNotificacionesChangedListener {
+        void onNotificacionesChanged(List<Notification> notificaciones, List<ListChange> cambios);
         void onError(String error);
     }
 
@@ -0,0 +1,81 @@
+package com.kamehouselaguna.helpers;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de aciertos de las cachés de imágenes de Glide, para medir su efectividad
+ * Glide los actualiza desde sus propios hilos
+ */
+public class ImageCacheStats {
+    private static ImageCacheStats instance;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong memoryMisses = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong diskMisses = new AtomicLong();
+
+    public static synchronized ImageCacheStats getInstance() {
+        if (instance == null) {
+            instance = new ImageCacheStats();
+        }
+        return instance;
+    }
+
+    public void recordMemory(boolean hit) {
+        (hit ? memoryHits : memoryMisses).incrementAndGet();
+    }
+
+    public void recordDisk(boolean hit) {
+        (hit ? diskHits : diskMisses).incrementAndGet();
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getMemoryMisses() {
+        return memoryMisses.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getDiskMisses() {
+        return diskMisses.get();
+    }
+
+    /**
+     * Fracción de imágenes encontradas en la caché de memoria, o 0 si no hubo consultas
+     */
+    public double getMemoryHitRate() {
+        return rate(memoryHits.get(), memoryMisses.get());
+    }
+
+    /**
+     * Fracción de consultas a la caché de disco que la encontraron, o 0 si no hubo consultas
+     */
+    public double getDiskHitRate() {
+        return rate(diskHits.get(), diskMisses.get());
+    }
+
+    public void reset() {
+        memoryHits.set(0);
+        memoryMisses.set(0);
+        diskHits.set(0);
+        diskMisses.set(0);
+    }
+
+    private static double rate(long hits, long misses) {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "memoria %d/%d (%.1f%%), disco %d/%d (%.1f%%)",
+                memoryHits.get(), memoryHits.get() + memoryMisses.get(), getMemoryHitRate() * 100,
+                diskHits.get(), diskHits.get() + diskMisses.get(), getDiskHitRate() * 100);
+    }
+}
@@ -0,0 +1,223 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepara las imágenes de la galería antes de subirlas
+ * Decodifica con inSampleSize, reduce al lado máximo configurado, aplica la orientación EXIF
+ * y vuelve a codificar, lo que descarta los metadatos EXIF de la foto original
+ * Ninguna versión supera el lado máximo, aunque se pida más grande
+ */
+public class ImageProcessor {
+    public static final int DEFAULT_MAX_EDGE = 1600;
+    public static final int DEFAULT_QUALITY = 85;
+    private static final String OUTPUT_DIR = "subidas";
+
+    private final ContentResolver contentResolver;
+    private final File outputDir;
+    private final int maxEdge;
+    private final int quality;
+    private final Bitmap.CompressFormat format;
+
+    public ImageProcessor(Context context) {
+        this(context, DEFAULT_MAX_EDGE, DEFAULT_QUALITY, Bitmap.CompressFormat.JPEG);
+    }
+
+    /**
+     * @param maxEdge Longitud máxima en pixeles del lado más largo
+     * @param quality Calidad de compresión de 0 a 100
+     * @param format JPEG o WEBP
+     */
+    public ImageProcessor(Context context, int maxEdge, int quality, Bitmap.CompressFormat format) {
+        this.contentResolver = context.getContentResolver();
+        // Fuera de la caché para que una subida pendiente sobreviva a que el sistema la limpie
+        this.outputDir = new File(context.getFilesDir(), OUTPUT_DIR);
+        this.outputDir.mkdirs();
+        this.maxEdge = maxEdge;
+        this.quality = quality;
+        this.format = format;
+    }
+
+    /**
+     * Genera varias versiones de una imagen decodificándola una sola vez
+     * Debe llamarse fuera del hilo principal; quien llama borra los archivos al terminar
+     * @param source URI de la imagen seleccionada
+     * @param edges Lado máximo de cada versión, por nombre
+     * @return Archivos temporales por nombre, en el mismo orden que edges
+     */
+    public Map<String, File> process(Uri source, Map<String, Integer> edges) throws IOException {
+        int largestEdge = 0;
+        for (int edge : edges.values()) {
+            largestEdge = Math.max(largestEdge, Math.min(edge, maxEdge));
+        }
+
+        Bitmap base = decode(source, largestEdge);
+        Map<String, File> files = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Integer> entry : edges.entrySet()) {
+                Bitmap scaled = scaleDown(base, Math.min(entry.getValue(), maxEdge));
+                try {
+                    files.put(entry.getKey(), compress(scaled));
+                } finally {
+                    if (scaled != base) {
+                        scaled.recycle();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            for (File file : files.values()) {
+                file.delete();
+            }
+            throw e;
+        } finally {
+            base.recycle();
+        }
+        return files;
+    }
+
+    /**
+     * Decodifica con inSampleSize y deja la imagen orientada y con el lado más largo en edge
+     */
+    private Bitmap decode(Uri source, int edge) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("El archivo no es una imagen");
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight, edge);
+        Bitmap decoded;
+        try (InputStream in = open(source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("No se pudo decodificar la imagen");
+        }
+        return transform(decoded, edge, readOrientation(source));
+    }
+
+    private File compress(Bitmap bitmap) throws IOException {
+        File output = File.createTempFile("figura_", "." + getExtension(), outputDir);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+            if (!bitmap.compress(format, quality, out)) {
+                throw new IOException("No se pudo codificar la imagen");
+            }
+        } catch (IOException e) {
+            output.delete();
+            throw e;
+        }
+        return output;
+    }
+
+    private static Bitmap scaleDown(Bitmap source, int edge) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        if (longest <= edge) {
+            return source;
+        }
+        float scale = (float) edge / longest;
+        return Bitmap.createScaledBitmap(source, Math.max(1, Math.round(source.getWidth() * scale)),
+                Math.max(1, Math.round(source.getHeight() * scale)), true);
+    }
+
+    /**
+     * Extensión del archivo según el formato configurado
+     */
+    public String getExtension() {
+        return format == Bitmap.CompressFormat.JPEG ? "jpg" : "webp";
+    }
+
+    /**
+     * Tipo MIME según el formato configurado
+     */
+    public String getContentType() {
+        return format == Bitmap.CompressFormat.JPEG ? "image/jpeg" : "image/webp";
+    }
+
+    /**
+     * Mayor potencia de dos que deja el lado más largo en al menos maxEdge pixeles
+     */
+    static int calculateInSampleSize(int width, int height, int maxEdge) {
+        int longest = Math.max(width, height);
+        int sampleSize = 1;
+        while (longest / (sampleSize * 2) >= maxEdge) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Escala al lado máximo y rota según EXIF en una sola copia del bitmap
+     */
+    private static Bitmap transform(Bitmap source, int edge, int orientation) {
+        Matrix matrix = new Matrix();
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        if (longest > edge) {
+            float scale = (float) edge / longest;
+            matrix.postScale(scale, scale);
+        }
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            default:
+                break;
+        }
+        if (matrix.isIdentity()) {
+            return source;
+        }
+
+        Bitmap transformed = Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+        if (transformed != source) {
+            source.recycle();
+        }
+        return transformed;
+    }
+
+    private int readOrientation(Uri source) {
+        try (InputStream in = open(source)) {
+            return new ExifInterface(in).getAttributeInt(ExifInterface.TAG_ORIENTATION,
+                    ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    private InputStream open(Uri source) throws IOException {
+        InputStream in = contentResolver.openInputStream(source);
+        if (in == null) {
+            throw new IOException("No se pudo abrir la imagen");
+        }
+        return in;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.Map;
+
+/**
+ * Operaciones remotas que necesita CatalogImporter
+ * Permite probar la importación en la JVM con un backend falso local
+ */
+public interface ImportBackend {
+
+    /**
+     * Sube la imagen de una fila
+     * @param imagen Nombre del archivo en la carpeta de la importación
+     * @param callback Recibe las URLs por tamaño (ver ImageRenditions)
+     */
+    void uploadImage(String imagen, Callback<Map<String, String>> callback);
+
+    /**
+     * Genera el ID de una figura nueva sin escribir nada
+     */
+    String newFiguraId();
+
+    /**
+     * Guarda un grupo de figuras en una sola escritura atómica
+     * @param figuras Figuras por ID; nunca más de {@link CatalogImporter#MAX_BATCH_SIZE}
+     */
+    void commit(Map<String, Figure> figuras, Callback<Void> callback);
+
+    interface Callback<T> {
+        void onSuccess(T result);
+        void onError(String error);
+    }
+}
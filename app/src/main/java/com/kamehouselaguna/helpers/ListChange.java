@@ -0,0 +1,78 @@
+package com.kamehouselaguna.helpers;
+
+/**
+ * Cambio puntual en una lista ordenada
+ * Las posiciones son relativas a la lista después de aplicar los cambios anteriores
+ */
+public class ListChange {
+
+    public enum Type {
+        INSERT,
+        UPDATE,
+        REMOVE,
+        MOVE
+    }
+
+    private final Type type;
+    private final String id;
+    private final int fromPosition;
+    private final int toPosition;
+
+    private ListChange(Type type, String id, int fromPosition, int toPosition) {
+        this.type = type;
+        this.id = id;
+        this.fromPosition = fromPosition;
+        this.toPosition = toPosition;
+    }
+
+    public static ListChange insert(String id, int position) {
+        return new ListChange(Type.INSERT, id, -1, position);
+    }
+
+    public static ListChange update(String id, int position) {
+        return new ListChange(Type.UPDATE, id, position, position);
+    }
+
+    public static ListChange remove(String id, int position) {
+        return new ListChange(Type.REMOVE, id, position, -1);
+    }
+
+    public static ListChange move(String id, int fromPosition, int toPosition) {
+        return new ListChange(Type.MOVE, id, fromPosition, toPosition);
+    }
+
+    /**
+     * Devuelve el mismo cambio desplazado, para combinar listas concatenadas
+     */
+    public ListChange offset(int offset) {
+        return new ListChange(type, id,
+                fromPosition < 0 ? fromPosition : fromPosition + offset,
+                toPosition < 0 ? toPosition : toPosition + offset);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getFromPosition() {
+        return fromPosition;
+    }
+
+    public int getToPosition() {
+        return toPosition;
+    }
+
+    @Override
+    public String toString() {
+        return "ListChange{" +
+                "type=" + type +
+                ", id='" + id + '\'' +
+                ", fromPosition=" + fromPosition +
+                ", toPosition=" + toPosition +
+                '}';
+    }
+}
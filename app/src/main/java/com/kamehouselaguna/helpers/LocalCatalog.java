@@ -0,0 +1,147 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Catálogo completo en memoria, ordenado como la consulta de Firestore
+ * (fechaCreacion descendente y después ID descendente)
+ * Las altas, cambios y bajas se convierten en cambios de lista y actualizan las marcas de agua
+ * de figuras (fechaActualizacion) y de eliminaciones, que se sincronizan por separado
+ */
+public class LocalCatalog {
+    public static final long NO_WATERMARK = Long.MIN_VALUE;
+
+    static final Comparator<Figure> ORDER = (a, b) -> {
+        int byFecha = Long.compare(timeOf(b.getFechaCreacion()), timeOf(a.getFechaCreacion()));
+        return byFecha != 0 ? byFecha : b.getId().compareTo(a.getId());
+    };
+
+    private final SnapshotModel<Figure> model = new SnapshotModel<>();
+    private long watermark;
+    private long tombstoneWatermark;
+
+    /**
+     * Crea el catálogo a partir de una lista en cualquier orden
+     * @param watermark Marca de agua conocida; se eleva si alguna figura es más reciente
+     * @param tombstoneWatermark Última eliminación aplicada, o NO_WATERMARK para un catálogo
+     *                           recién descargado, que ya no contiene las figuras borradas antes
+     */
+    public LocalCatalog(List<Figure> figuras, long watermark, long tombstoneWatermark) {
+        this.watermark = watermark;
+        List<Figure> sorted = new ArrayList<>(figuras);
+        Collections.sort(sorted, ORDER);
+        for (int i = 0; i < sorted.size(); i++) {
+            Figure figura = sorted.get(i);
+            model.added(figura.getId(), i, figura);
+            raiseWatermark(figura);
+        }
+        model.drainChanges();
+        this.tombstoneWatermark = tombstoneWatermark != NO_WATERMARK ? tombstoneWatermark : this.watermark;
+    }
+
+    /**
+     * Inserta o reemplaza una figura en su posición ordenada
+     */
+    public void upsert(Figure figura) {
+        int oldIndex = model.indexOf(figura.getId());
+        int newIndex = insertionPoint(figura, oldIndex);
+        if (oldIndex >= 0) {
+            model.modified(figura.getId(), oldIndex, newIndex, figura);
+        } else {
+            model.added(figura.getId(), newIndex, figura);
+        }
+        raiseWatermark(figura);
+    }
+
+    /**
+     * Elimina una figura si existe
+     */
+    public void remove(String id) {
+        int index = model.indexOf(id);
+        if (index >= 0) {
+            model.removed(id, index);
+        }
+    }
+
+    /**
+     * Aplica marcas de eliminación
+     * @param fechaEliminacion Fecha de la marca más reciente, o null si el servidor aún no la fijó
+     */
+    public void removeAll(List<String> ids, Date fechaEliminacion) {
+        for (String id : ids) {
+            remove(id);
+        }
+        if (fechaEliminacion != null && fechaEliminacion.getTime() > tombstoneWatermark) {
+            tombstoneWatermark = fechaEliminacion.getTime();
+        }
+    }
+
+    /**
+     * Devuelve y limpia los cambios acumulados
+     */
+    public List<ListChange> drainChanges() {
+        return model.drainChanges();
+    }
+
+    public List<Figure> getItems() {
+        return model.getItems();
+    }
+
+    public Figure get(String id) {
+        return model.get(id);
+    }
+
+    public int size() {
+        return model.size();
+    }
+
+    /**
+     * Mayor fechaActualizacion conocida, en milisegundos
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Fecha de la última marca de eliminación aplicada, en milisegundos
+     */
+    public long getTombstoneWatermark() {
+        return tombstoneWatermark;
+    }
+
+    /**
+     * Búsqueda binaria de la posición de una figura, ignorando su posición anterior
+     */
+    private int insertionPoint(Figure figura, int excludedIndex) {
+        int size = model.size() - (excludedIndex >= 0 ? 1 : 0);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int realIndex = excludedIndex >= 0 && mid >= excludedIndex ? mid + 1 : mid;
+            if (ORDER.compare(model.getAt(realIndex), figura) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void raiseWatermark(Figure figura) {
+        Date fechaActualizacion = figura.getFechaActualizacion();
+        if (fechaActualizacion != null && fechaActualizacion.getTime() > watermark) {
+            watermark = fechaActualizacion.getTime();
+        }
+    }
+
+    private static long timeOf(Date date) {
+        return date != null ? date.getTime() : Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,290 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Recolector de imágenes huérfanas en Storage
+ * Lista la carpeta por páginas, la compara con las URLs del catálogo y borra en paralelo los
+ * archivos que ninguna figura usa. Los archivos modificados dentro del periodo de gracia se
+ * respetan, porque una subida en curso existe en Storage antes de que la figura la registre.
+ * No depende de Android: los callbacks del listado deben llegar siempre en el mismo hilo
+ */
+public class OrphanImageCollector {
+    public static final long DEFAULT_GRACE_PERIOD_MS = 24L * 60 * 60 * 1000;
+    public static final int DEFAULT_PARALLEL_DELETES = 8;
+
+    private final StorageListing listing;
+    private final int parallelDeletes;
+    private final long gracePeriodMs;
+    private final LongSupplier clock;
+
+    public OrphanImageCollector(StorageListing listing) {
+        this(listing, DEFAULT_PARALLEL_DELETES, DEFAULT_GRACE_PERIOD_MS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param parallelDeletes Máximo de archivos revisándose o borrándose al mismo tiempo
+     * @param gracePeriodMs Antigüedad mínima para considerar huérfano un archivo
+     * @param clock Hora actual en milisegundos
+     */
+    public OrphanImageCollector(StorageListing listing, int parallelDeletes, long gracePeriodMs, LongSupplier clock) {
+        this.listing = listing;
+        this.parallelDeletes = Math.max(1, parallelDeletes);
+        this.gracePeriodMs = gracePeriodMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Busca y, si no es simulación, borra las imágenes que no usa ninguna figura
+     * @param catalogo Catálogo completo leído del servidor; con un catálogo parcial se borrarían imágenes en uso
+     * @param dryRun true para solo reportar sin borrar nada
+     */
+    public void collect(Collection<Figure> catalogo, boolean dryRun, OnCollectListener listener) {
+        new Run(referencedPaths(catalogo), dryRun, listener).listPage(null);
+    }
+
+    /**
+     * Rutas de Storage de todas las versiones de imagen del catálogo
+     */
+    public static Set<String> referencedPaths(Collection<Figure> catalogo) {
+        Set<String> paths = new HashSet<>();
+        for (Figure figura : catalogo) {
+            addPath(paths, figura.getImagenUrl());
+            if (figura.getImagenes() != null) {
+                for (String url : figura.getImagenes().values()) {
+                    addPath(paths, url);
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static void addPath(Set<String> paths, String url) {
+        String path = pathFromUrl(url);
+        if (path != null) {
+            paths.add(path);
+        }
+    }
+
+    /**
+     * Convierte una URL de descarga (https://firebasestorage.googleapis.com/v0/b/bucket/o/ruta?...)
+     * o una URL gs://bucket/ruta en la ruta del archivo dentro del bucket
+     * @return La ruta, o null si la URL no es de Storage
+     */
+    public static String pathFromUrl(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        if (url.startsWith("gs://")) {
+            int slash = url.indexOf('/', "gs://".length());
+            return slash >= 0 && slash < url.length() - 1 ? url.substring(slash + 1) : null;
+        }
+
+        int start = url.indexOf("/o/");
+        if (!url.startsWith("https://") || start < 0) {
+            return null;
+        }
+        int end = url.indexOf('?', start);
+        String encoded = end >= 0 ? url.substring(start + 3, end) : url.substring(start + 3);
+        try {
+            return URLDecoder.decode(encoded, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Estado de una recolección
+     */
+    private class Run {
+        private final Set<String> referenciadas;
+        private final boolean dryRun;
+        private final OnCollectListener listener;
+        private final List<String> candidatas = new ArrayList<>();
+        private final Report report;
+        private int next = 0;
+        private int inFlight = 0;
+        private int finished = 0;
+        private boolean pumping = false;
+        private boolean completed = false;
+
+        Run(Set<String> referenciadas, boolean dryRun, OnCollectListener listener) {
+            this.referenciadas = referenciadas;
+            this.dryRun = dryRun;
+            this.listener = listener;
+            this.report = new Report(dryRun);
+        }
+
+        // ========== LISTADO ==========
+
+        void listPage(String pageToken) {
+            listing.list(pageToken, new StorageListing.Callback<StorageListing.Page>() {
+                @Override
+                public void onSuccess(StorageListing.Page page) {
+                    for (String path : page.getPaths()) {
+                        report.scanned++;
+                        if (referenciadas.contains(path)) {
+                            report.referenced++;
+                        } else {
+                            candidatas.add(path);
+                        }
+                    }
+
+                    if (page.getNextPageToken() != null) {
+                        listPage(page.getNextPageToken());
+                    } else {
+                        pump();
+                    }
+                }
+
+                @Override
+                public void onError(String error) {
+                    // Sin el listado completo no se borra nada
+                    listener.onError("Error al listar imágenes: " + error);
+                }
+            });
+        }
+
+        // ========== REVISIÓN Y BORRADO ==========
+
+        /**
+         * Revisa candidatas hasta llenar los espacios libres
+         * Si el listado responde en el mismo hilo, la llamada anidada deja el trabajo al ciclo externo
+         */
+        private void pump() {
+            if (pumping) {
+                return;
+            }
+            pumping = true;
+            try {
+                while (inFlight < parallelDeletes && next < candidatas.size()) {
+                    inFlight++;
+                    check(candidatas.get(next++));
+                }
+            } finally {
+                pumping = false;
+            }
+
+            if (finished == candidatas.size() && !completed) {
+                completed = true;
+                listener.onComplete(report);
+            }
+        }
+
+        private void check(String path) {
+            long limite = clock.getAsLong() - gracePeriodMs;
+            listing.getUpdatedTimeMillis(path, new StorageListing.Callback<Long>() {
+                @Override
+                public void onSuccess(Long updatedTime) {
+                    if (updatedTime > limite) {
+                        report.recent.add(path);
+                        onFinished();
+                    } else if (dryRun) {
+                        report.orphans.add(path);
+                        onFinished();
+                    } else {
+                        delete(path);
+                    }
+                }
+
+                @Override
+                public void onError(String error) {
+                    report.failures.add(path + ": " + error);
+                    onFinished();
+                }
+            });
+        }
+
+        private void delete(String path) {
+            listing.delete(path, new StorageListing.Callback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    report.orphans.add(path);
+                    onFinished();
+                }
+
+                @Override
+                public void onError(String error) {
+                    report.failures.add(path + ": " + error);
+                    onFinished();
+                }
+            });
+        }
+
+        private void onFinished() {
+            inFlight--;
+            finished++;
+            pump();
+        }
+    }
+
+    /**
+     * Resultado de una recolección
+     */
+    public static class Report {
+        private final boolean dryRun;
+        private int scanned = 0;
+        private int referenced = 0;
+        private final List<String> orphans = new ArrayList<>();
+        private final List<String> recent = new ArrayList<>();
+        private final List<String> failures = new ArrayList<>();
+
+        Report(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        /**
+         * Archivos listados en la carpeta
+         */
+        public int getScanned() {
+            return scanned;
+        }
+
+        /**
+         * Archivos que usa alguna figura
+         */
+        public int getReferenced() {
+            return referenced;
+        }
+
+        /**
+         * Huérfanas encontradas en una simulación, o huérfanas borradas en una ejecución real
+         */
+        public List<String> getOrphans() {
+            return Collections.unmodifiableList(orphans);
+        }
+
+        /**
+         * Archivos sin figura pero dentro del periodo de gracia
+         */
+        public List<String> getRecent() {
+            return Collections.unmodifiableList(recent);
+        }
+
+        /**
+         * Archivos que no se pudieron revisar o borrar, con su error
+         */
+        public List<String> getFailures() {
+            return Collections.unmodifiableList(failures);
+        }
+    }
+
+    public interface OnCollectListener {
+        void onComplete(Report report);
+        void onError(String error);
+    }
+}
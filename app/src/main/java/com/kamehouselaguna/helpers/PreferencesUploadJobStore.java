@@ -0,0 +1,43 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Subidas pendientes de UploadManager guardadas en SharedPreferences
+ */
+public class PreferencesUploadJobStore implements UploadJobStore {
+    private final SharedPreferences prefs;
+
+    public PreferencesUploadJobStore(SharedPreferences prefs) {
+        this.prefs = prefs;
+    }
+
+    @Override
+    public void put(String path, String job) {
+        prefs.edit().putString(path, job).apply();
+    }
+
+    @Override
+    public void remove(String path) {
+        prefs.edit().remove(path).apply();
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return prefs.contains(path);
+    }
+
+    @Override
+    public Map<String, String> getAll() {
+        Map<String, String> jobs = new HashMap<>();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getValue() instanceof String) {
+                jobs.put(entry.getKey(), (String) entry.getValue());
+            }
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kamehouselaguna.helpers;
+
+/**
+ * Ajuste de precio para aplicar a varias figuras a la vez
+ * Un porcentaje (10 sube 10 %, -15 baja 15 %) o un monto fijo que se suma al precio actual;
+ * el resultado se redondea a centavos
+ */
+public final class PriceAdjustment {
+    public enum Type {
+        PERCENTAGE,
+        FIXED_AMOUNT
+    }
+
+    private final Type type;
+    private final double value;
+
+    private PriceAdjustment(Type type, double value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public static PriceAdjustment percentage(double porcentaje) {
+        return new PriceAdjustment(Type.PERCENTAGE, porcentaje);
+    }
+
+    public static PriceAdjustment fixedAmount(double monto) {
+        return new PriceAdjustment(Type.FIXED_AMOUNT, monto);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Calcula el precio nuevo; puede ser cero o negativo, ver {@link #isValidPrice}
+     */
+    public double apply(double precio) {
+        double nuevo = type == Type.PERCENTAGE
+                ? precio * (1 + value / 100)
+                : precio + value;
+        return Math.round(nuevo * 100) / 100.0;
+    }
+
+    /**
+     * El mismo criterio que el formulario de figura: el precio debe ser mayor a 0
+     */
+    public static boolean isValidPrice(double precio) {
+        return precio > 0;
+    }
+}
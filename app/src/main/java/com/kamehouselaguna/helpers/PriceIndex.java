@@ -0,0 +1,289 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice del catálogo ordenado por precio para filtrar por rango y ordenar sin volver a consultar
+ * Los precios viven en un arreglo primitivo ordenado (desempatado por ID) con los IDs y figuras
+ * en arreglos paralelos; un rango se resuelve con dos búsquedas binarias y se recorre en orden.
+ * No es seguro entre hilos: debe actualizarse y consultarse siempre desde el mismo executor
+ */
+public class PriceIndex {
+
+    public enum Sort {
+        // Orden del catálogo: fecha de creación descendente
+        NEWEST,
+        PRICE_ASC,
+        PRICE_DESC,
+        NAME
+    }
+
+    private double[] precios = new double[16];
+    private String[] ids = new String[16];
+    private Figure[] figuras = new Figure[16];
+    private int size = 0;
+
+    private final Map<String, Figure> figurasById = new HashMap<>();
+    // Posición en el catálogo y nombre normalizado, para los otros órdenes
+    private final Map<String, Integer> rankById = new HashMap<>();
+    private final Map<String, String> sortNameById = new HashMap<>();
+
+    /**
+     * Sincroniza el índice con el catálogo
+     * Solo se mueven las figuras nuevas o cuyo objeto cambió, con una búsqueda binaria y un
+     * desplazamiento del arreglo cada una
+     * @param catalogo Catálogo completo en su orden de presentación
+     */
+    public void sync(List<Figure> catalogo) {
+        if (size == 0) {
+            build(catalogo);
+            return;
+        }
+
+        Set<String> presentes = new HashSet<>(catalogo.size() * 2);
+        for (int i = 0; i < catalogo.size(); i++) {
+            Figure figura = catalogo.get(i);
+            String id = figura.getId();
+            presentes.add(id);
+            rankById.put(id, i);
+
+            Figure anterior = figurasById.get(id);
+            if (anterior == figura) {
+                continue;
+            }
+            if (anterior != null) {
+                removeAt(find(anterior.getPrecio(), id));
+            }
+            insert(figura);
+        }
+
+        if (figurasById.size() > presentes.size()) {
+            List<String> eliminadas = new ArrayList<>();
+            for (String id : figurasById.keySet()) {
+                if (!presentes.contains(id)) {
+                    eliminadas.add(id);
+                }
+            }
+            for (String id : eliminadas) {
+                removeAt(find(figurasById.get(id).getPrecio(), id));
+                rankById.remove(id);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Precio más bajo del catálogo, o 0 si está vacío
+     */
+    public double getMinPrice() {
+        return size > 0 ? precios[0] : 0;
+    }
+
+    /**
+     * Precio más alto del catálogo, o 0 si está vacío
+     */
+    public double getMaxPrice() {
+        return size > 0 ? precios[size - 1] : 0;
+    }
+
+    /**
+     * Figuras con precio dentro del rango, en el orden pedido
+     * Por precio cuesta O(log n + k); por nombre o fecha se ordenan además los k resultados
+     * @param min Precio mínimo incluido; Double.NEGATIVE_INFINITY para no limitar
+     * @param max Precio máximo incluido; Double.POSITIVE_INFINITY para no limitar
+     */
+    public List<Figure> query(double min, double max, Sort sort) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        List<Figure> resultado = new ArrayList<>(Math.max(0, to - from));
+        if (sort == Sort.PRICE_DESC) {
+            for (int i = to - 1; i >= from; i--) {
+                resultado.add(figuras[i]);
+            }
+            return resultado;
+        }
+
+        for (int i = from; i < to; i++) {
+            resultado.add(figuras[i]);
+        }
+        if (sort != Sort.PRICE_ASC) {
+            resultado.sort(comparator(sort));
+        }
+        return resultado;
+    }
+
+    /**
+     * Filtra por precio y ordena otros resultados, como los de una búsqueda
+     * Las figuras deben estar en el índice
+     * @param sort Orden; con NEWEST se conserva el orden recibido
+     */
+    public List<Figure> filter(List<Figure> resultados, double min, double max, Sort sort) {
+        List<Figure> filtrados = new ArrayList<>(resultados.size());
+        for (Figure figura : resultados) {
+            if (figura.getPrecio() >= min && figura.getPrecio() <= max) {
+                filtrados.add(figura);
+            }
+        }
+        if (sort != Sort.NEWEST) {
+            filtrados.sort(comparator(sort));
+        }
+        return filtrados;
+    }
+
+    /**
+     * Comparador para ordenar otros resultados, como los de una búsqueda, con los datos del índice
+     * Las figuras deben estar en el índice
+     */
+    public Comparator<Figure> comparator(Sort sort) {
+        switch (sort) {
+            case PRICE_ASC:
+                return (a, b) -> compare(a.getPrecio(), a.getId(), b.getPrecio(), b.getId());
+            case PRICE_DESC:
+                return (a, b) -> compare(b.getPrecio(), b.getId(), a.getPrecio(), a.getId());
+            case NAME:
+                return (a, b) -> {
+                    int byName = sortNameById.get(a.getId()).compareTo(sortNameById.get(b.getId()));
+                    return byName != 0 ? byName : Integer.compare(rankById.get(a.getId()), rankById.get(b.getId()));
+                };
+            case NEWEST:
+            default:
+                return (a, b) -> Integer.compare(rankById.get(a.getId()), rankById.get(b.getId()));
+        }
+    }
+
+    // ========== MANTENIMIENTO ==========
+
+    /**
+     * Construye el índice completo ordenando una sola vez, en lugar de insertar una por una
+     */
+    private void build(List<Figure> catalogo) {
+        Figure[] ordenadas = catalogo.toArray(new Figure[0]);
+        Arrays.sort(ordenadas, (a, b) -> compare(a.getPrecio(), a.getId(), b.getPrecio(), b.getId()));
+
+        int capacity = Math.max(16, ordenadas.length);
+        precios = new double[capacity];
+        ids = new String[capacity];
+        figuras = new Figure[capacity];
+        for (int i = 0; i < ordenadas.length; i++) {
+            Figure figura = ordenadas[i];
+            precios[i] = figura.getPrecio();
+            ids[i] = figura.getId();
+            figuras[i] = figura;
+            figurasById.put(figura.getId(), figura);
+            sortNameById.put(figura.getId(), SearchIndex.fold(figura.getNombre()));
+        }
+        size = ordenadas.length;
+
+        for (int i = 0; i < catalogo.size(); i++) {
+            rankById.put(catalogo.get(i).getId(), i);
+        }
+    }
+
+    private void insert(Figure figura) {
+        double precio = figura.getPrecio();
+        String id = figura.getId();
+        int position = -(find(precio, id) + 1);
+
+        if (size == precios.length) {
+            int capacity = size * 2;
+            precios = Arrays.copyOf(precios, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            figuras = Arrays.copyOf(figuras, capacity);
+        }
+        System.arraycopy(precios, position, precios, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(figuras, position, figuras, position + 1, size - position);
+        precios[position] = precio;
+        ids[position] = id;
+        figuras[position] = figura;
+        size++;
+
+        figurasById.put(id, figura);
+        sortNameById.put(id, SearchIndex.fold(figura.getNombre()));
+    }
+
+    private void removeAt(int position) {
+        String id = ids[position];
+        System.arraycopy(precios, position + 1, precios, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(figuras, position + 1, figuras, position, size - position - 1);
+        size--;
+        ids[size] = null;
+        figuras[size] = null;
+
+        figurasById.remove(id);
+        sortNameById.remove(id);
+    }
+
+    /**
+     * Busca una entrada por precio e ID
+     * @return Su posición, o -(punto de inserción) - 1 si no está
+     */
+    private int find(double precio, String id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(precios[mid], ids[mid], precio, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Primera posición con precio >= min
+     */
+    private int lowerBound(double min) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (precios[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Primera posición con precio > max
+     */
+    private int upperBound(double max) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (precios[mid] <= max) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double precioA, String idA, double precioB, String idB) {
+        int byPrecio = Double.compare(precioA, precioB);
+        return byPrecio != 0 ? byPrecio : idA.compareTo(idB);
+    }
+}
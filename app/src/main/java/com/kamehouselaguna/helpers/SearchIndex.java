@@ -0,0 +1,348 @@
+package com.kamehouselaguna.helpers;
+
+import com.kamehouselaguna.models.Figure;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para buscar figuras por nombre y descripción
+ * Ignora mayúsculas y acentos, cada palabra de la búsqueda se compara como prefijo y todas deben
+ * aparecer en la figura. Los resultados se ordenan por relevancia y después en el orden del catálogo.
+ * No es seguro entre hilos: debe actualizarse y consultarse siempre desde el mismo executor
+ */
+public class SearchIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int FIELD_NOMBRE = 1;
+    private static final int FIELD_DESCRIPCION = 2;
+
+    // Puntos por palabra según dónde aparece y si coincide completa o solo como prefijo
+    private static final float SCORE_NOMBRE_EXACT = 10f;
+    private static final float SCORE_NOMBRE_PREFIX = 6f;
+    private static final float SCORE_DESCRIPCION_EXACT = 3f;
+    private static final float SCORE_DESCRIPCION_PREFIX = 2f;
+    // Bonificación cuando el nombre empieza con la primera palabra buscada
+    private static final float SCORE_NOMBRE_START = 5f;
+
+    // Diccionario ordenado para resolver prefijos con un rango
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private int slotCount = 0;
+
+    // Datos por slot
+    private Figure[] figuras = new Figure[16];
+    private String[][] tokens = new String[16][];
+    private String[] primerToken = new String[16];
+    private int[] rank = new int[16];
+
+    // Acumuladores de la consulta, reutilizados entre búsquedas
+    private float[] tokenScore = new float[16];
+    private float[] totalScore = new float[16];
+    private int[] matched = new int[16];
+    private int[] touched = new int[16];
+    private int[] candidates = new int[16];
+
+    /**
+     * Sincroniza el índice con el catálogo
+     * Solo se vuelven a tokenizar las figuras nuevas o cuyo objeto cambió; el modelo del catálogo
+     * reutiliza el mismo objeto mientras el documento no cambia
+     * @param catalogo Catálogo completo en su orden de presentación
+     */
+    public void sync(List<Figure> catalogo) {
+        Set<String> ids = new HashSet<>(catalogo.size() * 2);
+        for (int i = 0; i < catalogo.size(); i++) {
+            Figure figura = catalogo.get(i);
+            ids.add(figura.getId());
+            Integer slot = slotsById.get(figura.getId());
+            if (slot == null || figuras[slot] != figura) {
+                slot = index(figura);
+            }
+            rank[slot] = i;
+        }
+
+        if (slotsById.size() > ids.size()) {
+            List<String> eliminadas = new ArrayList<>();
+            for (String id : slotsById.keySet()) {
+                if (!ids.contains(id)) {
+                    eliminadas.add(id);
+                }
+            }
+            for (String id : eliminadas) {
+                remove(id);
+            }
+        }
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Busca figuras que contengan todas las palabras de la consulta como prefijo
+     * @return Figuras ordenadas por relevancia; vacía si la consulta no tiene palabras
+     */
+    public List<Figure> search(String query) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0) {
+            return new ArrayList<>();
+        }
+        queryTokens = dedupe(queryTokens);
+
+        int candidateCount = 0;
+        for (int q = 0; q < queryTokens.length; q++) {
+            String token = queryTokens[q];
+            int touchedCount = 0;
+
+            NavigableMap<String, Postings> rango = dictionary.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Postings> entry : rango.entrySet()) {
+                boolean exact = entry.getKey().length() == token.length();
+                Postings postings = entry.getValue();
+                for (int p = 0; p < postings.size; p++) {
+                    int slot = postings.slots[p];
+                    // Con más de una palabra solo siguen las figuras que coincidieron con todas las anteriores
+                    if (q > 0 && matched[slot] != q) {
+                        continue;
+                    }
+                    float score = score(postings.fields[p], exact);
+                    if (tokenScore[slot] == 0f) {
+                        touched[touchedCount++] = slot;
+                    }
+                    if (score > tokenScore[slot]) {
+                        tokenScore[slot] = score;
+                    }
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int slot = touched[t];
+                if (q == 0) {
+                    totalScore[slot] = tokenScore[slot];
+                    candidates[candidateCount++] = slot;
+                } else {
+                    totalScore[slot] += tokenScore[slot];
+                }
+                matched[slot] = q + 1;
+                tokenScore[slot] = 0f;
+            }
+        }
+
+        String primera = queryTokens[0];
+        List<Integer> resultados = new ArrayList<>();
+        for (int c = 0; c < candidateCount; c++) {
+            int slot = candidates[c];
+            if (matched[slot] == queryTokens.length) {
+                String inicio = primerToken[slot];
+                if (inicio != null && inicio.startsWith(primera)) {
+                    totalScore[slot] += SCORE_NOMBRE_START;
+                }
+                resultados.add(slot);
+            }
+        }
+
+        resultados.sort((a, b) -> {
+            int byScore = Float.compare(totalScore[b], totalScore[a]);
+            return byScore != 0 ? byScore : Integer.compare(rank[a], rank[b]);
+        });
+
+        List<Figure> figurasEncontradas = new ArrayList<>(resultados.size());
+        for (int slot : resultados) {
+            figurasEncontradas.add(figuras[slot]);
+        }
+        for (int c = 0; c < candidateCount; c++) {
+            matched[candidates[c]] = 0;
+            totalScore[candidates[c]] = 0f;
+        }
+        return figurasEncontradas;
+    }
+
+    /**
+     * Pasa un texto a minúsculas sin acentos y lo separa en palabras
+     */
+    public static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        String folded = removeAccents(text);
+
+        List<String> palabras = new ArrayList<>();
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(Character.toLowerCase(c));
+            } else if (palabra.length() > 0) {
+                palabras.add(palabra.toString());
+                palabra.setLength(0);
+            }
+        }
+        if (palabra.length() > 0) {
+            palabras.add(palabra.toString());
+        }
+        return palabras.toArray(new String[0]);
+    }
+
+    /**
+     * Pasa un texto a minúsculas sin acentos, para comparar nombres como los compara la búsqueda
+     */
+    public static String fold(String text) {
+        return text == null ? "" : removeAccents(text).toLowerCase(Locale.ROOT);
+    }
+
+    private static String removeAccents(String text) {
+        // Normalizar es lo más costoso; la mayoría de los textos no tienen acentos
+        return isAscii(text)
+                ? text
+                : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== MANTENIMIENTO ==========
+
+    private int index(Figure figura) {
+        Integer existing = slotsById.get(figura.getId());
+        if (existing != null) {
+            removeSlot(existing);
+        }
+
+        int slot = allocate();
+        slotsById.put(figura.getId(), slot);
+        figuras[slot] = figura;
+
+        Map<String, Integer> campos = new HashMap<>();
+        String[] nombre = tokenize(figura.getNombre());
+        for (String token : nombre) {
+            campos.merge(token, FIELD_NOMBRE, (a, b) -> a | b);
+        }
+        for (String token : tokenize(figura.getDescripcion())) {
+            campos.merge(token, FIELD_DESCRIPCION, (a, b) -> a | b);
+        }
+
+        String[] slotTokens = new String[campos.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : campos.entrySet()) {
+            Postings postings = dictionary.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                dictionary.put(entry.getKey(), postings);
+            }
+            postings.add(slot, entry.getValue());
+            slotTokens[i++] = entry.getKey();
+        }
+        tokens[slot] = slotTokens;
+        primerToken[slot] = nombre.length > 0 ? nombre[0] : null;
+        return slot;
+    }
+
+    private void remove(String id) {
+        Integer slot = slotsById.remove(id);
+        if (slot != null) {
+            clearSlot(slot);
+        }
+    }
+
+    private void removeSlot(int slot) {
+        slotsById.remove(figuras[slot].getId());
+        clearSlot(slot);
+    }
+
+    private void clearSlot(int slot) {
+        for (String token : tokens[slot]) {
+            Postings postings = dictionary.get(token);
+            if (postings != null && postings.remove(slot) && postings.size == 0) {
+                dictionary.remove(token);
+            }
+        }
+        figuras[slot] = null;
+        tokens[slot] = null;
+        primerToken[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.remove(freeSlots.size() - 1);
+        }
+        int slot = slotCount++;
+        if (slot >= figuras.length) {
+            int capacity = figuras.length * 2;
+            figuras = Arrays.copyOf(figuras, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+            primerToken = Arrays.copyOf(primerToken, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+            tokenScore = Arrays.copyOf(tokenScore, capacity);
+            totalScore = Arrays.copyOf(totalScore, capacity);
+            matched = Arrays.copyOf(matched, capacity);
+            touched = Arrays.copyOf(touched, capacity);
+            candidates = Arrays.copyOf(candidates, capacity);
+        }
+        return slot;
+    }
+
+    private static float score(int fields, boolean exact) {
+        if ((fields & FIELD_NOMBRE) != 0) {
+            return exact ? SCORE_NOMBRE_EXACT : SCORE_NOMBRE_PREFIX;
+        }
+        return exact ? SCORE_DESCRIPCION_EXACT : SCORE_DESCRIPCION_PREFIX;
+    }
+
+    private static String[] dedupe(String[] queryTokens) {
+        List<String> unicos = new ArrayList<>(queryTokens.length);
+        for (String token : queryTokens) {
+            if (!unicos.contains(token)) {
+                unicos.add(token);
+            }
+        }
+        return unicos.toArray(new String[0]);
+    }
+
+    /**
+     * Figuras que contienen una palabra, con los campos donde aparece
+     */
+    private static class Postings {
+        private int[] slots = new int[4];
+        private byte[] fields = new byte[4];
+        private int size = 0;
+
+        void add(int slot, int field) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            slots[size] = slot;
+            fields[size] = (byte) field;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    fields[i] = fields[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.kamehouselaguna.helpers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo en memoria de una consulta, indexado por ID
+ * Recibe los cambios de documento de cada snapshot y acumula los cambios de lista resultantes,
+ * de modo que solo se deserializan los documentos agregados o modificados
+ */
+public class SnapshotModel<T> {
+    private final Map<String, T> itemsById = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<T> items = new ArrayList<>();
+    private final List<ListChange> pendingChanges = new ArrayList<>();
+
+    /**
+     * Registra un documento agregado en la posición indicada
+     */
+    public void added(String id, int newIndex, T item) {
+        if (itemsById.containsKey(id)) {
+            // Un listener reanudado vuelve a enviar como agregados los documentos que ya conocemos
+            modified(id, indexOf(id), newIndex, item);
+            return;
+        }
+        itemsById.put(id, item);
+        ids.add(newIndex, id);
+        items.add(newIndex, item);
+        pendingChanges.add(ListChange.insert(id, newIndex));
+    }
+
+    /**
+     * Registra un documento modificado, que puede haber cambiado de posición
+     */
+    public void modified(String id, int oldIndex, int newIndex, T item) {
+        itemsById.put(id, item);
+        if (oldIndex != newIndex) {
+            ids.remove(oldIndex);
+            items.remove(oldIndex);
+            ids.add(newIndex, id);
+            items.add(newIndex, item);
+            pendingChanges.add(ListChange.move(id, oldIndex, newIndex));
+        } else {
+            items.set(newIndex, item);
+        }
+        pendingChanges.add(ListChange.update(id, newIndex));
+    }
+
+    /**
+     * Registra un documento eliminado de la posición indicada
+     */
+    public void removed(String id, int oldIndex) {
+        itemsById.remove(id);
+        ids.remove(oldIndex);
+        items.remove(oldIndex);
+        pendingChanges.add(ListChange.remove(id, oldIndex));
+    }
+
+    /**
+     * Devuelve y limpia los cambios acumulados desde la última llamada
+     */
+    public List<ListChange> drainChanges() {
+        List<ListChange> changes = new ArrayList<>(pendingChanges);
+        pendingChanges.clear();
+        return changes;
+    }
+
+    /**
+     * Devuelve una copia de los elementos en orden
+     */
+    public List<T> getItems() {
+        return new ArrayList<>(items);
+    }
+
+    public T get(String id) {
+        return itemsById.get(id);
+    }
+
+    public T getAt(int index) {
+        return items.get(index);
+    }
+
+    /**
+     * Posición de un elemento, o -1 si no está en el modelo
+     */
+    public int indexOf(String id) {
+        return itemsById.containsKey(id) ? ids.indexOf(id) : -1;
+    }
+
+    public boolean contains(String id) {
+        return itemsById.containsKey(id);
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
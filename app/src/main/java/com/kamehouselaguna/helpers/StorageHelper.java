@@ -1,5 +1,6 @@
 package com.kamehouselaguna.helpers;
 
+import android.content.Context;
 import android.net.Uri;
 import android.util.Log;
 
@@ -9,11 +10,23 @@ import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.ImageRenditions;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * Clase helper para operaciones con Firebase Storage
@@ -21,59 +34,209 @@ import java.util.UUID;
  */
 public class StorageHelper {
     private static final String TAG = "StorageHelper";
-    private static final String FOLDER_FIGURAS = "figuras";
+    public static final String FOLDER_FIGURAS = "figuras";
+    private static final String TAG_SEPARATOR = "|";
 
     private FirebaseStorage storage;
     private StorageReference storageRef;
+    private ImageProcessor imageProcessor;
+    private UploadManager uploadManager;
+    private Executor processExecutor;
+    private Executor mainExecutor;
 
-    public StorageHelper() {
+    public StorageHelper(Context context) {
+        this(new ImageProcessor(context), UploadManager.getInstance(context));
+    }
+
+    /**
+     * @param imageProcessor Procesador que reduce y recomprime las imágenes antes de subirlas
+     * @param uploadManager Gestor de subidas reanudables
+     */
+    public StorageHelper(ImageProcessor imageProcessor, UploadManager uploadManager) {
         storage = FirebaseStorage.getInstance();
         storageRef = storage.getReference();
+        this.imageProcessor = imageProcessor;
+        this.uploadManager = uploadManager;
+        processExecutor = AppExecutors.getInstance().diskIO();
+        mainExecutor = AppExecutors.getInstance().mainThread();
     }
 
     /**
-     * Sube una imagen de figura al Storage
+     * Sube una imagen de figura al Storage en varias versiones (ver ImageRenditions)
+     * La imagen se reduce y recomprime fuera del hilo principal y las versiones se suben en paralelo
      * @param imageUri URI de la imagen a subir
-     * @param listener Callback para manejar el resultado
+     * @param listener Callback con las URLs de descarga por tamaño
      */
     public void uploadFigureImage(Uri imageUri, OnImageUploadListener listener) {
+        uploadFigureImage(null, imageUri, null, listener);
+    }
+
+    /**
+     * Sube una imagen de figura informando el progreso en bytes de todas sus versiones
+     * Las subidas se reanudan y reintentan con UploadManager
+     * @param figuraId Figura ya guardada a la que pertenece la imagen, o null; cada versión se sube
+     *                 con el tag de {@link #tagFor} para registrarla aunque el proceso se reinicie
+     * @param progressListener Callback de progreso, o null
+     * @return Handle para dejar de recibir el progreso, por ejemplo al cerrar la pantalla
+     */
+    public UploadHandle uploadFigureImage(String figuraId, Uri imageUri, OnUploadProgressListener progressListener,
+                                          OnImageUploadListener listener) {
+        UploadHandle handle = new UploadHandle(uploadManager, progressListener);
         if (imageUri == null) {
             listener.onError("URI de imagen no válida");
-            return;
+            return handle;
         }
 
-        // Generar nombre único para la imagen
-        String fileName = "figura_" + UUID.randomUUID().toString() + ".jpg";
-        StorageReference imageRef = storageRef.child(FOLDER_FIGURAS).child(fileName);
-
-        // Subir la imagen
-        UploadTask uploadTask = imageRef.putFile(imageUri);
-
-        uploadTask.addOnSuccessListener(new OnSuccessListener<UploadTask.TaskSnapshot>() {
-            @Override
-            public void onSuccess(UploadTask.TaskSnapshot taskSnapshot) {
-                // Obtener la URL de descarga
-                imageRef.getDownloadUrl().addOnSuccessListener(new OnSuccessListener<Uri>() {
-                    @Override
-                    public void onSuccess(Uri downloadUri) {
-                        Log.d(TAG, "Imagen subida exitosamente: " + downloadUri.toString());
-                        listener.onSuccess(downloadUri.toString());
-                    }
-                }).addOnFailureListener(new OnFailureListener() {
-                    @Override
-                    public void onFailure(@NonNull Exception e) {
-                        Log.e(TAG, "Error al obtener URL de descarga", e);
-                        listener.onError("Error al obtener URL de descarga: " + e.getMessage());
-                    }
-                });
-            }
-        }).addOnFailureListener(new OnFailureListener() {
-            @Override
-            public void onFailure(@NonNull Exception e) {
-                Log.e(TAG, "Error al subir imagen", e);
-                listener.onError("Error al subir imagen: " + e.getMessage());
+        Map<String, Integer> edges = new LinkedHashMap<>();
+        edges.put(ImageRenditions.THUMB, ImageRenditions.THUMB_EDGE);
+        edges.put(ImageRenditions.MEDIUM, ImageRenditions.MEDIUM_EDGE);
+        edges.put(ImageRenditions.ORIGINAL, Integer.MAX_VALUE);
+
+        processExecutor.execute(() -> {
+            try {
+                Map<String, File> processed = imageProcessor.process(imageUri, edges);
+                mainExecutor.execute(() -> uploadRenditions(figuraId, processed, handle, listener));
+            } catch (IOException | OutOfMemoryError e) {
+                Log.e(TAG, "Error al procesar imagen", e);
+                mainExecutor.execute(() -> listener.onError("Error al procesar imagen: " + e.getMessage()));
             }
         });
+        return handle;
+    }
+
+    /**
+     * Tag de la subida de una versión de la imagen de una figura
+     */
+    public static String tagFor(String figuraId, String size) {
+        return figuraId + TAG_SEPARATOR + size;
+    }
+
+    /**
+     * Separa un tag de {@link #tagFor} en ID de figura y tamaño
+     * @return Arreglo {figuraId, size}, o null si el tag no tiene ese formato
+     */
+    public static String[] parseTag(String tag) {
+        int index = tag.lastIndexOf(TAG_SEPARATOR);
+        if (index <= 0 || index == tag.length() - 1) {
+            return null;
+        }
+        return new String[]{tag.substring(0, index), tag.substring(index + 1)};
+    }
+
+    /**
+     * Sube los archivos ya procesados; UploadManager los borra al terminar
+     * Si falla alguna versión se borran las que sí se subieron, salvo que pertenezcan a una figura
+     * guardada, que ya puede estar usándolas
+     */
+    private void uploadRenditions(String figuraId, Map<String, File> processed, UploadHandle handle,
+                                  OnImageUploadListener listener) {
+        if (handle.discarded) {
+            // Se descartó mientras se procesaba la imagen
+            for (File file : processed.values()) {
+                file.delete();
+            }
+            return;
+        }
+
+        // Un nombre base único compartido por todas las versiones
+        String baseName = "figura_" + UUID.randomUUID().toString();
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String size : processed.keySet()) {
+            paths.put(size, FOLDER_FIGURAS + "/" + baseName + "_" + size + "." + imageProcessor.getExtension());
+        }
+        handle.paths.addAll(paths.values());
+
+        // El total se conoce antes de subir, para que el porcentaje no retroceda al empezar cada versión
+        long totalBytes = 0;
+        for (File file : processed.values()) {
+            totalBytes += file.length();
+        }
+        long total = totalBytes;
+
+        Map<String, String> imagenes = new HashMap<>();
+        Map<String, Long> progress = new HashMap<>();
+        boolean[] failed = {false};
+        for (Map.Entry<String, File> entry : processed.entrySet()) {
+            String size = entry.getKey();
+            String tag = figuraId != null ? tagFor(figuraId, size) : null;
+            uploadManager.enqueue(entry.getValue(), paths.get(size), imageProcessor.getContentType(), tag,
+                    new UploadManager.OnUploadListener() {
+                        @Override
+                        public void onProgress(long bytesTransferred, long totalBytes) {
+                            progress.put(size, bytesTransferred);
+                            OnUploadProgressListener progressListener = handle.progressListener;
+                            if (progressListener != null && !failed[0]) {
+                                long transferred = 0;
+                                for (long value : progress.values()) {
+                                    transferred += value;
+                                }
+                                progressListener.onProgress(Math.min(transferred, total), total);
+                            }
+                        }
+
+                        @Override
+                        public void onSuccess(String downloadUrl) {
+                            if (failed[0]) {
+                                if (figuraId == null) {
+                                    uploadManager.deleteUploaded(paths.get(size));
+                                }
+                                return;
+                            }
+                            imagenes.put(size, downloadUrl);
+                            if (imagenes.size() == processed.size()) {
+                                Log.d(TAG, "Imagen subida exitosamente: " + imagenes.get(ImageRenditions.ORIGINAL));
+                                listener.onSuccess(imagenes);
+                            }
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            if (failed[0]) {
+                                return;
+                            }
+                            failed[0] = true;
+                            Log.e(TAG, "Error al subir imagen: " + error);
+                            if (figuraId == null) {
+                                for (String uploaded : imagenes.keySet()) {
+                                    uploadManager.deleteUploaded(paths.get(uploaded));
+                                }
+                            }
+                            listener.onError("Error al subir imagen: " + error);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Elimina todas las versiones de la imagen de una figura
+     * Las figuras anteriores a las versiones solo tienen imagenUrl
+     */
+    public void deleteFigureImages(Figure figura, OnImageDeleteListener listener) {
+        Set<String> urls = new LinkedHashSet<>();
+        if (figura.getImagenes() != null) {
+            urls.addAll(figura.getImagenes().values());
+        }
+        if (isValidImageUrl(figura.getImagenUrl())) {
+            urls.add(figura.getImagenUrl());
+        }
+        if (urls.isEmpty()) {
+            listener.onSuccess("La figura no tiene imagen");
+            return;
+        }
+
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (String url : urls) {
+            StorageReference imageRef = getImageReference(url);
+            if (imageRef != null) {
+                deletes.add(imageRef.delete());
+            }
+        }
+        Tasks.whenAll(deletes)
+                .addOnSuccessListener(aVoid -> listener.onSuccess("Imagen eliminada exitosamente"))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al eliminar imagen", e);
+                    listener.onError("Error al eliminar imagen: " + e.getMessage());
+                });
     }
 
     /**
@@ -140,13 +303,51 @@ public class StorageHelper {
                (imageUrl.startsWith("http://") || imageUrl.startsWith("https://"));
     }
 
+    /**
+     * Subida en curso de una imagen
+     */
+    public static class UploadHandle {
+        private final UploadManager uploadManager;
+        private final List<String> paths = new ArrayList<>();
+        private OnUploadProgressListener progressListener;
+        private boolean discarded;
+
+        UploadHandle(UploadManager uploadManager, OnUploadProgressListener progressListener) {
+            this.uploadManager = uploadManager;
+            this.progressListener = progressListener;
+        }
+
+        /**
+         * Deja de entregar el progreso; la subida continúa
+         */
+        public void removeProgressListener() {
+            progressListener = null;
+        }
+
+        /**
+         * Cancela la subida y borra las versiones que ya se subieron, sin avisar a ningún listener
+         * Por ejemplo si no se pudo guardar la figura a la que pertenecen
+         */
+        public void discard() {
+            discarded = true;
+            progressListener = null;
+            for (String path : paths) {
+                uploadManager.discard(path);
+            }
+        }
+    }
+
     // ========== INTERFACES DE CALLBACK ==========
 
     public interface OnImageUploadListener {
-        void onSuccess(String downloadUrl);
+        void onSuccess(Map<String, String> imagenes);
         void onError(String error);
     }
 
+    public interface OnUploadProgressListener {
+        void onProgress(long bytesTransferred, long totalBytes);
+    }
+
     public interface OnImageDeleteListener {
         void onSuccess(String message);
         void onError(String error);
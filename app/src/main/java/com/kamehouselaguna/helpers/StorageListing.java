@@ -0,0 +1,53 @@
+package com.kamehouselaguna.helpers;
+
+import java.util.List;
+
+/**
+ * Acceso mínimo a una carpeta de Storage para OrphanImageCollector
+ * Permite probar el recolector en la JVM con un listado falso
+ */
+public interface StorageListing {
+
+    /**
+     * Lista una página de archivos de la carpeta
+     * @param pageToken Token de la página anterior, o null para la primera
+     */
+    void list(String pageToken, Callback<Page> callback);
+
+    /**
+     * Obtiene la fecha de la última modificación de un archivo en milisegundos
+     */
+    void getUpdatedTimeMillis(String path, Callback<Long> callback);
+
+    void delete(String path, Callback<Void> callback);
+
+    /**
+     * Página del listado
+     */
+    class Page {
+        private final List<String> paths;
+        private final String nextPageToken;
+
+        /**
+         * @param paths Rutas completas de los archivos, sin barra inicial (figuras/x.jpg)
+         * @param nextPageToken Token de la siguiente página, o null si es la última
+         */
+        public Page(List<String> paths, String nextPageToken) {
+            this.paths = paths;
+            this.nextPageToken = nextPageToken;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+    }
+
+    interface Callback<T> {
+        void onSuccess(T result);
+        void onError(String error);
+    }
+}
@@ -0,0 +1,92 @@
+package com.kamehouselaguna.helpers;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro de un listener de Firestore que lleva la cuenta de los listeners activos
+ * Puede ligarse al ciclo de vida de una pantalla para eliminarse automáticamente
+ */
+public class TrackedListenerRegistration implements ListenerRegistration {
+    private static final AtomicInteger activeCount = new AtomicInteger();
+
+    private ListenerRegistration delegate;
+    private volatile boolean active = true;
+    private LifecycleOwner owner;
+    private LifecycleEventObserver observer;
+
+    TrackedListenerRegistration() {
+        activeCount.incrementAndGet();
+    }
+
+    /**
+     * Número de listeners de Firestore activos en el proceso, para depuración y pruebas
+     */
+    public static int getActiveCount() {
+        return activeCount.get();
+    }
+
+    void attach(ListenerRegistration delegate) {
+        this.delegate = delegate;
+        if (!active) {
+            delegate.remove();
+        }
+    }
+
+    /**
+     * Elimina el listener cuando el dueño llega a ON_DESTROY
+     * Para fragments debe usarse getViewLifecycleOwner()
+     */
+    public TrackedListenerRegistration bindTo(LifecycleOwner owner) {
+        if (!active) {
+            return this;
+        }
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            remove();
+            return this;
+        }
+
+        this.owner = owner;
+        this.observer = new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    remove();
+                }
+            }
+        };
+        owner.getLifecycle().addObserver(observer);
+        return this;
+    }
+
+    /**
+     * Indica si el listener sigue activo; los resultados ya encolados se descartan si no lo está
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void remove() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        activeCount.decrementAndGet();
+
+        if (delegate != null) {
+            delegate.remove();
+        }
+        if (owner != null) {
+            owner.getLifecycle().removeObserver(observer);
+            owner = null;
+            observer = null;
+        }
+    }
+}
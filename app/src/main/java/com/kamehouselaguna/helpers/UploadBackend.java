@@ -0,0 +1,41 @@
+package com.kamehouselaguna.helpers;
+
+import java.io.File;
+
+/**
+ * Almacenamiento remoto usado por UploadManager
+ * Permite probar el gestor de subidas con un almacenamiento falso local
+ */
+public interface UploadBackend {
+
+    /**
+     * Inicia o reanuda la subida de un archivo
+     * Los callbacks se llaman en el hilo principal
+     * @param path Ruta de destino dentro del almacenamiento
+     * @param sessionUri Sesión de una subida anterior para continuar desde el último byte confirmado,
+     *                   o null para empezar de cero
+     */
+    void upload(String path, File file, String contentType, String sessionUri, Callback callback);
+
+    /**
+     * Borra un archivo ya subido
+     */
+    void delete(String path);
+
+    interface Callback {
+        /**
+         * El servidor asignó la sesión de subida; debe guardarse para poder reanudar
+         */
+        void onSession(String sessionUri);
+
+        void onProgress(long bytesTransferred, long totalBytes);
+
+        void onSuccess(String downloadUrl);
+
+        /**
+         * @param retryable El error es temporal (red, servidor) y vale la pena reintentar
+         * @param sessionExpired La sesión ya no es válida y hay que empezar de cero
+         */
+        void onFailure(String error, boolean retryable, boolean sessionExpired);
+    }
+}
@@ -0,0 +1,26 @@
+package com.kamehouselaguna.helpers;
+
+import java.util.Map;
+
+/**
+ * Almacenamiento persistente de las subidas pendientes de UploadManager
+ * Debe sobrevivir al cierre del proceso; permite probar el gestor en la JVM con un mapa en memoria
+ */
+public interface UploadJobStore {
+
+    /**
+     * Guarda o reemplaza una subida
+     * @param path Ruta de destino que identifica la subida
+     * @param job Subida serializada
+     */
+    void put(String path, String job);
+
+    void remove(String path);
+
+    boolean contains(String path);
+
+    /**
+     * Todas las subidas guardadas, por ruta de destino
+     */
+    Map<String, String> getAll();
+}
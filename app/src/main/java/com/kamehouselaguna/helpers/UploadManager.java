@@ -0,0 +1,357 @@
+package com.kamehouselaguna.helpers;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gestor de subidas reanudables
+ * Guarda cada subida pendiente (archivo, destino y sesión) en un UploadJobStore, reintenta con
+ * backoff exponencial reutilizando la sesión y permite reanudar después de que el sistema
+ * cierre el proceso. Si los reintentos se agotan por errores temporales, la subida queda
+ * pendiente hasta que vuelva la conexión; solo los errores permanentes la hacen fallar.
+ * Las subidas se identifican por su ruta de destino
+ */
+public class UploadManager {
+    private static final String TAG = "UploadManager";
+    private static final String PREFS_NAME = "subidas_pendientes";
+    static final int MAX_ATTEMPTS = 6;
+    static final long INITIAL_BACKOFF_MS = 1000;
+    static final long MAX_BACKOFF_MS = 60 * 1000;
+
+    private static UploadManager instance;
+
+    private final UploadBackend backend;
+    private final UploadJobStore store;
+    private final UploadScheduler scheduler;
+    private final Map<String, UploadJob> activeJobs = new HashMap<>();
+    private final Map<String, OnUploadListener> listeners = new HashMap<>();
+    private final List<Runnable> idleCallbacks = new ArrayList<>();
+    private OnJobFinishedListener jobFinishedListener;
+
+    /**
+     * @param backend Almacenamiento remoto; en pruebas puede ser uno falso local
+     * @param store Subidas pendientes, que deben sobrevivir al proceso
+     * @param scheduler Programa los reintentos en el hilo principal
+     */
+    UploadManager(UploadBackend backend, UploadJobStore store, UploadScheduler scheduler) {
+        this.backend = backend;
+        this.store = store;
+        this.scheduler = scheduler;
+    }
+
+    public static synchronized UploadManager getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new UploadManager(new FirebaseUploadBackend(),
+                    new PreferencesUploadJobStore(appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)),
+                    new AndroidUploadScheduler(appContext));
+        }
+        return instance;
+    }
+
+    /**
+     * Inicia la subida de un archivo
+     * El archivo debe estar en almacenamiento persistente; se borra al terminar la subida
+     * La reanudación con conexión se programa desde ya, así la subida continúa aunque el sistema
+     * cierre el proceso antes de terminarla
+     * @param path Ruta de destino, que también identifica la subida
+     * @param tag Dato que se guarda con la subida y se entrega a {@link OnJobFinishedListener}, o null
+     */
+    public void enqueue(File file, String path, String contentType, String tag, OnUploadListener listener) {
+        UploadJob job = new UploadJob(path, file.getAbsolutePath(), contentType, tag, null, 0);
+        listeners.put(path, listener);
+        persist(job);
+        scheduler.resumeWhenConnected();
+        start(job);
+    }
+
+    /**
+     * Reanuda las subidas que quedaron pendientes en un proceso anterior o esperando conexión
+     */
+    public void resumePending() {
+        for (Map.Entry<String, String> entry : store.getAll().entrySet()) {
+            if (activeJobs.containsKey(entry.getKey())) {
+                continue;
+            }
+            try {
+                UploadJob job = UploadJob.fromJson(new JSONObject(entry.getValue()));
+                // Un proceso nuevo empieza con todos sus intentos; la sesión se conserva
+                job.attempts = 0;
+                Log.d(TAG, "Reanudando subida de " + job.path);
+                start(job);
+            } catch (JSONException e) {
+                Log.e(TAG, "Subida pendiente inválida, se descarta", e);
+                store.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Asocia un listener a una subida en curso, por ejemplo al volver a abrir una pantalla
+     */
+    public void setListener(String path, OnUploadListener listener) {
+        if (listener != null) {
+            listeners.put(path, listener);
+        } else {
+            listeners.remove(path);
+        }
+    }
+
+    /**
+     * Listener que recibe el final de todas las subidas con tag, incluidas las reanudadas
+     * después de que el sistema cerró el proceso, cuando ya no existe la pantalla que las inició
+     */
+    public void setOnJobFinishedListener(OnJobFinishedListener listener) {
+        this.jobFinishedListener = listener;
+    }
+
+    public boolean isPending(String path) {
+        return activeJobs.containsKey(path) || store.contains(path);
+    }
+
+    /**
+     * Indica si hay subidas guardadas que no están en curso, por ejemplo esperando conexión
+     */
+    public boolean hasWaitingJobs() {
+        for (String path : store.getAll().keySet()) {
+            if (!activeJobs.containsKey(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ejecuta una tarea cuando no quede ninguna subida en curso; las que esperan conexión no cuentan
+     */
+    public void whenIdle(Runnable callback) {
+        if (activeJobs.isEmpty()) {
+            callback.run();
+        } else {
+            idleCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * Borra un archivo ya subido, por ejemplo si otra parte de la misma operación falló
+     */
+    public void deleteUploaded(String path) {
+        backend.delete(path);
+    }
+
+    /**
+     * Descarta una subida sin avisar a sus listeners
+     * Si sigue pendiente ya no se reintenta ni se reanuda, y si el intento en curso llega a terminar
+     * se borra lo subido; si ya había terminado se borra el archivo subido
+     */
+    public void discard(String path) {
+        listeners.remove(path);
+        UploadJob job = activeJobs.remove(path);
+        String stored = store.getAll().get(path);
+        store.remove(path);
+        if (job != null) {
+            // El intento en curso o el reintento programado terminan de limpiar, ver start
+            job.discarded = true;
+            notifyIfIdle();
+        } else if (stored != null) {
+            // Esperaba conexión: no hay intento en curso ni archivo subido
+            try {
+                new File(UploadJob.fromJson(new JSONObject(stored)).filePath).delete();
+            } catch (JSONException e) {
+                Log.e(TAG, "Subida pendiente inválida, se descarta", e);
+            }
+        } else {
+            backend.delete(path);
+        }
+    }
+
+    /**
+     * Espera antes del siguiente intento: 1 s, 2 s, 4 s... hasta un máximo
+     */
+    static long backoffFor(int attempts) {
+        long backoff = INITIAL_BACKOFF_MS << Math.min(Math.max(attempts - 1, 0), 16);
+        return Math.min(backoff, MAX_BACKOFF_MS);
+    }
+
+    private void start(UploadJob job) {
+        File file = new File(job.filePath);
+        if (job.discarded) {
+            file.delete();
+            return;
+        }
+        if (!file.exists()) {
+            finish(job, null, "El archivo a subir ya no existe");
+            return;
+        }
+
+        activeJobs.put(job.path, job);
+        backend.upload(job.path, file, job.contentType, job.sessionUri, new UploadBackend.Callback() {
+            @Override
+            public void onSession(String sessionUri) {
+                if (!job.discarded && !sessionUri.equals(job.sessionUri)) {
+                    job.sessionUri = sessionUri;
+                    persist(job);
+                }
+            }
+
+            @Override
+            public void onProgress(long bytesTransferred, long totalBytes) {
+                OnUploadListener listener = listeners.get(job.path);
+                if (listener != null) {
+                    listener.onProgress(bytesTransferred, totalBytes);
+                }
+            }
+
+            @Override
+            public void onSuccess(String downloadUrl) {
+                if (job.discarded) {
+                    backend.delete(job.path);
+                    file.delete();
+                    return;
+                }
+                finish(job, downloadUrl, null);
+            }
+
+            @Override
+            public void onFailure(String error, boolean retryable, boolean sessionExpired) {
+                if (job.discarded) {
+                    file.delete();
+                    return;
+                }
+                if (sessionExpired) {
+                    job.sessionUri = null;
+                }
+                if (!retryable) {
+                    finish(job, null, error);
+                    return;
+                }
+                job.attempts++;
+                if (job.attempts < MAX_ATTEMPTS) {
+                    persist(job);
+                    long delay = backoffFor(job.attempts);
+                    Log.d(TAG, "Reintentando " + job.path + " en " + delay + " ms");
+                    scheduler.postDelayed(() -> start(job), delay);
+                } else {
+                    waitForConnection(job);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deja la subida guardada, con su sesión, hasta que WorkManager la reanude con conexión
+     * El listener se conserva por si se reanuda en este mismo proceso
+     */
+    private void waitForConnection(UploadJob job) {
+        Log.d(TAG, "Sin conexión estable; " + job.path + " espera a que vuelva la red");
+        persist(job);
+        activeJobs.remove(job.path);
+        scheduler.resumeWhenConnected();
+        notifyIfIdle();
+    }
+
+    private void finish(UploadJob job, String downloadUrl, String error) {
+        activeJobs.remove(job.path);
+        store.remove(job.path);
+        new File(job.filePath).delete();
+        notifyIfIdle();
+
+        if (job.tag != null && jobFinishedListener != null) {
+            jobFinishedListener.onJobFinished(job.tag, downloadUrl, error);
+        }
+
+        OnUploadListener listener = listeners.remove(job.path);
+        if (listener == null) {
+            return;
+        }
+        if (downloadUrl != null) {
+            listener.onSuccess(downloadUrl);
+        } else {
+            listener.onError(error);
+        }
+    }
+
+    private void notifyIfIdle() {
+        if (!activeJobs.isEmpty() || idleCallbacks.isEmpty()) {
+            return;
+        }
+        List<Runnable> callbacks = new ArrayList<>(idleCallbacks);
+        idleCallbacks.clear();
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+    }
+
+    private void persist(UploadJob job) {
+        try {
+            store.put(job.path, job.toJson().toString());
+        } catch (JSONException e) {
+            Log.e(TAG, "No se pudo guardar la subida " + job.path, e);
+        }
+    }
+
+    /**
+     * Subida pendiente tal como se guarda en el UploadJobStore
+     */
+    private static class UploadJob {
+        private final String path;
+        private final String filePath;
+        private final String contentType;
+        private final String tag;
+        private String sessionUri;
+        private int attempts;
+        // Solo en memoria: una subida descartada ya no está en el store
+        private boolean discarded;
+
+        UploadJob(String path, String filePath, String contentType, String tag, String sessionUri, int attempts) {
+            this.path = path;
+            this.filePath = filePath;
+            this.contentType = contentType;
+            this.tag = tag;
+            this.sessionUri = sessionUri;
+            this.attempts = attempts;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("path", path);
+            json.put("file", filePath);
+            json.put("contentType", contentType);
+            json.put("tag", tag);
+            json.put("session", sessionUri);
+            json.put("attempts", attempts);
+            return json;
+        }
+
+        static UploadJob fromJson(JSONObject json) throws JSONException {
+            return new UploadJob(json.getString("path"), json.getString("file"),
+                    json.getString("contentType"), json.optString("tag", null), json.optString("session", null),
+                    json.optInt("attempts", 0));
+        }
+    }
+
+    // ========== INTERFACES DE CALLBACK ==========
+
+    public interface OnUploadListener {
+        void onProgress(long bytesTransferred, long totalBytes);
+        void onSuccess(String downloadUrl);
+        void onError(String error);
+    }
+
+    public interface OnJobFinishedListener {
+        /**
+         * @param downloadUrl URL del archivo subido, o null si la subida falló
+         * @param error Mensaje de error, o null si la subida terminó bien
+         */
+        void onJobFinished(String tag, String downloadUrl, String error);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kamehouselaguna.helpers;
+
+/**
+ * Programa los reintentos de UploadManager
+ * Permite probar el backoff en la JVM sin esperar el tiempo real
+ */
+public interface UploadScheduler {
+
+    /**
+     * Ejecuta una tarea en el hilo principal después de una espera
+     */
+    void postDelayed(Runnable task, long delayMs);
+
+    /**
+     * Pide llamar a {@link UploadManager#resumePending()} cuando haya conexión,
+     * aunque el sistema cierre el proceso antes
+     */
+    void resumeWhenConnected();
+}
@@ -1,6 +1,8 @@
 package com.kamehouselaguna.models;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Modelo de datos para las figuras de acción
@@ -11,6 +13,11 @@ public class Figure {
     private String nombre;
     private String descripcion;
     private String imagenUrl;
+    // URLs de las versiones de la imagen por tamaño (ver ImageRenditions)
+    private Map<String, String> imagenes;
+    // Versiones de imagen que aún se están subiendo después de guardar la figura
+    private int imagenesPendientes;
+    private boolean imagenError;
     private double precio;
     private Date fechaCreacion;
     private Date fechaActualizacion;
@@ -29,6 +36,20 @@ public class Figure {
         this.fechaActualizacion = new Date();
     }
 
+    // Constructor de copia, para editar una figura sin modificar la original
+    public Figure(Figure other) {
+        this.id = other.id;
+        this.nombre = other.nombre;
+        this.descripcion = other.descripcion;
+        this.imagenUrl = other.imagenUrl;
+        this.imagenes = other.imagenes != null ? new HashMap<>(other.imagenes) : null;
+        this.imagenesPendientes = other.imagenesPendientes;
+        this.imagenError = other.imagenError;
+        this.precio = other.precio;
+        this.fechaCreacion = other.fechaCreacion;
+        this.fechaActualizacion = other.fechaActualizacion;
+    }
+
     // Getters y Setters
     public String getId() {
         return id;
@@ -62,6 +83,42 @@ public class Figure {
         this.imagenUrl = imagenUrl;
     }
 
+    /**
+     * URL de la versión más pequeña que cubre el tamaño pedido
+     * @param targetPx Lado más largo del ImageView en pixeles
+     */
+    public String getImagenUrl(int targetPx) {
+        return ImageRenditions.select(imagenes, imagenUrl, targetPx);
+    }
+
+    public int getImagenesPendientes() {
+        return imagenesPendientes;
+    }
+
+    public void setImagenesPendientes(int imagenesPendientes) {
+        this.imagenesPendientes = imagenesPendientes;
+    }
+
+    public boolean isImagenPendiente() {
+        return imagenesPendientes > 0 && !imagenError;
+    }
+
+    public boolean isImagenError() {
+        return imagenError;
+    }
+
+    public void setImagenError(boolean imagenError) {
+        this.imagenError = imagenError;
+    }
+
+    public Map<String, String> getImagenes() {
+        return imagenes;
+    }
+
+    public void setImagenes(Map<String, String> imagenes) {
+        this.imagenes = imagenes;
+    }
+
     public double getPrecio() {
         return precio;
     }
@@ -93,6 +150,9 @@ public class Figure {
                 ", nombre='" + nombre + '\'' +
                 ", descripcion='" + descripcion + '\'' +
                 ", imagenUrl='" + imagenUrl + '\'' +
+                ", imagenes=" + imagenes +
+                ", imagenesPendientes=" + imagenesPendientes +
+                ", imagenError=" + imagenError +
                 ", precio=" + precio +
                 ", fechaCreacion=" + fechaCreacion +
                 ", fechaActualizacion=" + fechaActualizacion +
@@ -0,0 +1,39 @@
+package com.kamehouselaguna.models;
+
+/**
+ * Figura lista para mostrarse en una fila, con sus textos ya formateados
+ * Se crea fuera del hilo principal para que enlazar la fila solo asigne campos
+ */
+public class FigureItem {
+    private final Figure figura;
+    private final String precio;
+    private final String descripcionCorta;
+
+    public FigureItem(Figure figura, String precio, String descripcionCorta) {
+        this.figura = figura;
+        this.precio = precio;
+        this.descripcionCorta = descripcionCorta;
+    }
+
+    public Figure getFigura() {
+        return figura;
+    }
+
+    public String getId() {
+        return figura.getId();
+    }
+
+    /**
+     * Precio con formato de moneda
+     */
+    public String getPrecio() {
+        return precio;
+    }
+
+    /**
+     * Descripción recortada para la lista
+     */
+    public String getDescripcionCorta() {
+        return descripcionCorta;
+    }
+}
@@ -0,0 +1,98 @@
+package com.kamehouselaguna.models;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mapper de figuras entre el modelo y los campos de Firestore
+ * Reemplaza a toObject/set(Object), que recorren la clase por reflexión en cada documento
+ */
+public final class FigureMapper {
+    public static final String FIELD_NOMBRE = "nombre";
+    public static final String FIELD_DESCRIPCION = "descripcion";
+    public static final String FIELD_IMAGEN_URL = "imagenUrl";
+    public static final String FIELD_IMAGENES = "imagenes";
+    public static final String FIELD_IMAGENES_PENDIENTES = "imagenesPendientes";
+    public static final String FIELD_IMAGEN_ERROR = "imagenError";
+    public static final String FIELD_PRECIO = "precio";
+    public static final String FIELD_FECHA_CREACION = "fechaCreacion";
+    public static final String FIELD_FECHA_ACTUALIZACION = "fechaActualizacion";
+
+    private FigureMapper() {
+    }
+
+    /**
+     * Crea una figura a partir de los campos de un documento
+     * @param id ID del documento
+     * @param data Campos del documento, con las fechas ya convertidas a Date
+     * @return Figura, o null si el documento no tiene datos
+     */
+    public static Figure fromMap(String id, Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+
+        Figure figura = new Figure();
+        figura.setId(id);
+        figura.setNombre(MapperUtils.getString(data, FIELD_NOMBRE));
+        figura.setDescripcion(MapperUtils.getString(data, FIELD_DESCRIPCION));
+        figura.setImagenUrl(MapperUtils.getString(data, FIELD_IMAGEN_URL));
+        figura.setImagenes(MapperUtils.getStringMap(data, FIELD_IMAGENES));
+        figura.setImagenesPendientes(MapperUtils.getInt(data, FIELD_IMAGENES_PENDIENTES));
+        figura.setImagenError(MapperUtils.getBoolean(data, FIELD_IMAGEN_ERROR));
+        figura.setPrecio(MapperUtils.getDouble(data, FIELD_PRECIO));
+        figura.setFechaCreacion(MapperUtils.getDate(data, FIELD_FECHA_CREACION));
+        figura.setFechaActualizacion(MapperUtils.getDate(data, FIELD_FECHA_ACTUALIZACION));
+        return figura;
+    }
+
+    /**
+     * Convierte una figura en los campos que se guardan en Firestore
+     * El ID no se guarda porque es el ID del documento
+     */
+    public static Map<String, Object> toMap(Figure figura) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_NOMBRE, figura.getNombre());
+        data.put(FIELD_DESCRIPCION, figura.getDescripcion());
+        data.put(FIELD_IMAGEN_URL, figura.getImagenUrl());
+        data.put(FIELD_IMAGENES, figura.getImagenes());
+        data.put(FIELD_IMAGENES_PENDIENTES, figura.getImagenesPendientes());
+        data.put(FIELD_IMAGEN_ERROR, figura.isImagenError());
+        data.put(FIELD_PRECIO, figura.getPrecio());
+        data.put(FIELD_FECHA_CREACION, figura.getFechaCreacion());
+        data.put(FIELD_FECHA_ACTUALIZACION, figura.getFechaActualizacion());
+        return data;
+    }
+
+    /**
+     * Calcula los campos editables que cambiaron entre dos versiones de una figura
+     * Las fechas no se comparan: fechaCreacion no cambia al editar y fechaActualizacion la pone el servidor
+     * @return Campos modificados con su nuevo valor; vacío si no hubo cambios
+     */
+    public static Map<String, Object> diff(Figure original, Figure edited) {
+        Map<String, Object> changes = new HashMap<>();
+        if (!Objects.equals(original.getNombre(), edited.getNombre())) {
+            changes.put(FIELD_NOMBRE, edited.getNombre());
+        }
+        if (!Objects.equals(original.getDescripcion(), edited.getDescripcion())) {
+            changes.put(FIELD_DESCRIPCION, edited.getDescripcion());
+        }
+        if (Double.compare(original.getPrecio(), edited.getPrecio()) != 0) {
+            changes.put(FIELD_PRECIO, edited.getPrecio());
+        }
+        if (!Objects.equals(original.getImagenUrl(), edited.getImagenUrl())) {
+            changes.put(FIELD_IMAGEN_URL, edited.getImagenUrl());
+        }
+        if (!Objects.equals(original.getImagenes(), edited.getImagenes())) {
+            changes.put(FIELD_IMAGENES, edited.getImagenes());
+        }
+        if (original.getImagenesPendientes() != edited.getImagenesPendientes()) {
+            changes.put(FIELD_IMAGENES_PENDIENTES, edited.getImagenesPendientes());
+        }
+        if (original.isImagenError() != edited.isImagenError()) {
+            changes.put(FIELD_IMAGEN_ERROR, edited.isImagenError());
+        }
+        return changes;
+    }
+}
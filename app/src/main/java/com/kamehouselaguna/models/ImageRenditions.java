@@ -0,0 +1,47 @@
+package com.kamehouselaguna.models;
+
+import java.util.Map;
+
+/**
+ * Tamaños en que se sube la imagen de cada figura
+ * Las pantallas piden la versión más pequeña que cubre su ImageView
+ */
+public final class ImageRenditions {
+    public static final String THUMB = "thumb";
+    public static final String MEDIUM = "medium";
+    public static final String ORIGINAL = "original";
+
+    public static final int THUMB_EDGE = 320;
+    public static final int MEDIUM_EDGE = 1080;
+
+    /** Número de versiones que se suben por imagen */
+    public static final int COUNT = 3;
+
+    private static final String[] SIZES = {THUMB, MEDIUM};
+    private static final int[] EDGES = {THUMB_EDGE, MEDIUM_EDGE};
+
+    private ImageRenditions() {
+    }
+
+    /**
+     * Elige la URL más pequeña cuyo lado más largo cubre el tamaño pedido
+     * @param imagenes URLs por tamaño; puede ser null en figuras anteriores a las versiones
+     * @param original URL de la imagen original, usada si no hay una versión suficiente
+     * @param targetPx Lado más largo del ImageView en pixeles
+     */
+    public static String select(Map<String, String> imagenes, String original, int targetPx) {
+        if (imagenes != null) {
+            for (int i = 0; i < SIZES.length; i++) {
+                String url = imagenes.get(SIZES[i]);
+                if (EDGES[i] >= targetPx && url != null) {
+                    return url;
+                }
+            }
+            String url = imagenes.get(ORIGINAL);
+            if (url != null) {
+                return url;
+            }
+        }
+        return original;
+    }
+}
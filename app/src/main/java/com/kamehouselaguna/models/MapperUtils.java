@@ -0,0 +1,66 @@
+package com.kamehouselaguna.models;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Utilidades compartidas por los mappers de modelos
+ * Leen valores de un mapa de campos sin usar reflexión
+ */
+final class MapperUtils {
+
+    private MapperUtils() {
+    }
+
+    static String getString(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof String ? (String) value : null;
+    }
+
+    static double getDouble(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    static int getInt(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    static boolean getBoolean(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Boolean && (Boolean) value;
+    }
+
+    /**
+     * Lee un mapa de textos, ignorando las entradas que no lo son
+     */
+    static Map<String, String> getStringMap(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                result.put((String) entry.getKey(), (String) entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lee una fecha guardada como Date o como milisegundos desde epoch
+     */
+    static Date getDate(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        return null;
+    }
+}
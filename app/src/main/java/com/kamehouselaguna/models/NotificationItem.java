@@ -0,0 +1,30 @@
+package com.kamehouselaguna.models;
+
+/**
+ * Notificación lista para mostrarse en una fila, con su fecha ya formateada
+ * Se crea fuera del hilo principal para que enlazar la fila solo asigne campos
+ */
+public class NotificationItem {
+    private final Notification notificacion;
+    private final String fecha;
+
+    public NotificationItem(Notification notificacion, String fecha) {
+        this.notificacion = notificacion;
+        this.fecha = fecha;
+    }
+
+    public Notification getNotificacion() {
+        return notificacion;
+    }
+
+    public String getId() {
+        return notificacion.getId();
+    }
+
+    /**
+     * Fecha con formato, o un texto de reemplazo si no tiene
+     */
+    public String getFecha() {
+        return fecha;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kamehouselaguna.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapper de notificaciones entre el modelo y los campos de Firestore
+ */
+public final class NotificationMapper {
+    public static final String FIELD_TITULO = "titulo";
+    public static final String FIELD_MENSAJE = "mensaje";
+    public static final String FIELD_FECHA = "fecha";
+    public static final String FIELD_AUTOR_ID = "autorId";
+    public static final String FIELD_AUTOR_EMAIL = "autorEmail";
+
+    private NotificationMapper() {
+    }
+
+    /**
+     * Crea una notificación a partir de los campos de un documento
+     * @param id ID del documento
+     * @param data Campos del documento, con las fechas ya convertidas a Date
+     * @return Notificación, o null si el documento no tiene datos
+     */
+    public static Notification fromMap(String id, Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+
+        Notification notificacion = new Notification();
+        notificacion.setId(id);
+        notificacion.setTitulo(MapperUtils.getString(data, FIELD_TITULO));
+        notificacion.setMensaje(MapperUtils.getString(data, FIELD_MENSAJE));
+        notificacion.setFecha(MapperUtils.getDate(data, FIELD_FECHA));
+        notificacion.setAutorId(MapperUtils.getString(data, FIELD_AUTOR_ID));
+        notificacion.setAutorEmail(MapperUtils.getString(data, FIELD_AUTOR_EMAIL));
+        return notificacion;
+    }
+
+    /**
+     * Convierte una notificación en los campos que se guardan en Firestore
+     */
+    public static Map<String, Object> toMap(Notification notificacion) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_TITULO, notificacion.getTitulo());
+        data.put(FIELD_MENSAJE, notificacion.getMensaje());
+        data.put(FIELD_FECHA, notificacion.getFecha());
+        data.put(FIELD_AUTOR_ID, notificacion.getAutorId());
+        data.put(FIELD_AUTOR_EMAIL, notificacion.getAutorEmail());
+        return data;
+    }
+}
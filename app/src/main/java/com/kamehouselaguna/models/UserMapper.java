@@ -0,0 +1,51 @@
+package com.kamehouselaguna.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapper de usuarios entre el modelo y los campos de Firestore
+ */
+public final class UserMapper {
+    public static final String FIELD_UID = "uid";
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_ROL = "rol";
+    public static final String FIELD_FECHA_CREACION = "fechaCreacion";
+    public static final String FIELD_ULTIMO_ACCESO = "ultimoAcceso";
+
+    private UserMapper() {
+    }
+
+    /**
+     * Crea un usuario a partir de los campos de un documento
+     * @param uid ID del documento, que es el UID de Firebase Auth
+     * @param data Campos del documento, con las fechas ya convertidas a Date
+     * @return Usuario, o null si el documento no tiene datos
+     */
+    public static User fromMap(String uid, Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+
+        User user = new User();
+        user.setUid(uid);
+        user.setEmail(MapperUtils.getString(data, FIELD_EMAIL));
+        user.setRol(MapperUtils.getString(data, FIELD_ROL));
+        user.setFechaCreacion(MapperUtils.getDate(data, FIELD_FECHA_CREACION));
+        user.setUltimoAcceso(MapperUtils.getDate(data, FIELD_ULTIMO_ACCESO));
+        return user;
+    }
+
+    /**
+     * Convierte un usuario en los campos que se guardan en Firestore
+     */
+    public static Map<String, Object> toMap(User user) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_UID, user.getUid());
+        data.put(FIELD_EMAIL, user.getEmail());
+        data.put(FIELD_ROL, user.getRol());
+        data.put(FIELD_FECHA_CREACION, user.getFechaCreacion());
+        data.put(FIELD_ULTIMO_ACCESO, user.getUltimoAcceso());
+        return data;
+    }
+}
@@ -0,0 +1,255 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.ImageRenditions;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Pruebas de la importación de catálogo contra un backend falso en memoria
+ */
+public class CatalogImporterTest {
+
+    @Test
+    public void commitsInChunksOfAtMost500() {
+        FakeBackend backend = new FakeBackend();
+        List<CatalogManifest.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            rows.add(row(i + 2, "Figura " + i, "figura" + i + ".jpg"));
+        }
+
+        List<CatalogImporter.RowResult> results = runToCompletion(new CatalogImporter(backend), rows, backend);
+
+        assertEquals(3, backend.batches.size());
+        assertEquals(500, backend.batches.get(0).size());
+        assertEquals(500, backend.batches.get(1).size());
+        assertEquals(200, backend.batches.get(2).size());
+        assertEquals(1200, backend.stored.size());
+
+        Set<String> ids = new HashSet<>();
+        for (CatalogImporter.RowResult result : results) {
+            assertTrue(result.isSuccess());
+            assertTrue(ids.add(result.getFiguraId()));
+        }
+        Figure figura = backend.stored.get(results.get(0).getFiguraId());
+        assertEquals("Figura 0", figura.getNombre());
+        assertEquals("https://fake/figura0.jpg/original", figura.getImagenUrl());
+        assertEquals("https://fake/figura0.jpg/thumb", figura.getImagenes().get(ImageRenditions.THUMB));
+    }
+
+    @Test
+    public void uploadsNeverExceedParallelLimit() {
+        FakeBackend backend = new FakeBackend();
+        List<CatalogManifest.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(row(i + 2, "Figura " + i, "figura" + i + ".jpg"));
+        }
+
+        runToCompletion(new CatalogImporter(backend, 3, CatalogImporter.MAX_BATCH_SIZE), rows, backend);
+
+        assertEquals(3, backend.maxInFlight);
+        assertEquals(50, backend.uploads);
+    }
+
+    @Test
+    public void reportsEachFailedRow() {
+        FakeBackend backend = new FakeBackend();
+        backend.failingImages.add("rota.jpg");
+        List<CatalogManifest.Row> rows = new ArrayList<>();
+        rows.add(row(2, "Goku", "goku.jpg"));
+        rows.add(new CatalogManifest.Row(3, null, null, 0, null, "El nombre es requerido"));
+        rows.add(row(4, "Vegeta", "rota.jpg"));
+        rows.add(row(5, "Piccolo", null));
+
+        List<CatalogImporter.RowResult> results = runToCompletion(new CatalogImporter(backend), rows, backend);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("El nombre es requerido", results.get(1).getError());
+        assertFalse(results.get(2).isSuccess());
+        assertNull(results.get(2).getFiguraId());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals("", backend.stored.get(results.get(3).getFiguraId()).getImagenUrl());
+        assertEquals(2, backend.stored.size());
+    }
+
+    @Test
+    public void failedBatchFailsOnlyItsRows() {
+        FakeBackend backend = new FakeBackend();
+        backend.failingBatch = 1;
+        List<CatalogManifest.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(row(i + 2, "Figura " + i, null));
+        }
+
+        List<CatalogImporter.RowResult> results = runToCompletion(new CatalogImporter(backend, 4, 2), rows, backend);
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertFalse(results.get(3).isSuccess());
+        assertTrue(results.get(4).isSuccess());
+        assertEquals(3, backend.stored.size());
+    }
+
+    @Test
+    public void completesWhenBackendAnswersSynchronously() {
+        FakeBackend backend = new FakeBackend();
+        backend.synchronous = true;
+        List<CatalogManifest.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(row(i + 2, "Figura " + i, "figura" + i + ".jpg"));
+        }
+
+        List<CatalogImporter.RowResult> results = runToCompletion(new CatalogImporter(backend), rows, backend);
+
+        assertEquals(10, results.size());
+        assertEquals(10, backend.stored.size());
+    }
+
+    @Test
+    public void parsesCsvWithQuotedFields() throws Exception {
+        String csv = "nombre,precio,imagen,descripcion\n"
+                + "Goku,450.5,goku.jpg,\"Figura de 20 cm, con base\"\n"
+                + "\n"
+                + "\"Vegeta \"\"SSJ\"\"\",abc,vegeta.jpg,\n"
+                + ",100,,\n";
+
+        List<CatalogManifest.Row> rows = CatalogManifest.parseCsv(new StringReader(csv));
+
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).isValid());
+        assertEquals(2, rows.get(0).getLine());
+        assertEquals("Figura de 20 cm, con base", rows.get(0).getDescripcion());
+        assertEquals(450.5, rows.get(0).getPrecio(), 0.0001);
+        assertEquals("Vegeta \"SSJ\"", rows.get(1).getNombre());
+        assertNotNull(rows.get(1).getError());
+        assertEquals(5, rows.get(2).getLine());
+        assertNull(rows.get(2).getImagen());
+        assertFalse(rows.get(2).isValid());
+    }
+
+    @Test
+    public void parsesJsonManifest() throws Exception {
+        String json = "{\"figuras\": ["
+                + "{\"nombre\": \"Goku\", \"precio\": 450, \"imagen\": \"goku.jpg\"},"
+                + "{\"nombre\": \"Krilin\", \"precio\": -1}"
+                + "]}";
+
+        List<CatalogManifest.Row> rows = CatalogManifest.parseJson(json);
+
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(0).isValid());
+        assertEquals("goku.jpg", rows.get(0).getImagen());
+        assertFalse(rows.get(1).isValid());
+    }
+
+    private static CatalogManifest.Row row(int line, String nombre, String imagen) {
+        return new CatalogManifest.Row(line, nombre, "", 100, imagen, null);
+    }
+
+    /**
+     * Ejecuta la importación completando las operaciones pendientes del backend una a una
+     */
+    private static List<CatalogImporter.RowResult> runToCompletion(CatalogImporter importer,
+                                                                  List<CatalogManifest.Row> rows,
+                                                                  FakeBackend backend) {
+        List<List<CatalogImporter.RowResult>> completed = new ArrayList<>();
+        importer.importRows(rows, new CatalogImporter.OnImportListener() {
+            @Override
+            public void onProgress(int done, int total) {
+                assertTrue(done <= total);
+            }
+
+            @Override
+            public void onComplete(List<CatalogImporter.RowResult> results) {
+                completed.add(results);
+            }
+        });
+        while (!backend.pending.isEmpty()) {
+            backend.pending.poll().run();
+        }
+        assertEquals(1, completed.size());
+        return completed.get(0);
+    }
+
+    /**
+     * Backend falso: las operaciones quedan en una cola y se completan al vaciarla,
+     * como llegarían los callbacks de Firebase en el hilo principal
+     */
+    private static class FakeBackend implements ImportBackend {
+        final Queue<Runnable> pending = new ArrayDeque<>();
+        final Map<String, Figure> stored = new HashMap<>();
+        final List<Map<String, Figure>> batches = new ArrayList<>();
+        final Set<String> failingImages = new HashSet<>();
+        int failingBatch = -1;
+        boolean synchronous = false;
+        int inFlight = 0;
+        int maxInFlight = 0;
+        int uploads = 0;
+        int nextId = 0;
+
+        @Override
+        public void uploadImage(String imagen, Callback<Map<String, String>> callback) {
+            uploads++;
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            run(() -> {
+                inFlight--;
+                if (failingImages.contains(imagen)) {
+                    callback.onError("falla simulada");
+                    return;
+                }
+                Map<String, String> imagenes = new HashMap<>();
+                imagenes.put(ImageRenditions.THUMB, "https://fake/" + imagen + "/thumb");
+                imagenes.put(ImageRenditions.MEDIUM, "https://fake/" + imagen + "/medium");
+                imagenes.put(ImageRenditions.ORIGINAL, "https://fake/" + imagen + "/original");
+                callback.onSuccess(imagenes);
+            });
+        }
+
+        @Override
+        public String newFiguraId() {
+            return "id" + (nextId++);
+        }
+
+        @Override
+        public void commit(Map<String, Figure> figuras, Callback<Void> callback) {
+            assertTrue(figuras.size() <= CatalogImporter.MAX_BATCH_SIZE);
+            int batchIndex = batches.size();
+            batches.add(new HashMap<>(figuras));
+            run(() -> {
+                if (batchIndex == failingBatch) {
+                    callback.onError("lote rechazado");
+                    return;
+                }
+                stored.putAll(figuras);
+                callback.onSuccess(null);
+            });
+        }
+
+        private void run(Runnable operation) {
+            if (synchronous) {
+                operation.run();
+            } else {
+                pending.add(operation);
+            }
+        }
+    }
+}
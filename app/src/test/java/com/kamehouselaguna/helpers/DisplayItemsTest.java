@@ -0,0 +1,74 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
+import com.kamehouselaguna.models.Notification;
+import com.kamehouselaguna.models.NotificationItem;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pruebas de los textos precalculados de las filas
+ */
+public class DisplayItemsTest {
+
+    @Test
+    public void formatsPriceAndTruncatesDescription() {
+        String larga = String.join("", Collections.nCopies(30, "abcde"));
+        FigureItem item = new DisplayItems().syncFiguras(Arrays.asList(figura("1", 1499.5, larga))).get(0);
+
+        assertTrue(item.getPrecio(), item.getPrecio().contains("1,499.50"));
+        assertEquals(larga.substring(0, DisplayItems.DESCRIPCION_MAX_LENGTH) + "...", item.getDescripcionCorta());
+        assertEquals("corta", DisplayItems.truncate("corta", DisplayItems.DESCRIPCION_MAX_LENGTH));
+        assertNull(DisplayItems.truncate(null, DisplayItems.DESCRIPCION_MAX_LENGTH));
+    }
+
+    @Test
+    public void reusesItemsWhileFigureObjectIsTheSame() {
+        DisplayItems displayItems = new DisplayItems();
+        Figure goku = figura("1", 100, "Goku");
+        Figure vegeta = figura("2", 200, "Vegeta");
+        List<FigureItem> primeros = displayItems.syncFiguras(Arrays.asList(goku, vegeta));
+
+        Figure vegetaEditado = new Figure(vegeta);
+        vegetaEditado.setPrecio(250);
+        List<FigureItem> segundos = displayItems.syncFiguras(Arrays.asList(goku, vegetaEditado));
+
+        assertSame(primeros.get(0), segundos.get(0));
+        assertNotSame(primeros.get(1), segundos.get(1));
+        assertTrue(segundos.get(1).getPrecio().contains("250"));
+        assertSame(segundos.get(0), displayItems.figureItems(Arrays.asList(goku)).get(0));
+    }
+
+    @Test
+    public void formatsNotificationDatesOnce() {
+        DisplayItems displayItems = new DisplayItems();
+        Notification conFecha = new Notification("Título", "Mensaje", "autor", "autor@correo.com");
+        conFecha.setId("1");
+        Notification sinFecha = new Notification();
+        sinFecha.setId("2");
+
+        List<NotificationItem> primeros = displayItems.syncNotificaciones(Arrays.asList(conFecha, sinFecha));
+        List<NotificationItem> segundos = displayItems.syncNotificaciones(Arrays.asList(conFecha, sinFecha));
+
+        assertTrue(primeros.get(0).getFecha().matches("\\d{2}/\\d{2}/\\d{4} \\d{2}:\\d{2}"));
+        assertEquals(DisplayItems.FECHA_NO_DISPONIBLE, primeros.get(1).getFecha());
+        assertSame(primeros.get(0), segundos.get(0));
+    }
+
+    private static Figure figura(String id, double precio, String descripcion) {
+        Figure figura = new Figure("Figura " + id, descripcion, "", precio);
+        figura.setId(id);
+        return figura;
+    }
+}
@@ -0,0 +1,187 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.kamehouselaguna.models.Figure;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pruebas de las operaciones masivas contra un backend falso local
+ */
+public class FigureBulkEditorTest {
+
+    @Test
+    public void deletesSixHundredFigurasInChunks() {
+        FakeBackend backend = new FakeBackend();
+        RecordingListener listener = new RecordingListener();
+
+        new FigureBulkEditor(backend).deleteFiguras(figuras(600, 100), listener);
+
+        int chunks = (600 + FigureBulkEditor.DELETE_CHUNK_SIZE - 1) / FigureBulkEditor.DELETE_CHUNK_SIZE;
+        assertEquals(chunks, backend.chunks.size());
+        int total = 0;
+        for (List<String> chunk : backend.chunks) {
+            assertTrue(chunk.size() <= FigureBulkEditor.DELETE_CHUNK_SIZE);
+            total += chunk.size();
+        }
+        assertEquals(600, total);
+        assertEquals(600, backend.imagesDeleted.size());
+        assertEquals(600, listener.exitosas);
+        assertEquals(0, listener.fallidas);
+        assertNull(listener.error);
+        assertEquals(chunks + 1, listener.progress.size());
+        assertEquals(600, (int) listener.progress.get(chunks));
+    }
+
+    @Test
+    public void splitsPricesIntoTwoChunks() {
+        FakeBackend backend = new FakeBackend();
+        RecordingListener listener = new RecordingListener();
+        int size = FigureBulkEditor.PRICE_CHUNK_SIZE + 10;
+
+        new FigureBulkEditor(backend).adjustPrices(figuras(size, 100), PriceAdjustment.percentage(10), listener);
+
+        assertEquals(2, backend.chunks.size());
+        assertEquals(FigureBulkEditor.PRICE_CHUNK_SIZE, backend.chunks.get(0).size());
+        assertEquals(10, backend.chunks.get(1).size());
+        assertEquals(size, listener.exitosas);
+        assertEquals(0, listener.fallidas);
+    }
+
+    @Test
+    public void failedChunkCountsAsFailedAndContinues() {
+        FakeBackend backend = new FakeBackend();
+        backend.failingChunks.add(1);
+        RecordingListener listener = new RecordingListener();
+
+        new FigureBulkEditor(backend).deleteFiguras(figuras(600, 100), listener);
+
+        int failed = backend.chunks.get(1).size();
+        assertEquals(600 - failed, listener.exitosas);
+        assertEquals(failed, listener.fallidas);
+        assertEquals("lote 1 rechazado", listener.error);
+        // Las imágenes del lote fallido siguen en uso: no se borran
+        assertEquals(600 - failed, backend.imagesDeleted.size());
+        for (String id : backend.chunks.get(1)) {
+            assertFalse(backend.imagesDeleted.contains(id));
+        }
+    }
+
+    @Test
+    public void imageErrorsDoNotFailTheFigura() {
+        FakeBackend backend = new FakeBackend();
+        backend.failImages = true;
+        RecordingListener listener = new RecordingListener();
+
+        new FigureBulkEditor(backend).deleteFiguras(figuras(3, 100), listener);
+
+        assertEquals(3, listener.exitosas);
+        assertEquals(0, listener.fallidas);
+        assertNull(listener.error);
+    }
+
+    @Test
+    public void invalidPricesCountAsFailedAndAreNotSent() {
+        FakeBackend backend = new FakeBackend();
+        RecordingListener listener = new RecordingListener();
+        List<Figure> figuras = new ArrayList<>();
+        figuras.addAll(figuras(2, 50));
+        figuras.add(figura("cara", 150));
+
+        new FigureBulkEditor(backend).adjustPrices(figuras, PriceAdjustment.fixedAmount(-100), listener);
+
+        assertEquals(1, backend.chunks.size());
+        assertEquals(Arrays.asList("cara"), backend.chunks.get(0));
+        assertEquals(1, listener.exitosas);
+        assertEquals(2, listener.fallidas);
+        assertEquals("2 figuras quedarían con precio menor o igual a 0", listener.error);
+        assertEquals(2, (int) listener.progress.get(0));
+    }
+
+    // ========== UTILIDADES ==========
+
+    private static List<Figure> figuras(int count, double precio) {
+        List<Figure> figuras = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            figuras.add(figura("figura" + i, precio));
+        }
+        return figuras;
+    }
+
+    private static Figure figura(String id, double precio) {
+        Figure figura = new Figure("Figura", "", "", precio);
+        figura.setId(id);
+        return figura;
+    }
+
+    // ========== FALSOS ==========
+
+    /**
+     * Responde en el mismo hilo; los lotes se numeran en el orden en que llegan
+     */
+    private static class FakeBackend implements BulkEditBackend {
+        final List<List<String>> chunks = new ArrayList<>();
+        final Set<Integer> failingChunks = new HashSet<>();
+        final Set<String> imagesDeleted = new HashSet<>();
+        boolean failImages;
+
+        @Override
+        public void adjustPrecios(List<String> ids, PriceAdjustment ajuste, Callback callback) {
+            commit(ids, callback);
+        }
+
+        @Override
+        public void deleteFiguras(List<String> ids, Callback callback) {
+            commit(ids, callback);
+        }
+
+        @Override
+        public void deleteImages(Figure figura, Callback callback) {
+            if (failImages) {
+                callback.onError("sin permiso");
+                return;
+            }
+            imagesDeleted.add(figura.getId());
+            callback.onSuccess();
+        }
+
+        private void commit(List<String> ids, Callback callback) {
+            int index = chunks.size();
+            chunks.add(new ArrayList<>(ids));
+            if (failingChunks.contains(index)) {
+                callback.onError("lote " + index + " rechazado");
+            } else {
+                callback.onSuccess();
+            }
+        }
+    }
+
+    private static class RecordingListener implements FigureBulkEditor.OnBulkOperationListener {
+        final List<Integer> progress = new ArrayList<>();
+        int exitosas = -1;
+        int fallidas = -1;
+        String error;
+
+        @Override
+        public void onProgress(int completed, int total) {
+            progress.add(completed);
+        }
+
+        @Override
+        public void onComplete(int exitosas, int fallidas, String error) {
+            this.exitosas = exitosas;
+            this.fallidas = fallidas;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.ImageRenditions;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Pruebas del recolector de imágenes huérfanas contra un listado falso de Storage
+ */
+public class OrphanImageCollectorTest {
+    private static final long NOW = 1_000_000_000L;
+    private static final long OLD = NOW - OrphanImageCollector.DEFAULT_GRACE_PERIOD_MS - 1;
+    private static final String BASE = "https://firebasestorage.googleapis.com/v0/b/kame.appspot.com/o/";
+
+    @Test
+    public void dryRunReportsOrphansWithoutDeleting() {
+        FakeListing listing = new FakeListing(2);
+        listing.put("figuras/a_original.jpg", OLD);
+        listing.put("figuras/a_thumb.jpg", OLD);
+        listing.put("figuras/vieja.jpg", OLD);
+        listing.put("figuras/subiendo.jpg", NOW - 1000);
+        listing.put("figuras/b.jpg", OLD);
+
+        OrphanImageCollector.Report report = run(listing, true,
+                figura(url("figuras/a_original.jpg"), url("figuras/a_thumb.jpg")),
+                figura(url("figuras/b.jpg"), null));
+
+        assertTrue(report.isDryRun());
+        assertEquals(5, report.getScanned());
+        assertEquals(3, report.getReferenced());
+        assertEquals(Arrays.asList("figuras/vieja.jpg"), report.getOrphans());
+        assertEquals(Arrays.asList("figuras/subiendo.jpg"), report.getRecent());
+        assertTrue(listing.deleted.isEmpty());
+        assertEquals(3, listing.pagesListed);
+    }
+
+    @Test
+    public void deletesOnlyOldOrphans() {
+        FakeListing listing = new FakeListing(100);
+        listing.put("figuras/usada.jpg", OLD);
+        listing.put("figuras/huerfana1.jpg", OLD);
+        listing.put("figuras/huerfana2.jpg", OLD);
+        listing.put("figuras/nueva.jpg", NOW);
+
+        OrphanImageCollector.Report report = run(listing, false, figura(url("figuras/usada.jpg"), null));
+
+        assertEquals(new HashSet<>(Arrays.asList("figuras/huerfana1.jpg", "figuras/huerfana2.jpg")), listing.deleted);
+        assertEquals(2, report.getOrphans().size());
+        assertTrue(listing.files.containsKey("figuras/usada.jpg"));
+        assertTrue(listing.files.containsKey("figuras/nueva.jpg"));
+    }
+
+    @Test
+    public void deletesWithBoundedParallelism() {
+        FakeListing listing = new FakeListing(10);
+        for (int i = 0; i < 40; i++) {
+            listing.put("figuras/huerfana" + i + ".jpg", OLD);
+        }
+
+        OrphanImageCollector collector = new OrphanImageCollector(listing, 3,
+                OrphanImageCollector.DEFAULT_GRACE_PERIOD_MS, () -> NOW);
+        OrphanImageCollector.Report report = run(collector, listing, false);
+
+        assertEquals(40, report.getOrphans().size());
+        assertEquals(3, listing.maxInFlight);
+    }
+
+    @Test
+    public void listingErrorDeletesNothing() {
+        FakeListing listing = new FakeListing(1);
+        listing.put("figuras/huerfana1.jpg", OLD);
+        listing.put("figuras/huerfana2.jpg", OLD);
+        listing.failOnPage = 1;
+
+        List<String> errores = new ArrayList<>();
+        new OrphanImageCollector(listing, 8, OrphanImageCollector.DEFAULT_GRACE_PERIOD_MS, () -> NOW)
+                .collect(new ArrayList<>(), false, new OrphanImageCollector.OnCollectListener() {
+                    @Override
+                    public void onComplete(OrphanImageCollector.Report report) {
+                        throw new AssertionError("No debe completarse");
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        errores.add(error);
+                    }
+                });
+        listing.drain();
+
+        assertEquals(1, errores.size());
+        assertTrue(listing.deleted.isEmpty());
+    }
+
+    @Test
+    public void failedDeleteIsReported() {
+        FakeListing listing = new FakeListing(10);
+        listing.put("figuras/huerfana.jpg", OLD);
+        listing.failingDeletes.add("figuras/huerfana.jpg");
+
+        OrphanImageCollector.Report report = run(listing, false);
+
+        assertTrue(report.getOrphans().isEmpty());
+        assertEquals(1, report.getFailures().size());
+    }
+
+    @Test
+    public void pathFromUrlHandlesDownloadAndGsUrls() {
+        assertEquals("figuras/figura_1 a_thumb.jpg",
+                OrphanImageCollector.pathFromUrl(BASE + "figuras%2Ffigura_1%20a_thumb.jpg?alt=media&token=abc"));
+        assertEquals("figuras/x.jpg", OrphanImageCollector.pathFromUrl("gs://kame.appspot.com/figuras/x.jpg"));
+        assertNull(OrphanImageCollector.pathFromUrl("https://example.com/x.jpg"));
+        assertNull(OrphanImageCollector.pathFromUrl(""));
+        assertFalse(OrphanImageCollector.referencedPaths(Arrays.asList(figura(null, null))).iterator().hasNext());
+    }
+
+    private static String url(String path) {
+        return BASE + path.replace("/", "%2F") + "?alt=media&token=t";
+    }
+
+    private static Figure figura(String original, String thumb) {
+        Figure figura = new Figure("Figura", "", original, 100);
+        Map<String, String> imagenes = new HashMap<>();
+        if (original != null) {
+            imagenes.put(ImageRenditions.ORIGINAL, original);
+        }
+        if (thumb != null) {
+            imagenes.put(ImageRenditions.THUMB, thumb);
+        }
+        figura.setImagenes(imagenes);
+        return figura;
+    }
+
+    private static OrphanImageCollector.Report run(FakeListing listing, boolean dryRun, Figure... catalogo) {
+        OrphanImageCollector collector = new OrphanImageCollector(listing,
+                OrphanImageCollector.DEFAULT_PARALLEL_DELETES, OrphanImageCollector.DEFAULT_GRACE_PERIOD_MS, () -> NOW);
+        return run(collector, listing, dryRun, catalogo);
+    }
+
+    private static OrphanImageCollector.Report run(OrphanImageCollector collector, FakeListing listing,
+                                                   boolean dryRun, Figure... catalogo) {
+        List<OrphanImageCollector.Report> reports = new ArrayList<>();
+        collector.collect(Arrays.asList(catalogo), dryRun, new OrphanImageCollector.OnCollectListener() {
+            @Override
+            public void onComplete(OrphanImageCollector.Report report) {
+                reports.add(report);
+            }
+
+            @Override
+            public void onError(String error) {
+                throw new AssertionError(error);
+            }
+        });
+        listing.drain();
+        assertEquals(1, reports.size());
+        return reports.get(0);
+    }
+
+    /**
+     * Carpeta falsa en memoria; las respuestas quedan en cola como los callbacks de Firebase
+     */
+    private static class FakeListing implements StorageListing {
+        final Map<String, Long> files = new LinkedHashMap<>();
+        final Set<String> deleted = new HashSet<>();
+        final Set<String> failingDeletes = new HashSet<>();
+        final Queue<Runnable> pending = new ArrayDeque<>();
+        final int pageSize;
+        int failOnPage = -1;
+        int pagesListed = 0;
+        int inFlight = 0;
+        int maxInFlight = 0;
+
+        FakeListing(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        void put(String path, long updatedTime) {
+            files.put(path, updatedTime);
+        }
+
+        void drain() {
+            while (!pending.isEmpty()) {
+                pending.poll().run();
+            }
+        }
+
+        @Override
+        public void list(String pageToken, Callback<Page> callback) {
+            int page = pagesListed++;
+            pending.add(() -> {
+                if (page == failOnPage) {
+                    callback.onError("listado interrumpido");
+                    return;
+                }
+                int start = pageToken == null ? 0 : Integer.parseInt(pageToken);
+                List<String> paths = new ArrayList<>(files.keySet());
+                int end = Math.min(start + pageSize, paths.size());
+                callback.onSuccess(new Page(new ArrayList<>(paths.subList(start, end)),
+                        end < paths.size() ? String.valueOf(end) : null));
+            });
+        }
+
+        @Override
+        public void getUpdatedTimeMillis(String path, Callback<Long> callback) {
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            pending.add(() -> {
+                inFlight--;
+                callback.onSuccess(files.get(path));
+            });
+        }
+
+        @Override
+        public void delete(String path, Callback<Void> callback) {
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            pending.add(() -> {
+                inFlight--;
+                if (failingDeletes.contains(path)) {
+                    callback.onError("permiso denegado");
+                    return;
+                }
+                files.remove(path);
+                deleted.add(path);
+                callback.onSuccess(null);
+            });
+        }
+    }
+}
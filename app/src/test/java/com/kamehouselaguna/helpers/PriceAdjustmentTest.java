@@ -0,0 +1,44 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Pruebas del cálculo de ajustes de precio masivos
+ */
+public class PriceAdjustmentTest {
+
+    @Test
+    public void percentageRoundsToCents() {
+        assertEquals(109.99, PriceAdjustment.percentage(10).apply(99.99), 0);
+        assertEquals(6.67, PriceAdjustment.percentage(-33.333).apply(10), 0);
+        assertEquals(250, PriceAdjustment.percentage(0).apply(250), 0);
+    }
+
+    @Test
+    public void negativePercentageLowersPrice() {
+        assertEquals(170, PriceAdjustment.percentage(-15).apply(200), 0);
+        assertEquals(0, PriceAdjustment.percentage(-100).apply(50), 0);
+        assertTrue(PriceAdjustment.percentage(-150).apply(50) < 0);
+    }
+
+    @Test
+    public void fixedAmountAddsAndRounds() {
+        // 0.1 + 0.2 en double no es 0.3; el redondeo a centavos lo corrige
+        assertEquals(0.3, PriceAdjustment.fixedAmount(0.1).apply(0.2), 0);
+        assertEquals(149.5, PriceAdjustment.fixedAmount(-50.49).apply(199.99), 0);
+        assertEquals(-0.01, PriceAdjustment.fixedAmount(-50).apply(49.99), 0);
+    }
+
+    @Test
+    public void onlyPositivePricesAreValid() {
+        assertTrue(PriceAdjustment.isValidPrice(0.01));
+        assertTrue(PriceAdjustment.isValidPrice(1500));
+        assertFalse(PriceAdjustment.isValidPrice(0));
+        assertFalse(PriceAdjustment.isValidPrice(-0.01));
+        assertFalse(PriceAdjustment.isValidPrice(PriceAdjustment.percentage(-100).apply(50)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.kamehouselaguna.models.Figure;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pruebas del índice de precios para filtrar y ordenar el catálogo
+ */
+public class PriceIndexTest {
+
+    @Test
+    public void filtersInclusiveRangeInEachOrder() {
+        PriceIndex index = new PriceIndex();
+        index.sync(Arrays.asList(
+                figura("a", "Vegeta", 300),
+                figura("b", "Goku", 100),
+                figura("c", "Éxodo", 200),
+                figura("d", "Bulma", 200),
+                figura("e", "Cell", 500)));
+
+        assertEquals(100, index.getMinPrice(), 0);
+        assertEquals(500, index.getMaxPrice(), 0);
+        assertEquals(ids("a", "c", "d"), ids(index.query(200, 300, PriceIndex.Sort.NEWEST)));
+        assertEquals(ids("c", "d", "a"), ids(index.query(200, 300, PriceIndex.Sort.PRICE_ASC)));
+        assertEquals(ids("a", "d", "c"), ids(index.query(200, 300, PriceIndex.Sort.PRICE_DESC)));
+        assertEquals(ids("d", "c", "a"), ids(index.query(200, 300, PriceIndex.Sort.NAME)));
+        assertTrue(index.query(301, 499, PriceIndex.Sort.NEWEST).isEmpty());
+        assertEquals(5, index.query(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, PriceIndex.Sort.NEWEST).size());
+    }
+
+    @Test
+    public void syncMovesChangedPricesAndDropsRemovedFigures() {
+        PriceIndex index = new PriceIndex();
+        Figure goku = figura("1", "Goku", 100);
+        Figure vegeta = figura("2", "Vegeta", 200);
+        Figure gohan = figura("3", "Gohan", 300);
+        index.sync(Arrays.asList(goku, vegeta, gohan));
+
+        Figure gokuEditado = new Figure(goku);
+        gokuEditado.setPrecio(400);
+        Figure piccolo = figura("4", "Piccolo", 50);
+        index.sync(Arrays.asList(piccolo, gokuEditado, gohan));
+
+        assertEquals(3, index.size());
+        assertEquals(ids("4", "3", "1"), ids(index.query(0, 1000, PriceIndex.Sort.PRICE_ASC)));
+        assertEquals(ids("4", "1", "3"), ids(index.query(0, 1000, PriceIndex.Sort.NEWEST)));
+        assertEquals(400, index.getMaxPrice(), 0);
+    }
+
+    @Test
+    public void filterKeepsReceivedOrderForNewest() {
+        PriceIndex index = new PriceIndex();
+        List<Figure> catalogo = Arrays.asList(
+                figura("1", "Goku", 100),
+                figura("2", "Vegeta", 200),
+                figura("3", "Gohan", 300));
+        index.sync(catalogo);
+
+        List<Figure> relevancia = Arrays.asList(catalogo.get(2), catalogo.get(0), catalogo.get(1));
+        assertEquals(ids("3", "1", "2"), ids(index.filter(relevancia, 0, 300, PriceIndex.Sort.NEWEST)));
+        assertEquals(ids("1", "2"), ids(index.filter(relevancia, 0, 250, PriceIndex.Sort.PRICE_ASC)));
+    }
+
+    @Test
+    public void incrementalSyncMatchesFullSort() {
+        Random random = new Random(7);
+        List<Figure> catalogo = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            catalogo.add(figura("id" + i, "Figura " + i, random.nextInt(50) * 10));
+        }
+        PriceIndex index = new PriceIndex();
+        index.sync(catalogo);
+
+        for (int ronda = 0; ronda < 20; ronda++) {
+            for (int i = 0; i < 10; i++) {
+                int posicion = random.nextInt(catalogo.size());
+                Figure editada = new Figure(catalogo.get(posicion));
+                editada.setPrecio(random.nextInt(50) * 10);
+                catalogo.set(posicion, editada);
+            }
+            catalogo.remove(random.nextInt(catalogo.size()));
+            catalogo.add(0, figura("nueva" + ronda, "Nueva " + ronda, random.nextInt(50) * 10));
+            index.sync(catalogo);
+
+            List<Figure> esperadas = new ArrayList<>();
+            for (Figure figura : catalogo) {
+                if (figura.getPrecio() >= 100 && figura.getPrecio() <= 300) {
+                    esperadas.add(figura);
+                }
+            }
+            esperadas.sort(Comparator.comparingDouble(Figure::getPrecio).thenComparing(Figure::getId));
+            assertEquals(ids(esperadas), ids(index.query(100, 300, PriceIndex.Sort.PRICE_ASC)));
+            assertEquals(catalogo.size(), index.size());
+        }
+    }
+
+    private static Figure figura(String id, String nombre, double precio) {
+        Figure figura = new Figure(nombre, "", "", precio);
+        figura.setId(id);
+        return figura;
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> ids(List<Figure> figuras) {
+        List<String> ids = new ArrayList<>();
+        for (Figure figura : figuras) {
+            ids.add(figura.getId());
+        }
+        return ids;
+    }
+}
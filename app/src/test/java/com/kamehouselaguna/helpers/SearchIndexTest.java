@@ -0,0 +1,135 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.kamehouselaguna.models.Figure;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Pruebas del índice de búsqueda local
+ */
+public class SearchIndexTest {
+    private static final String[] PERSONAJES = {"Goku", "Vegeta", "Gohan", "Piccolo", "Trunks", "Bulma",
+            "Krilin", "Freezer", "Cell", "Majin Boo", "Bardock", "Broly", "Android 18", "Ten Shin Han"};
+    private static final String[] VARIANTES = {"Super Saiyajin", "Edición limitada", "Versión niño",
+            "Ultra Instinto", "Armadura", "Pequeño", "Clásico", "Batalla"};
+    private static final String[] DESCRIPCIONES = {"Figura articulada de colección con base",
+            "Estatua de resina pintada a mano", "Incluye accesorios y manos intercambiables",
+            "Edición japonesa con caja original", "Tamaño mediano, ideal para exhibición"};
+
+    @Test
+    public void foldsAccentsAndCase() {
+        assertArrayEquals(new String[]{"edicion", "limitada", "pequeno", "18"},
+                SearchIndex.tokenize("Edición LIMITADA: Pequeño #18"));
+    }
+
+    @Test
+    public void matchesPrefixesOfAllWords() {
+        SearchIndex index = new SearchIndex();
+        index.sync(Arrays.asList(
+                figura("1", "Goku Super Saiyajin", "Figura articulada"),
+                figura("2", "Vegeta Super Saiyajin", "Edición limitada"),
+                figura("3", "Gohan", "Versión niño")));
+
+        assertEquals(ids("1"), ids(index.search("gok sup")));
+        assertEquals(ids("2"), ids(index.search("EDICION")));
+        assertEquals(ids("3"), ids(index.search("nino")));
+        assertTrue(index.search("goku vegeta").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+
+    @Test
+    public void ranksNameMatchesBeforeDescriptionMatches() {
+        SearchIndex index = new SearchIndex();
+        index.sync(Arrays.asList(
+                figura("desc", "Vegeta", "Rival de Goku"),
+                figura("prefijo", "Gokuzilla", "Parodia"),
+                figura("nombre", "Goku", "Clásico")));
+
+        assertEquals(ids("nombre", "prefijo", "desc"), ids(index.search("goku")));
+    }
+
+    @Test
+    public void tiesKeepCatalogOrder() {
+        SearchIndex index = new SearchIndex();
+        index.sync(Arrays.asList(
+                figura("b", "Goku Clásico", ""),
+                figura("a", "Goku Batalla", "")));
+
+        assertEquals(ids("b", "a"), ids(index.search("goku")));
+    }
+
+    @Test
+    public void syncReindexesChangedAndDropsRemovedFigures() {
+        SearchIndex index = new SearchIndex();
+        Figure goku = figura("1", "Goku", "");
+        Figure vegeta = figura("2", "Vegeta", "");
+        index.sync(Arrays.asList(goku, vegeta));
+
+        Figure gokuEditado = new Figure(goku);
+        gokuEditado.setNombre("Kakaroto");
+        index.sync(Arrays.asList(gokuEditado));
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("goku").isEmpty());
+        assertTrue(index.search("vegeta").isEmpty());
+        assertEquals(ids("1"), ids(index.search("kaka")));
+    }
+
+    @Test
+    public void searchOnTenThousandFiguresMatchesLinearScan() {
+        List<Figure> catalogo = syntheticCatalog(10_000);
+        SearchIndex index = new SearchIndex();
+        index.sync(catalogo);
+
+        // El tiempo de búsqueda se mide en SearchBenchmark (módulo benchmark), no aquí
+        for (String termino : new String[]{"goku", "resina", "xyz"}) {
+            Set<String> esperados = new HashSet<>();
+            for (Figure figura : catalogo) {
+                if (SearchIndex.fold(figura.getNombre() + " " + figura.getDescripcion()).contains(termino)) {
+                    esperados.add(figura.getId());
+                }
+            }
+            assertEquals(termino, esperados, new HashSet<>(ids(index.search(termino))));
+        }
+    }
+
+    static List<Figure> syntheticCatalog(int size) {
+        Random random = new Random(42);
+        List<Figure> catalogo = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String nombre = PERSONAJES[random.nextInt(PERSONAJES.length)] + " "
+                    + VARIANTES[random.nextInt(VARIANTES.length)] + " " + i;
+            catalogo.add(figura("id" + i, nombre, DESCRIPCIONES[random.nextInt(DESCRIPCIONES.length)]));
+        }
+        return catalogo;
+    }
+
+    private static Figure figura(String id, String nombre, String descripcion) {
+        Figure figura = new Figure(nombre, descripcion, "", 100);
+        figura.setId(id);
+        return figura;
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> ids(List<Figure> figuras) {
+        List<String> ids = new ArrayList<>();
+        for (Figure figura : figuras) {
+            ids.add(figura.getId());
+        }
+        return ids;
+    }
+}
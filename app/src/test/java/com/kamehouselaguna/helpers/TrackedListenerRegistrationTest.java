@@ -0,0 +1,124 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Pruebas de la cuenta de listeners activos con registros de Firestore falsos
+ * La cuenta es de todo el proceso, así que se compara contra la del inicio de cada prueba
+ */
+public class TrackedListenerRegistrationTest {
+    private int baseline;
+
+    @Before
+    public void setUp() {
+        baseline = TrackedListenerRegistration.getActiveCount();
+    }
+
+    @Test
+    public void attachAndRemoveLeaveCountAtZero() {
+        FakeRegistration delegate = new FakeRegistration();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(delegate);
+        assertEquals(baseline + 1, TrackedListenerRegistration.getActiveCount());
+
+        registration.remove();
+
+        assertEquals(baseline, TrackedListenerRegistration.getActiveCount());
+        assertFalse(registration.isActive());
+        assertEquals(1, delegate.removes);
+    }
+
+    @Test
+    public void doubleRemoveCountsOnce() {
+        FakeRegistration delegate = new FakeRegistration();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(delegate);
+
+        registration.remove();
+        registration.remove();
+
+        assertEquals(baseline, TrackedListenerRegistration.getActiveCount());
+        assertEquals(1, delegate.removes);
+    }
+
+    @Test
+    public void removeBeforeAttachRemovesDelegateOnAttach() {
+        FakeRegistration delegate = new FakeRegistration();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+
+        registration.remove();
+        registration.attach(delegate);
+
+        assertEquals(baseline, TrackedListenerRegistration.getActiveCount());
+        assertEquals(1, delegate.removes);
+    }
+
+    @Test
+    public void onDestroyRemovesBoundRegistration() {
+        TestOwner owner = new TestOwner();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        FakeRegistration delegate = new FakeRegistration();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(delegate);
+        registration.bindTo(owner);
+        assertTrue(registration.isActive());
+
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        assertEquals(baseline, TrackedListenerRegistration.getActiveCount());
+        assertFalse(registration.isActive());
+        assertEquals(1, delegate.removes);
+        assertEquals(0, owner.registry.getObserverCount());
+    }
+
+    @Test
+    public void bindToDestroyedOwnerRemovesImmediately() {
+        TestOwner owner = new TestOwner();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        FakeRegistration delegate = new FakeRegistration();
+        TrackedListenerRegistration registration = new TrackedListenerRegistration();
+        registration.attach(delegate);
+
+        registration.bindTo(owner);
+
+        assertEquals(baseline, TrackedListenerRegistration.getActiveCount());
+        assertEquals(1, delegate.removes);
+    }
+
+    // ========== FALSOS ==========
+
+    private static class FakeRegistration implements ListenerRegistration {
+        int removes;
+
+        @Override
+        public void remove() {
+            removes++;
+        }
+    }
+
+    /**
+     * Dueño con un ciclo de vida que se avanza a mano, sin comprobar el hilo principal
+     */
+    private static class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = LifecycleRegistry.createUnsafe(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
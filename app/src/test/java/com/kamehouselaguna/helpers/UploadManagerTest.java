@@ -0,0 +1,305 @@
+package com.kamehouselaguna.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruebas del gestor de subidas contra un almacenamiento falso local
+ */
+public class UploadManagerTest {
+    private static final String PATH = "figuras/figura_1_original.jpg";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeBackend backend;
+    private FakeStore store;
+    private FakeScheduler scheduler;
+    private UploadManager manager;
+    private RecordingListener listener;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = new FakeBackend();
+        store = new FakeStore();
+        scheduler = new FakeScheduler();
+        manager = new UploadManager(backend, store, scheduler);
+        listener = new RecordingListener();
+        file = folder.newFile("figura.jpg");
+    }
+
+    @Test
+    public void backoffDoublesFromOneSecondUpToCap() {
+        assertEquals(1000, UploadManager.backoffFor(1));
+        assertEquals(2000, UploadManager.backoffFor(2));
+        assertEquals(4000, UploadManager.backoffFor(3));
+        assertEquals(32_000, UploadManager.backoffFor(6));
+        assertEquals(60_000, UploadManager.backoffFor(7));
+        assertEquals(60_000, UploadManager.backoffFor(40));
+    }
+
+    @Test
+    public void retriesWithBackoffThenWaitsForConnection() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+        for (int i = 1; i < UploadManager.MAX_ATTEMPTS; i++) {
+            backend.last().callback.onSession("sesion-1");
+            backend.last().callback.onFailure("sin red", true, false);
+            assertEquals(UploadManager.backoffFor(i), scheduler.nextDelay());
+            scheduler.runNext();
+        }
+        backend.last().callback.onFailure("sin red", true, false);
+
+        // Agotados los intentos la subida no falla: queda guardada hasta que vuelva la red
+        assertEquals(UploadManager.MAX_ATTEMPTS, backend.calls.size());
+        assertTrue(scheduler.tasks.isEmpty());
+        assertEquals(2, scheduler.resumeRequests);
+        assertNull(listener.error);
+        assertTrue(manager.isPending(PATH));
+        assertTrue(manager.hasWaitingJobs());
+        assertTrue(file.exists());
+        boolean[] idle = {false};
+        manager.whenIdle(() -> idle[0] = true);
+        assertTrue(idle[0]);
+
+        manager.resumePending();
+        assertEquals(UploadManager.MAX_ATTEMPTS + 1, backend.calls.size());
+        assertEquals("sesion-1", backend.last().sessionUri);
+        backend.last().callback.onFailure("sin red", true, false);
+        assertEquals(UploadManager.backoffFor(1), scheduler.nextDelay());
+    }
+
+    @Test
+    public void failsImmediatelyOnPermanentError() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+        boolean[] idle = {false};
+        manager.whenIdle(() -> idle[0] = true);
+        assertFalse(idle[0]);
+
+        backend.last().callback.onFailure("sin permiso", false, false);
+
+        assertEquals(1, backend.calls.size());
+        assertEquals("sin permiso", listener.error);
+        assertEquals(1, scheduler.resumeRequests);
+        assertFalse(manager.isPending(PATH));
+        assertFalse(file.exists());
+        assertTrue(idle[0]);
+    }
+
+    @Test
+    public void enqueueSchedulesResumeForProcessDeath() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+
+        // La subida guardada siempre tiene una reanudación programada detrás
+        assertEquals(1, scheduler.resumeRequests);
+        assertTrue(store.jobs.containsKey(PATH));
+    }
+
+    @Test
+    public void retryReusesStoredSession() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+        backend.last().callback.onSession("sesion-1");
+        backend.last().callback.onProgress(512, 2048);
+        backend.last().callback.onFailure("sin red", true, false);
+        scheduler.runNext();
+
+        assertEquals("sesion-1", backend.last().sessionUri);
+        backend.last().callback.onSuccess("https://descarga");
+        assertEquals("https://descarga", listener.downloadUrl);
+        assertEquals(512, listener.bytesTransferred);
+        assertTrue(store.jobs.isEmpty());
+    }
+
+    @Test
+    public void expiredSessionRestartsFromZero() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+        backend.last().callback.onSession("sesion-1");
+        backend.last().callback.onFailure("sesión vencida", true, true);
+        scheduler.runNext();
+
+        assertNull(backend.last().sessionUri);
+    }
+
+    @Test
+    public void resumesPendingUploadAfterProcessDeath() {
+        manager.enqueue(file, PATH, "image/jpeg", "figura1|original", listener);
+        backend.last().callback.onSession("sesion-1");
+        // El proceso muere con la subida en curso: solo queda lo guardado en el store
+
+        FakeBackend nuevoBackend = new FakeBackend();
+        UploadManager nuevo = new UploadManager(nuevoBackend, store, new FakeScheduler());
+        List<String> terminadas = new ArrayList<>();
+        nuevo.setOnJobFinishedListener((tag, downloadUrl, error) -> terminadas.add(tag + "=" + downloadUrl));
+        assertTrue(nuevo.isPending(PATH));
+
+        nuevo.resumePending();
+        assertEquals(1, nuevoBackend.calls.size());
+        assertEquals(PATH, nuevoBackend.last().path);
+        assertEquals("sesion-1", nuevoBackend.last().sessionUri);
+
+        nuevoBackend.last().callback.onSuccess("https://descarga");
+        assertEquals(Arrays.asList("figura1|original=https://descarga"), terminadas);
+        assertFalse(nuevo.isPending(PATH));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void discardInFlightDeletesWhatFinishesUploading() {
+        manager.enqueue(file, PATH, "image/jpeg", "figura1|original", listener);
+        List<String> terminadas = new ArrayList<>();
+        manager.setOnJobFinishedListener((tag, downloadUrl, error) -> terminadas.add(tag));
+        backend.last().callback.onSession("sesion-1");
+
+        manager.discard(PATH);
+        assertFalse(manager.isPending(PATH));
+        backend.last().callback.onSuccess("https://descarga");
+
+        assertEquals(Arrays.asList(PATH), backend.deleted);
+        assertTrue(terminadas.isEmpty());
+        assertNull(listener.downloadUrl);
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void discardDuringBackoffStopsRetries() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+        backend.last().callback.onFailure("sin red", true, false);
+
+        manager.discard(PATH);
+        scheduler.runNext();
+
+        assertEquals(1, backend.calls.size());
+        assertTrue(store.jobs.isEmpty());
+        assertFalse(file.exists());
+        assertNull(listener.error);
+    }
+
+    @Test
+    public void discardFinishedUploadDeletesIt() {
+        manager.enqueue(file, PATH, "image/jpeg", null, listener);
+        backend.last().callback.onSuccess("https://descarga");
+
+        manager.discard(PATH);
+
+        assertEquals(Arrays.asList(PATH), backend.deleted);
+    }
+
+    // ========== FALSOS ==========
+
+    private static class FakeBackend implements UploadBackend {
+        final List<Call> calls = new ArrayList<>();
+        final List<String> deleted = new ArrayList<>();
+
+        @Override
+        public void upload(String path, File file, String contentType, String sessionUri, Callback callback) {
+            calls.add(new Call(path, sessionUri, callback));
+        }
+
+        @Override
+        public void delete(String path) {
+            deleted.add(path);
+        }
+
+        Call last() {
+            return calls.get(calls.size() - 1);
+        }
+    }
+
+    private static class Call {
+        final String path;
+        final String sessionUri;
+        final UploadBackend.Callback callback;
+
+        Call(String path, String sessionUri, UploadBackend.Callback callback) {
+            this.path = path;
+            this.sessionUri = sessionUri;
+            this.callback = callback;
+        }
+    }
+
+    private static class FakeStore implements UploadJobStore {
+        final Map<String, String> jobs = new HashMap<>();
+
+        @Override
+        public void put(String path, String job) {
+            jobs.put(path, job);
+        }
+
+        @Override
+        public void remove(String path) {
+            jobs.remove(path);
+        }
+
+        @Override
+        public boolean contains(String path) {
+            return jobs.containsKey(path);
+        }
+
+        @Override
+        public Map<String, String> getAll() {
+            return new HashMap<>(jobs);
+        }
+    }
+
+    private static class FakeScheduler implements UploadScheduler {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+        int resumeRequests;
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            tasks.add(task);
+            delays.add(delayMs);
+        }
+
+        @Override
+        public void resumeWhenConnected() {
+            resumeRequests++;
+        }
+
+        long nextDelay() {
+            return delays.get(0);
+        }
+
+        void runNext() {
+            delays.remove(0);
+            tasks.remove(0).run();
+        }
+    }
+
+    private static class RecordingListener implements UploadManager.OnUploadListener {
+        long bytesTransferred;
+        String downloadUrl;
+        String error;
+
+        @Override
+        public void onProgress(long bytesTransferred, long totalBytes) {
+            this.bytesTransferred = bytesTransferred;
+        }
+
+        @Override
+        public void onSuccess(String downloadUrl) {
+            this.downloadUrl = downloadUrl;
+        }
+
+        @Override
+        public void onError(String error) {
+            this.error = error;
+        }
+    }
+}
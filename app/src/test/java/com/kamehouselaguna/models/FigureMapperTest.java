@@ -0,0 +1,88 @@
+package com.kamehouselaguna.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pruebas del cálculo de campos modificados al editar una figura
+ */
+public class FigureMapperTest {
+
+    @Test
+    public void unchangedFiguraHasNoChanges() {
+        Figure original = figura();
+
+        assertTrue(FigureMapper.diff(original, new Figure(original)).isEmpty());
+    }
+
+    @Test
+    public void datesAreIgnored() {
+        Figure original = figura();
+        Figure editada = new Figure(original);
+        editada.setFechaCreacion(new Date(0));
+        editada.setFechaActualizacion(new Date());
+
+        assertTrue(FigureMapper.diff(original, editada).isEmpty());
+    }
+
+    @Test
+    public void detectsEachEditableField() {
+        Figure original = figura();
+
+        Figure editada = new Figure(original);
+        editada.setNombre("Vegeta");
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_NOMBRE, "Vegeta"),
+                FigureMapper.diff(original, editada));
+
+        editada = new Figure(original);
+        editada.setDescripcion("Edición limitada");
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_DESCRIPCION, "Edición limitada"),
+                FigureMapper.diff(original, editada));
+
+        editada = new Figure(original);
+        editada.setPrecio(1299.5);
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_PRECIO, 1299.5),
+                FigureMapper.diff(original, editada));
+
+        editada = new Figure(original);
+        editada.setImagenUrl("https://nueva/original.jpg");
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_IMAGEN_URL, "https://nueva/original.jpg"),
+                FigureMapper.diff(original, editada));
+
+        editada = new Figure(original);
+        Map<String, String> imagenes = new HashMap<>(original.getImagenes());
+        imagenes.put(ImageRenditions.THUMB, "https://nueva/thumb.jpg");
+        editada.setImagenes(imagenes);
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_IMAGENES, imagenes),
+                FigureMapper.diff(original, editada));
+
+        editada = new Figure(original);
+        editada.setImagenesPendientes(ImageRenditions.COUNT);
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_IMAGENES_PENDIENTES, ImageRenditions.COUNT),
+                FigureMapper.diff(original, editada));
+
+        editada = new Figure(original);
+        editada.setImagenError(false);
+        assertEquals(Collections.singletonMap(FigureMapper.FIELD_IMAGEN_ERROR, false),
+                FigureMapper.diff(original, editada));
+    }
+
+    private static Figure figura() {
+        Figure figura = new Figure("Goku", "Super Saiyajin", "https://figura/original.jpg", 999.99);
+        figura.setId("figura1");
+        Map<String, String> imagenes = new HashMap<>();
+        imagenes.put(ImageRenditions.ORIGINAL, "https://figura/original.jpg");
+        imagenes.put(ImageRenditions.THUMB, "https://figura/thumb.jpg");
+        figura.setImagenes(imagenes);
+        figura.setImagenesPendientes(1);
+        figura.setImagenError(true);
+        return figura;
+    }
+}
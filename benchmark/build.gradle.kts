@@ -0,0 +1,49 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Las clases medidas se compilan directamente desde el módulo app, que es una aplicación
+// Android y no se puede usar como dependencia en la JVM; solo se incluyen las que no usan Android
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/kamehouselaguna/models/**",
+                "com/kamehouselaguna/helpers/CatalogCodec.java",
+                "com/kamehouselaguna/helpers/DisplayItems.java",
+                "com/kamehouselaguna/helpers/ListChange.java",
+                "com/kamehouselaguna/helpers/LocalCatalog.java",
+                "com/kamehouselaguna/helpers/PriceIndex.java",
+                "com/kamehouselaguna/helpers/SearchIndex.java",
+                "com/kamehouselaguna/helpers/SnapshotModel.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    // Mapper por reflexión de Firestore, la línea base de SnapshotMappingBenchmark; el SDK de Android
+    // es un AAR y no se puede usar en la JVM
+    jmh(libs.google.cloud.firestore)
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // JSON para comparar resultados entre builds
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
@@ -0,0 +1,18 @@
+package com.google.cloud.firestore;
+
+import java.util.Map;
+
+/**
+ * Acceso al mapper por reflexión de Firestore, que en la biblioteca de servidor es de paquete
+ * Es el mismo algoritmo que DocumentSnapshot.toObject en Android: setters y campos cacheados
+ * por clase y conversión de cada valor por reflexión en cada documento
+ */
+public final class FirestoreMapperBridge {
+
+    private FirestoreMapperBridge() {
+    }
+
+    public static <T> T toObject(Map<String, Object> data, Class<T> clazz) {
+        return CustomClassMapper.convertToCustomClass(data, clazz, null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.kamehouselaguna.benchmark;
+
+import com.kamehouselaguna.helpers.CatalogCodec;
+import com.kamehouselaguna.helpers.ListChange;
+import com.kamehouselaguna.helpers.LocalCatalog;
+import com.kamehouselaguna.models.Figure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sincronización incremental del catálogo local: cambios de lista por snapshot y caché en disco
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogSyncBenchmark {
+    // Fracción del catálogo que cambia en cada snapshot
+    private static final int CHANGED_PER_SNAPSHOT_DIVISOR = 100;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Figure> figuras;
+    private LocalCatalog catalogo;
+    private byte[] guardado;
+    private int version = 0;
+
+    @Setup
+    public void setUp() throws IOException {
+        figuras = SyntheticCatalog.figuras(size);
+        catalogo = new LocalCatalog(figuras, LocalCatalog.NO_WATERMARK, LocalCatalog.NO_WATERMARK);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CatalogCodec.write(output, figuras, catalogo.getWatermark(), catalogo.getTombstoneWatermark());
+        guardado = output.toByteArray();
+    }
+
+    /**
+     * Un snapshot que modifica el 1% del catálogo, con los cambios de lista que recibe la pantalla
+     */
+    @Benchmark
+    public List<ListChange> applyModifiedSnapshot() {
+        version++;
+        int cambios = Math.max(1, size / CHANGED_PER_SNAPSHOT_DIVISOR);
+        int paso = size / cambios;
+        for (int i = 0; i < cambios; i++) {
+            catalogo.upsert(SyntheticCatalog.edited(figuras.get(i * paso), version));
+        }
+        return catalogo.drainChanges();
+    }
+
+    @Benchmark
+    public LocalCatalog buildFromList() {
+        return new LocalCatalog(figuras, LocalCatalog.NO_WATERMARK, LocalCatalog.NO_WATERMARK);
+    }
+
+    @Benchmark
+    public byte[] writeCache() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(guardado.length);
+        CatalogCodec.write(output, figuras, catalogo.getWatermark(), catalogo.getTombstoneWatermark());
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public CatalogCodec.CachedCatalog readCache() throws IOException {
+        return CatalogCodec.read(new ByteArrayInputStream(guardado));
+    }
+}
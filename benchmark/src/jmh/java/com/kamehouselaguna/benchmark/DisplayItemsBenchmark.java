@@ -0,0 +1,85 @@
+package com.kamehouselaguna.benchmark;
+
+import com.kamehouselaguna.helpers.DisplayItems;
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preparación de los textos de las filas, comparada con formatear en cada bind como antes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DisplayItemsBenchmark {
+    private static final int CHANGED_PER_SNAPSHOT_DIVISOR = 100;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Figure> figuras;
+    private DisplayItems displayItems;
+    private NumberFormat currencyFormat;
+    private int version = 0;
+
+    @Setup
+    public void setUp() {
+        figuras = SyntheticCatalog.figuras(size);
+        displayItems = new DisplayItems();
+        displayItems.syncFiguras(figuras);
+        currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "MX"));
+    }
+
+    /**
+     * Textos de todo el catálogo desde cero, como al abrir la pantalla
+     */
+    @Benchmark
+    public List<FigureItem> prepareAll() {
+        return new DisplayItems().syncFiguras(figuras);
+    }
+
+    /**
+     * Snapshot que modifica el 1% del catálogo: solo se formatean esas figuras
+     */
+    @Benchmark
+    public List<FigureItem> prepareAfterSnapshot() {
+        version++;
+        List<Figure> snapshot = new ArrayList<>(figuras);
+        int cambios = Math.max(1, size / CHANGED_PER_SNAPSHOT_DIVISOR);
+        int paso = size / cambios;
+        for (int i = 0; i < cambios; i++) {
+            snapshot.set(i * paso, SyntheticCatalog.edited(figuras.get(i * paso), version));
+        }
+        return displayItems.syncFiguras(snapshot);
+    }
+
+    /**
+     * Lo que hacían los adapters al enlazar cada fila, para todo el catálogo
+     */
+    @Benchmark
+    public void formatPerBind(Blackhole blackhole) {
+        for (Figure figura : figuras) {
+            blackhole.consume(currencyFormat.format(figura.getPrecio()));
+            String descripcion = figura.getDescripcion();
+            if (descripcion != null && descripcion.length() > DisplayItems.DESCRIPCION_MAX_LENGTH) {
+                descripcion = descripcion.substring(0, DisplayItems.DESCRIPCION_MAX_LENGTH) + "...";
+            }
+            blackhole.consume(descripcion);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.kamehouselaguna.benchmark;
+
+import com.kamehouselaguna.helpers.PriceIndex;
+import com.kamehouselaguna.helpers.SearchIndex;
+import com.kamehouselaguna.models.Figure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índices de búsqueda y de precios: construcción completa y consultas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+    private static final String[] CONSULTAS = {"g", "goku", "super sai", "edicion limitada",
+            "vegeta armadura", "figura", "resina", "ten shin", "andr 18", "xyz"};
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Figure> figuras;
+    private SearchIndex searchIndex;
+    private PriceIndex priceIndex;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        figuras = SyntheticCatalog.figuras(size);
+        searchIndex = new SearchIndex();
+        searchIndex.sync(figuras);
+        priceIndex = new PriceIndex();
+        priceIndex.sync(figuras);
+    }
+
+    @Benchmark
+    public SearchIndex buildSearchIndex() {
+        SearchIndex index = new SearchIndex();
+        index.sync(figuras);
+        return index;
+    }
+
+    /**
+     * Una consulta sobre el índice ya construido; el objetivo es menos de 5 ms con 10,000 figuras
+     */
+    @Benchmark
+    public List<Figure> search() {
+        next = (next + 1) % CONSULTAS.length;
+        return searchIndex.search(CONSULTAS[next]);
+    }
+
+    @Benchmark
+    public PriceIndex buildPriceIndex() {
+        PriceIndex index = new PriceIndex();
+        index.sync(figuras);
+        return index;
+    }
+
+    @Benchmark
+    public List<Figure> priceRangeByPrice() {
+        return priceIndex.query(1000, 2000, PriceIndex.Sort.PRICE_ASC);
+    }
+
+    @Benchmark
+    public List<Figure> priceRangeByName() {
+        return priceIndex.query(1000, 2000, PriceIndex.Sort.NAME);
+    }
+}
@@ -0,0 +1,72 @@
+package com.kamehouselaguna.benchmark;
+
+import com.google.cloud.firestore.FirestoreMapperBridge;
+import com.kamehouselaguna.helpers.ListChange;
+import com.kamehouselaguna.helpers.SnapshotModel;
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primer snapshot del catálogo: convertir cada documento en figura y armar el modelo en orden
+ * mapDocumentsReflection es la línea base: el mapper por reflexión que usa toObject
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Map<String, Map<String, Object>> documentos;
+
+    @Setup
+    public void setUp() {
+        documentos = SyntheticCatalog.documents(size);
+    }
+
+    @Benchmark
+    public List<ListChange> initialSnapshot() {
+        SnapshotModel<Figure> model = new SnapshotModel<>();
+        int index = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : documentos.entrySet()) {
+            model.added(entry.getKey(), index++, FigureMapper.fromMap(entry.getKey(), entry.getValue()));
+        }
+        return model.drainChanges();
+    }
+
+    @Benchmark
+    public int mapDocuments() {
+        int mapped = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : documentos.entrySet()) {
+            if (FigureMapper.fromMap(entry.getKey(), entry.getValue()) != null) {
+                mapped++;
+            }
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public int mapDocumentsReflection() {
+        int mapped = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : documentos.entrySet()) {
+            Figure figura = FirestoreMapperBridge.toObject(entry.getValue(), Figure.class);
+            figura.setId(entry.getKey());
+            mapped++;
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kamehouselaguna.benchmark;
+
+import com.kamehouselaguna.models.Figure;
+import com.kamehouselaguna.models.FigureMapper;
+import com.kamehouselaguna.models.ImageRenditions;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Catálogos sintéticos con la forma de los documentos de Firestore, siempre con la misma semilla
+ */
+final class SyntheticCatalog {
+    private static final String[] PERSONAJES = {"Goku", "Vegeta", "Gohan", "Piccolo", "Trunks", "Bulma",
+            "Krilin", "Freezer", "Cell", "Majin Boo", "Bardock", "Broly", "Android 18", "Ten Shin Han"};
+    private static final String[] VARIANTES = {"Super Saiyajin", "Edición limitada", "Versión niño",
+            "Ultra Instinto", "Armadura", "Pequeño", "Clásico", "Batalla"};
+    private static final String[] DESCRIPCIONES = {
+            "Figura articulada de colección con base y efectos de energía intercambiables, "
+                    + "incluye tres rostros y cuatro pares de manos",
+            "Estatua de resina pintada a mano",
+            "Incluye accesorios y manos intercambiables",
+            "Edición japonesa con caja original, sellada y con certificado de autenticidad del distribuidor",
+            "Tamaño mediano, ideal para exhibición"};
+    private static final String URL_BASE = "https://firebasestorage.googleapis.com/v0/b/kamehouse.appspot.com/o/figuras%2F";
+    private static final long INICIO = 1_700_000_000_000L;
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * Campos de los documentos, por ID, en el orden de la consulta (más recientes primero)
+     */
+    static Map<String, Map<String, Object>> documents(int size) {
+        Random random = new Random(42);
+        Map<String, Map<String, Object>> documentos = new LinkedHashMap<>();
+        for (int i = size - 1; i >= 0; i--) {
+            String id = String.format("fig%06d", i);
+            documentos.put(id, document(random, id, i));
+        }
+        return documentos;
+    }
+
+    static List<Figure> figuras(int size) {
+        List<Figure> figuras = new ArrayList<>(size);
+        for (Map.Entry<String, Map<String, Object>> entry : documents(size).entrySet()) {
+            figuras.add(FigureMapper.fromMap(entry.getKey(), entry.getValue()));
+        }
+        return figuras;
+    }
+
+    /**
+     * Copia editada de una figura, como la que llega en un snapshot con el documento modificado
+     */
+    static Figure edited(Figure figura, int version) {
+        Figure editada = new Figure(figura);
+        editada.setPrecio(figura.getPrecio() + version);
+        editada.setFechaActualizacion(new Date(INICIO + 1_000_000_000L + version));
+        return editada;
+    }
+
+    private static Map<String, Object> document(Random random, String id, int i) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FigureMapper.FIELD_NOMBRE, PERSONAJES[random.nextInt(PERSONAJES.length)] + " "
+                + VARIANTES[random.nextInt(VARIANTES.length)] + " " + i);
+        data.put(FigureMapper.FIELD_DESCRIPCION, DESCRIPCIONES[random.nextInt(DESCRIPCIONES.length)]);
+
+        Map<String, String> imagenes = new HashMap<>();
+        imagenes.put(ImageRenditions.THUMB, URL_BASE + id + "_thumb.webp?alt=media&token=" + random.nextInt());
+        imagenes.put(ImageRenditions.MEDIUM, URL_BASE + id + "_medium.webp?alt=media&token=" + random.nextInt());
+        imagenes.put(ImageRenditions.ORIGINAL, URL_BASE + id + "_original.webp?alt=media&token=" + random.nextInt());
+        data.put(FigureMapper.FIELD_IMAGEN_URL, imagenes.get(ImageRenditions.ORIGINAL));
+        data.put(FigureMapper.FIELD_IMAGENES, imagenes);
+        data.put(FigureMapper.FIELD_IMAGENES_PENDIENTES, 0L);
+        data.put(FigureMapper.FIELD_IMAGEN_ERROR, false);
+        data.put(FigureMapper.FIELD_PRECIO, 100 + random.nextInt(4900) + random.nextInt(100) / 100.0);
+        Date creacion = new Date(INICIO + i * 60_000L);
+        data.put(FigureMapper.FIELD_FECHA_CREACION, creacion);
+        data.put(FigureMapper.FIELD_FECHA_ACTUALIZACION, creacion);
+        return data;
+    }
+}
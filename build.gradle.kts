@@ -1,5 +1,8 @@
 // Top-level build file where you can add configuration options common to all sub-projects/modules.
 plugins {
     alias(libs.plugins.android.application) apply false
+    alias(libs.plugins.android.test) apply false
     alias(libs.plugins.google.services) apply false
+    alias(libs.plugins.jmh) apply false
+    alias(libs.plugins.baselineprofile) apply false
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.baselineprofile)
+}
+
+// Debe ser el mismo host con el que se compila la app (ver app/build.gradle.kts)
+val firebaseEmulatorHost = providers.gradleProperty("firebaseEmulatorHost").getOrElse("")
+
+android {
+    namespace = "com.kamehouselaguna.macrobenchmark"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        // Generar Baseline Profiles requiere API 28 o superior
+        minSdk = 28
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        testInstrumentationRunnerArguments["firebaseEmulatorHost"] = firebaseEmulatorHost
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+
+    targetProjectPath = ":app"
+}
+
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.androidx.junit)
+    implementation(libs.androidx.uiautomator)
+    implementation(libs.androidx.benchmark.macro.junit4)
+}
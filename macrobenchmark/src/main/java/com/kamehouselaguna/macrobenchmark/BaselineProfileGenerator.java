@@ -0,0 +1,55 @@
+package com.kamehouselaguna.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+/**
+ * Genera el Baseline Profile de la app con los recorridos más frecuentes:
+ * arranque y carga del catálogo (MainActivity, FirestoreHelper), scroll de la lista (FigureAdapter)
+ * y apertura de un detalle (FigureDetailActivity).
+ * Se ejecuta con ./gradlew :app:generateBaselineProfile, que copia el resultado a app/src/main
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    private static final int MAX_ITERATIONS = 15;
+    private static final int STABLE_ITERATIONS = 3;
+    private static final int FLINGS = 3;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @BeforeClass
+    public static void seedCatalog() throws IOException {
+        CatalogSeeder.seedOnce();
+    }
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                CatalogSeeder.TARGET_PACKAGE,
+                MAX_ITERATIONS,
+                STABLE_ITERATIONS,
+                /* outputFilePrefix = */ null,
+                /* includeInStartupProfile = */ false,
+                /* strictStability = */ false,
+                /* filterPredicate = */ rule -> true,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    CatalogJourneys.waitForCatalog(scope);
+                    CatalogJourneys.flingCatalog(scope, FLINGS);
+                    CatalogJourneys.openFigure(scope, 0);
+                    scope.getDevice().pressBack();
+                    return Unit.INSTANCE;
+                });
+    }
+}
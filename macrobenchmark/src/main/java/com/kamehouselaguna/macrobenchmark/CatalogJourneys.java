@@ -0,0 +1,66 @@
+package com.kamehouselaguna.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.util.List;
+
+/**
+ * Recorridos de usuario sobre el catálogo, compartidos por los benchmarks y el generador del Baseline Profile
+ */
+final class CatalogJourneys {
+    private static final long TIMEOUT_MS = 15_000;
+
+    private CatalogJourneys() {
+    }
+
+    /**
+     * Espera a que la lista muestre la primera figura
+     */
+    static void waitForCatalog(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        if (!device.wait(Until.hasObject(By.res(CatalogSeeder.TARGET_PACKAGE, "textViewNombre")), TIMEOUT_MS)) {
+            throw new IllegalStateException("El catálogo no cargó; revisa que los emuladores estén en marcha");
+        }
+    }
+
+    /**
+     * Desliza la lista hacia abajo varias veces, esperando a que se detenga entre cada gesto
+     */
+    static void flingCatalog(MacrobenchmarkScope scope, int flings) {
+        UiDevice device = scope.getDevice();
+        UiObject2 lista = findCatalog(device);
+        // Margen para que el gesto no empiece en el borde y abra la navegación del sistema
+        lista.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < flings; i++) {
+            lista.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+    }
+
+    /**
+     * Abre el detalle de una de las figuras visibles y espera a que se muestre
+     * @param position Fila visible a abrir; se toma el módulo del número de filas en pantalla
+     */
+    static void openFigure(MacrobenchmarkScope scope, int position) {
+        UiDevice device = scope.getDevice();
+        List<UiObject2> filas = findCatalog(device).getChildren();
+        filas.get(position % filas.size()).click();
+        if (!device.wait(Until.hasObject(By.res(CatalogSeeder.TARGET_PACKAGE, "buttonCompartir")), TIMEOUT_MS)) {
+            throw new IllegalStateException("No se abrió el detalle de la figura");
+        }
+        device.waitForIdle();
+    }
+
+    private static UiObject2 findCatalog(UiDevice device) {
+        UiObject2 lista = device.findObject(By.res(CatalogSeeder.TARGET_PACKAGE, "recyclerViewFiguras"));
+        if (lista == null) {
+            throw new IllegalStateException("No se encontró la lista de figuras");
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,244 @@
+package com.kamehouselaguna.macrobenchmark;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Siembra un catálogo fijo en Firebase Local Emulator Suite mediante sus APIs REST
+ * Siempre genera las mismas figuras e imágenes para que las mediciones sean comparables entre corridas
+ */
+final class CatalogSeeder {
+    static final String TARGET_PACKAGE = "com.kamehouselaguna";
+    static final int CATALOG_SIZE = 300;
+
+    private static final String ARG_EMULATOR_HOST = "firebaseEmulatorHost";
+    // Puertos de emulator/firebase.json
+    private static final int FIRESTORE_PORT = 8080;
+    private static final int STORAGE_PORT = 9199;
+    // Límite de escrituras de Firestore por commit
+    private static final int BATCH_SIZE = 500;
+    // Imágenes distintas que se reparten entre las figuras
+    private static final int IMAGE_COUNT = 24;
+    private static final String[] RENDITIONS = {"thumb", "medium", "original"};
+    private static final int[] RENDITION_EDGES = {320, 1080, 1600};
+    private static final int JPEG_QUALITY = 85;
+    private static final long INICIO = 1_700_000_000_000L;
+
+    private static final String[] PERSONAJES = {"Goku", "Vegeta", "Gohan", "Piccolo", "Trunks", "Bulma",
+            "Krilin", "Freezer", "Cell", "Majin Boo", "Bardock", "Broly", "Android 18", "Ten Shin Han"};
+    private static final String[] VARIANTES = {"Super Saiyajin", "Edición limitada", "Versión niño",
+            "Ultra Instinto", "Armadura", "Pequeño", "Clásico", "Batalla"};
+    private static final String[] DESCRIPCIONES = {
+            "Figura articulada de colección con base y efectos de energía intercambiables, "
+                    + "incluye tres rostros y cuatro pares de manos",
+            "Estatua de resina pintada a mano",
+            "Incluye accesorios y manos intercambiables",
+            "Edición japonesa con caja original, sellada y con certificado de autenticidad del distribuidor",
+            "Tamaño mediano, ideal para exhibición"};
+
+    private static boolean seeded = false;
+
+    private CatalogSeeder() {
+    }
+
+    /**
+     * Siembra el catálogo una vez por ejecución de las pruebas
+     * Borra antes los documentos del emulador para descartar cambios de corridas anteriores
+     */
+    static synchronized void seedOnce() throws IOException {
+        if (seeded) {
+            return;
+        }
+        String host = InstrumentationRegistry.getArguments().getString(ARG_EMULATOR_HOST, "");
+        if (host.isEmpty()) {
+            throw new IllegalStateException("Compila con -PfirebaseEmulatorHost=10.0.2.2 y arranca "
+                    + "los emuladores con macrobenchmark/emulator/firebase.json");
+        }
+
+        Context target = targetContext();
+        String projectId = targetString(target, "project_id");
+        String bucket = targetString(target, "google_storage_bucket");
+
+        String[][] imagenes = uploadImages(host, bucket);
+        clearFirestore(host, projectId);
+        writeFiguras(host, projectId, imagenes);
+        seeded = true;
+    }
+
+    // ========== STORAGE ==========
+
+    /**
+     * Sube las imágenes en cada tamaño
+     * @return URLs de descarga por imagen y tamaño, en el orden de RENDITIONS
+     */
+    private static String[][] uploadImages(String host, String bucket) throws IOException {
+        String[][] urls = new String[IMAGE_COUNT][RENDITIONS.length];
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            for (int r = 0; r < RENDITIONS.length; r++) {
+                String path = String.format(Locale.ROOT, "figuras/seed_%02d_%s.jpg", i, RENDITIONS[r]);
+                String name = URLEncoder.encode(path, "UTF-8");
+                String upload = "http://" + host + ":" + STORAGE_PORT + "/upload/storage/v1/b/" + bucket
+                        + "/o?uploadType=media&name=" + name;
+                send("POST", upload, "image/jpeg", renderImage(i, RENDITION_EDGES[r]));
+                urls[i][r] = "http://" + host + ":" + STORAGE_PORT + "/v0/b/" + bucket + "/o/" + name + "?alt=media";
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Imagen de prueba: degradado con un círculo, con suficiente detalle para que el JPEG no sea trivial
+     */
+    private static byte[] renderImage(int index, int edge) {
+        Bitmap bitmap = Bitmap.createBitmap(edge, edge, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        float hue = index * 360f / IMAGE_COUNT;
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        for (int y = 0; y < edge; y += 4) {
+            paint.setColor(Color.HSVToColor(new float[]{hue, 0.6f, 0.4f + 0.6f * y / edge}));
+            canvas.drawRect(0, y, edge, y + 4, paint);
+        }
+        paint.setColor(Color.HSVToColor(new float[]{(hue + 180) % 360, 0.8f, 0.9f}));
+        canvas.drawCircle(edge / 2f, edge / 2f, edge / 3f, paint);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, output);
+        bitmap.recycle();
+        return output.toByteArray();
+    }
+
+    // ========== FIRESTORE ==========
+
+    private static void clearFirestore(String host, String projectId) throws IOException {
+        send("DELETE", "http://" + host + ":" + FIRESTORE_PORT + "/emulator/v1/projects/" + projectId
+                + "/databases/(default)/documents", null, null);
+    }
+
+    private static void writeFiguras(String host, String projectId, String[][] imagenes) throws IOException {
+        String documents = "projects/" + projectId + "/databases/(default)/documents";
+        String commit = "http://" + host + ":" + FIRESTORE_PORT + "/v1/" + documents + ":commit";
+        Random random = new Random(42);
+        try {
+            JSONArray writes = new JSONArray();
+            for (int i = 0; i < CATALOG_SIZE; i++) {
+                String id = String.format(Locale.ROOT, "seed%04d", i);
+                JSONObject document = new JSONObject()
+                        .put("name", documents + "/figuras/" + id)
+                        .put("fields", figuraFields(random, i, imagenes[i % IMAGE_COUNT]));
+                writes.put(new JSONObject().put("update", document));
+
+                if (writes.length() == BATCH_SIZE || i == CATALOG_SIZE - 1) {
+                    byte[] body = new JSONObject().put("writes", writes).toString().getBytes(StandardCharsets.UTF_8);
+                    send("POST", commit, "application/json", body);
+                    writes = new JSONArray();
+                }
+            }
+        } catch (JSONException e) {
+            throw new IOException("No se pudo armar el catálogo", e);
+        }
+    }
+
+    /**
+     * Campos de una figura con los nombres y tipos que escribe la app (ver FigureMapper)
+     */
+    private static JSONObject figuraFields(Random random, int i, String[] urls) throws JSONException {
+        JSONObject imagenes = new JSONObject();
+        for (int r = 0; r < RENDITIONS.length; r++) {
+            imagenes.put(RENDITIONS[r], string(urls[r]));
+        }
+        double precio = 100 + random.nextInt(4900) + random.nextInt(100) / 100.0;
+        String fecha = timestamp(new Date(INICIO + i * 60_000L));
+
+        return new JSONObject()
+                .put("nombre", string(PERSONAJES[random.nextInt(PERSONAJES.length)] + " "
+                        + VARIANTES[random.nextInt(VARIANTES.length)] + " " + i))
+                .put("descripcion", string(DESCRIPCIONES[random.nextInt(DESCRIPCIONES.length)]))
+                .put("imagenUrl", string(urls[RENDITIONS.length - 1]))
+                .put("imagenes", new JSONObject().put("mapValue", new JSONObject().put("fields", imagenes)))
+                .put("imagenesPendientes", new JSONObject().put("integerValue", "0"))
+                .put("imagenError", new JSONObject().put("booleanValue", false))
+                .put("precio", new JSONObject().put("doubleValue", precio))
+                .put("fechaCreacion", new JSONObject().put("timestampValue", fecha))
+                .put("fechaActualizacion", new JSONObject().put("timestampValue", fecha));
+    }
+
+    private static JSONObject string(String value) throws JSONException {
+        return new JSONObject().put("stringValue", value);
+    }
+
+    private static String timestamp(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(date);
+    }
+
+    // ========== UTILIDADES ==========
+
+    /**
+     * Petición a un emulador como administrador, sin pasar por las reglas de seguridad
+     */
+    private static void send(String method, String url, String contentType, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setRequestProperty("Authorization", "Bearer owner");
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", contentType);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(body);
+                }
+            }
+            int code = connection.getResponseCode();
+            if (code < 200 || code >= 300) {
+                throw new IOException(method + " " + url + " respondió " + code);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static Context targetContext() {
+        try {
+            return InstrumentationRegistry.getInstrumentation().getContext()
+                    .createPackageContext(TARGET_PACKAGE, 0);
+        } catch (PackageManager.NameNotFoundException e) {
+            throw new IllegalStateException("La app " + TARGET_PACKAGE + " no está instalada", e);
+        }
+    }
+
+    /**
+     * Lee un recurso que genera google-services a partir de google-services.json
+     */
+    private static String targetString(Context target, String name) {
+        int id = target.getResources().getIdentifier(name, "string", TARGET_PACKAGE);
+        if (id == 0) {
+            throw new IllegalStateException("La app no tiene el recurso " + name);
+        }
+        return target.getString(id);
+    }
+}
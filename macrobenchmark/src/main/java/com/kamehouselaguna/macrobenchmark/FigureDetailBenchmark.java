@@ -0,0 +1,80 @@
+package com.kamehouselaguna.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Tiempo desde que se toca una figura hasta que su detalle muestra la imagen completa
+ * FigureDetailActivity marca ese intervalo con una sección de trace asíncrona.
+ * Cada iteración abre una fila distinta para no medir siempre la imagen ya en caché
+ */
+@RunWith(Parameterized.class)
+public class FigureDetailBenchmark {
+    private static final int ITERATIONS = 10;
+    // Mismo nombre que FigureDetailActivity.TRACE_DETAIL_DRAWN
+    private static final String TRACE_DETAIL_DRAWN = "FigureDetailDrawn";
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final CompilationMode compilationMode;
+    private int iteration = 0;
+
+    public FigureDetailBenchmark(CompilationMode compilationMode) {
+        this.compilationMode = compilationMode;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(
+                new Object[]{new CompilationMode.None()},
+                new Object[]{new CompilationMode.Partial(BaselineProfileMode.UseIfAvailable, 0)});
+    }
+
+    @BeforeClass
+    public static void seedCatalog() throws IOException {
+        CatalogSeeder.seedOnce();
+    }
+
+    @Test
+    public void openDetail() {
+        List<Metric> metrics = Arrays.asList(
+                new TraceSectionMetric(TRACE_DETAIL_DRAWN, TraceSectionMetric.Mode.First.INSTANCE,
+                        TRACE_DETAIL_DRAWN, true),
+                new FrameTimingMetric());
+        benchmarkRule.measureRepeated(
+                CatalogSeeder.TARGET_PACKAGE,
+                metrics,
+                compilationMode,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    CatalogJourneys.waitForCatalog(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    CatalogJourneys.openFigure(scope, iteration++);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,71 @@
+package com.kamehouselaguna.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Duración de los cuadros al deslizar recyclerViewFiguras, incluida la carga de páginas e imágenes
+ * Cada iteración reinicia la actividad para empezar desde el principio de la lista
+ */
+@RunWith(Parameterized.class)
+public class ScrollBenchmark {
+    private static final int ITERATIONS = 10;
+    private static final int FLINGS = 5;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final CompilationMode compilationMode;
+
+    public ScrollBenchmark(CompilationMode compilationMode) {
+        this.compilationMode = compilationMode;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(
+                new Object[]{new CompilationMode.None()},
+                new Object[]{new CompilationMode.Partial(BaselineProfileMode.UseIfAvailable, 0)});
+    }
+
+    @BeforeClass
+    public static void seedCatalog() throws IOException {
+        CatalogSeeder.seedOnce();
+    }
+
+    @Test
+    public void scrollCatalog() {
+        benchmarkRule.measureRepeated(
+                CatalogSeeder.TARGET_PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                compilationMode,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    CatalogJourneys.waitForCatalog(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    CatalogJourneys.flingCatalog(scope, FLINGS);
+                    return Unit.INSTANCE;
+                });
+    }
+}
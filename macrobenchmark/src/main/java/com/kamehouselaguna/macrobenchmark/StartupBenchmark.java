@@ -0,0 +1,76 @@
+package com.kamehouselaguna.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Arranque en frío, tibio y en caliente hasta el primer cuadro del catálogo
+ * MainActivity llama a reportFullyDrawn al mostrar la primera figura, que se reporta como timeToFullDisplay.
+ * Cada modo se mide sin compilar y con el Baseline Profile para ver su efecto
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode startupMode;
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(StartupMode startupMode, CompilationMode compilationMode) {
+        this.startupMode = startupMode;
+        this.compilationMode = compilationMode;
+    }
+
+    @Parameterized.Parameters(name = "{0},{1}")
+    public static Collection<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (StartupMode startupMode : StartupMode.values()) {
+            parameters.add(new Object[]{startupMode, new CompilationMode.None()});
+            parameters.add(new Object[]{startupMode, new CompilationMode.Partial(BaselineProfileMode.UseIfAvailable, 0)});
+        }
+        return parameters;
+    }
+
+    @BeforeClass
+    public static void seedCatalog() throws IOException {
+        CatalogSeeder.seedOnce();
+    }
+
+    @Test
+    public void startup() {
+        benchmarkRule.measureRepeated(
+                CatalogSeeder.TARGET_PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    CatalogJourneys.waitForCatalog(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Kame House Laguna"
 include(":app")
+include(":benchmark")
+include(":macrobenchmark")